@@ -0,0 +1,43 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmhImplementation(project(":lib"))
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(11))
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Allocation rate and GC counts per benchmark, reported as gc.alloc.rate.norm etc. in the results.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // Run a subset with e.g. ./gradlew :benchmarks:jmh -PjmhIncludes=HttpClientBenchmark
+    project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
+// Copies the latest JMH results to results/<lib version>.json so runs can be compared across releases, e.g.
+// ./gradlew :benchmarks:jmh :benchmarks:publishJmhResults
+tasks.register<Copy>("publishJmhResults") {
+    group = "benchmark"
+    description = "Copies the JMH JSON results to results/<version>.json"
+    val libVersion = project(":lib").version.toString()
+    from(layout.buildDirectory.file("results/jmh/results.json"))
+    into(layout.projectDirectory.dir("results"))
+    rename { "$libVersion.json" }
+    mustRunAfter("jmh")
+}
@@ -0,0 +1,37 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.adapters.AnthropicLLMAdapter;
+import ai.freeplay.client.adapters.LLMAdapters;
+import ai.freeplay.client.adapters.OpenAILLMAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the registry lookup with allocating an adapter per call, which is what {@code adapterForFlavor} did for
+ * every {@code BoundPrompt.format}. Run with the gc profiler to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AdapterLookupBenchmark {
+    @Param({"openai_chat", "anthropic_chat"})
+    public String flavor;
+
+    @Benchmark
+    public LLMAdapters.LLMAdapter<?> registryLookup() {
+        return LLMAdapters.adapterForFlavor(flavor);
+    }
+
+    @Benchmark
+    public LLMAdapters.LLMAdapter<?> newAdapterPerCall() {
+        switch (flavor) {
+            case "openai_chat":
+                return new OpenAILLMAdapter();
+            case "anthropic_chat":
+                return new AnthropicLLMAdapter();
+            default:
+                throw new IllegalArgumentException(flavor);
+        }
+    }
+}
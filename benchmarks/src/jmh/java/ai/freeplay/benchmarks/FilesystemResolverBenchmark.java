@@ -0,0 +1,67 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.FilesystemTemplateResolver;
+import ai.freeplay.client.internal.v2dto.TemplateDTO;
+import ai.freeplay.client.internal.v2dto.TemplatesDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Looks up templates in a generated prompt bundle by name, by version ID and as a full listing. The
+ * {@code watching} variant serves lookups from memory without checking file timestamps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FilesystemResolverBenchmark {
+    @Param({"100"})
+    public int templateCount;
+
+    @Param({"false", "true"})
+    public boolean watching;
+
+    private Path root;
+    private FilesystemTemplateResolver resolver;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Fixtures.promptBundle(templateCount);
+        resolver = watching ? FilesystemTemplateResolver.watching(root) : new FilesystemTemplateResolver(root);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        resolver.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public TemplateDTO getPrompt() throws ExecutionException, InterruptedException {
+        return resolver.getPrompt(Fixtures.PROJECT_ID, Fixtures.templateName(nextIndex()), "prod").get();
+    }
+
+    @Benchmark
+    public TemplateDTO getPromptByVersionId() throws ExecutionException, InterruptedException {
+        return resolver.getPromptByVersionId(Fixtures.PROJECT_ID, "template-id", Fixtures.templateVersionId(nextIndex())).get();
+    }
+
+    @Benchmark
+    public TemplatesDTO getPrompts() throws ExecutionException, InterruptedException {
+        return resolver.getPrompts(Fixtures.PROJECT_ID, "prod").get();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % templateCount;
+        return next;
+    }
+}
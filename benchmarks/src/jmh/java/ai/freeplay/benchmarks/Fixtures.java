@@ -0,0 +1,157 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.internal.v2dto.TemplateDTO.ToolSchema;
+import ai.freeplay.client.media.MediaInputBase64;
+import ai.freeplay.client.media.MediaInputCollection;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.ContentPartBase64;
+import ai.freeplay.client.resources.prompts.ContentPartText;
+import ai.freeplay.client.resources.prompts.MediaType;
+import ai.freeplay.client.resources.prompts.PromptInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Realistic inputs shared by the benchmarks: long conversations, inline images and tool schemas. Everything is
+ * generated from a fixed seed so runs are comparable across releases.
+ */
+final class Fixtures {
+    static final String PROJECT_ID = "475516c8-7be4-4d55-9388-535cef042981";
+    static final int IMAGE_BYTES = 256 * 1024;
+
+    private Fixtures() {
+    }
+
+    static PromptInfo promptInfo(String flavorName) {
+        return new PromptInfo(
+                "6252eca9-edb1-403c-a059-744cfc6e254e",
+                "ed3b96f5-0783-4d40-9ef3-35297c29529c",
+                "support-agent",
+                "prod",
+                Map.of("temperature", 0.2, "max_tokens", 1024),
+                null,
+                "benchmark-model",
+                flavorName
+        );
+    }
+
+    /**
+     * Alternating user and assistant turns with a few hundred characters of text each.
+     */
+    static List<ChatMessage> history(int turns) {
+        Random random = new Random(turns);
+        List<ChatMessage> history = new ArrayList<>(turns);
+        for (int i = 0; i < turns; i++) {
+            history.add(new ChatMessage(i % 2 == 0 ? "user" : "assistant", sentence(random, 60)));
+        }
+        return history;
+    }
+
+    static byte[] image() {
+        byte[] data = new byte[IMAGE_BYTES];
+        new Random(IMAGE_BYTES).nextBytes(data);
+        return data;
+    }
+
+    static ChatMessage imageMessage(byte[] image) {
+        return new ChatMessage("user", List.of(
+                new ContentPartText("What is in this picture?"),
+                new ContentPartBase64("photo", MediaType.IMAGE, "image/jpeg", image)
+        ));
+    }
+
+    static MediaInputCollection imageInputs(byte[] image) {
+        MediaInputCollection inputs = new MediaInputCollection();
+        inputs.put("photo", new MediaInputBase64(image, "image/jpeg"));
+        return inputs;
+    }
+
+    static List<ToolSchema> toolSchemas(int count) {
+        List<ToolSchema> tools = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tools.add(new ToolSchema("tool_" + i, "Looks up record type " + i, Map.of(
+                    "type", "object",
+                    "additionalProperties", false,
+                    "required", List.of("id"),
+                    "properties", Map.of(
+                            "id", Map.of("type", "string", "description", "Record ID"),
+                            "fields", Map.of("type", "array", "items", Map.of("type", "string")),
+                            "limit", Map.of("type", "integer", "minimum", 1, "maximum", 100)
+                    )
+            )));
+        }
+        return tools;
+    }
+
+    static List<Map<String, Object>> toolSchemaMaps(int count) {
+        List<Map<String, Object>> tools = new ArrayList<>(count);
+        for (ToolSchema tool : toolSchemas(count)) {
+            tools.add(Map.of("name", tool.getName(), "description", tool.getDescription(), "parameters", tool.getParameters()));
+        }
+        return tools;
+    }
+
+    /**
+     * Writes {@code count} templates in the prompt bundle layout read by {@code FilesystemTemplateResolver} and
+     * returns the bundle root.
+     */
+    static Path promptBundle(int count) throws IOException {
+        Path root = Files.createTempDirectory("freeplay-benchmark");
+        Path environmentDir = Files.createDirectories(root.resolve("freeplay/prompts").resolve(PROJECT_ID).resolve("prod"));
+        for (int i = 0; i < count; i++) {
+            Files.write(environmentDir.resolve(templateName(i) + ".json"), templateJson(i).getBytes(StandardCharsets.UTF_8));
+        }
+        return root;
+    }
+
+    static String templateName(int index) {
+        return "prompt-" + index;
+    }
+
+    static String templateVersionId(int index) {
+        return String.format("00000000-0000-4000-8000-%012d", index);
+    }
+
+    private static String templateJson(int index) {
+        return "{\n" +
+                "  \"content\": [\n" +
+                "    {\"role\": \"system\", \"content\": \"You are a support agent for {{company}}.\"},\n" +
+                "    {\"kind\": \"history\"},\n" +
+                "    {\"role\": \"user\", \"content\": \"{{question}}\"}\n" +
+                "  ],\n" +
+                "  \"format_version\": 3,\n" +
+                "  \"metadata\": {\n" +
+                "    \"flavor\": \"openai_chat\",\n" +
+                "    \"model\": \"gpt-4o\",\n" +
+                "    \"params\": {\"max_tokens\": 256, \"temperature\": 0.0},\n" +
+                "    \"provider\": \"openai\",\n" +
+                "    \"provider_info\": {}\n" +
+                "  },\n" +
+                "  \"project_id\": \"" + PROJECT_ID + "\",\n" +
+                "  \"prompt_template_id\": \"" + templateVersionId(index + 1_000_000) + "\",\n" +
+                "  \"prompt_template_name\": \"" + templateName(index) + "\",\n" +
+                "  \"prompt_template_version_id\": \"" + templateVersionId(index) + "\"\n" +
+                "}\n";
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder builder = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            int length = 2 + random.nextInt(7);
+            for (int c = 0; c < length; c++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return builder.append('.').toString();
+    }
+}
@@ -0,0 +1,83 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.internal.AsyncHttp;
+import ai.freeplay.client.transport.HttpTransport;
+import ai.freeplay.client.transport.LoopbackTransport;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building an HttpClient per request (the SDK's previous behavior) with a shared, long-lived client
+ * against a local server. Run with the gc profiler to see the per-call allocation difference. {@code loopbackTransport}
+ * sends the same call through a {@link LoopbackTransport}, the SDK's own cost without a socket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HttpClientBenchmark {
+    private static final byte[] RESPONSE = "{\"completion_id\":\"0b7c4a43-6b0e-4c57-9f54-3c1f3c6f3c1e\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final Map<String, Object> PAYLOAD = Map.of("helpful", true, "rating", 5);
+
+    private HttpServer server;
+    private String url;
+    private HttpConfig httpConfig;
+    private AsyncHttp sharedHttp;
+    private AsyncHttp loopbackHttp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(201, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v2/projects/p/completion-feedback/id/c";
+
+        httpConfig = new HttpConfig();
+        sharedHttp = new AsyncHttp(httpConfig);
+        loopbackHttp = new AsyncHttp(httpConfig, new LoopbackTransport(request -> HttpTransport.Response.of(201, Map.of(), RESPONSE)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sharedHttp.close();
+        loopbackHttp.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public HttpResponse<String> clientPerRequest() throws Exception {
+        AsyncHttp http = new AsyncHttp(httpConfig);
+        try {
+            return http.postJson(url, "api-key", PAYLOAD).get();
+        } finally {
+            http.close();
+        }
+    }
+
+    @Benchmark
+    public HttpResponse<String> sharedClient() throws Exception {
+        return sharedHttp.postJson(url, "api-key", PAYLOAD).get();
+    }
+
+    @Benchmark
+    public HttpResponse<String> loopbackTransport() throws Exception {
+        return loopbackHttp.postJson(url, "api-key", PAYLOAD).get();
+    }
+}
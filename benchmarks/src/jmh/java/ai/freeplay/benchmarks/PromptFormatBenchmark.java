@@ -0,0 +1,41 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.resources.prompts.BoundPrompt;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.FormattedPrompt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a bound prompt for each provider: a system message, a long history, a message with an inline image
+ * and a set of tool schemas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PromptFormatBenchmark {
+    @Param({"openai_chat", "openai_responses", "anthropic_chat", "gemini_api_chat", "bedrock_converse"})
+    public String flavor;
+
+    @Param({"10", "200"})
+    public int historySize;
+
+    private BoundPrompt boundPrompt;
+
+    @Setup
+    public void setUp() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage("system", "You are a support agent. Use the tools to look up records."));
+        messages.addAll(Fixtures.history(historySize));
+        messages.add(Fixtures.imageMessage(Fixtures.image()));
+        boundPrompt = new BoundPrompt(Fixtures.promptInfo(flavor), messages, Fixtures.toolSchemas(8));
+    }
+
+    @Benchmark
+    public FormattedPrompt<Object> format() {
+        return boundPrompt.format();
+    }
+}
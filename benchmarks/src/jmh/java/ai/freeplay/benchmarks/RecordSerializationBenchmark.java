@@ -0,0 +1,69 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.internal.CallSupport;
+import ai.freeplay.client.internal.PreparedRecord;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.PromptVersionInfo;
+import ai.freeplay.client.resources.recordings.CallInfo;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.ResponseInfo;
+import ai.freeplay.client.resources.sessions.SessionInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a completion to a {@code RecordDTO} and serializes it with {@code JSONUtil}, as
+ * {@code recordings().create(...)} does before sending. {@code withImage} adds a base64 media input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RecordSerializationBenchmark {
+    @Param({"10", "200"})
+    public int historySize;
+
+    @Param({"false", "true"})
+    public boolean withImage;
+
+    private CallSupport callSupport;
+    private RecordPayload payload;
+
+    @Setup
+    public void setUp() {
+        callSupport = new CallSupport(new HttpConfig(), null, "http://localhost/api", "benchmark-key");
+
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage("system", "You are a support agent. Use the tools to look up records."));
+        messages.addAll(Fixtures.history(historySize));
+        messages.add(new ChatMessage("assistant", "Here is what I found."));
+
+        long now = System.currentTimeMillis();
+        payload = new RecordPayload(Fixtures.PROJECT_ID, messages)
+                .sessionInfo(new SessionInfo(UUID.randomUUID().toString(), Map.of("customer", "acme")))
+                .inputs(Map.of("company", "Acme", "question", "Why isn't my sink working?"))
+                .promptVersionInfo(new PromptVersionInfo("ed3b96f5-0783-4d40-9ef3-35297c29529c", "prod"))
+                .callInfo(new CallInfo("openai", "gpt-4o", now - 1200, now, Map.of("temperature", 0.2)))
+                .responseInfo(new ResponseInfo(true))
+                .toolSchema(Fixtures.toolSchemaMaps(8))
+                .completionId(UUID.randomUUID());
+        if (withImage) {
+            payload.mediaInputCollection(Fixtures.imageInputs(Fixtures.image()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        callSupport.close();
+    }
+
+    @Benchmark
+    public PreparedRecord prepareRecord() {
+        return callSupport.prepareRecord(payload);
+    }
+}
@@ -0,0 +1,96 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.internal.CallSupport;
+import ai.freeplay.client.internal.GzipBody;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.PromptVersionInfo;
+import ai.freeplay.client.resources.recordings.CallInfo;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.ResponseInfo;
+import ai.freeplay.client.resources.sessions.SessionInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of gzipping a serialized record body ({@code HttpConfig.gzipRequestBodies}) against sending it
+ * uncompressed. Both serialize the record first, as {@code recordings().create(...)} does for every call, so the
+ * difference between them is the cost of compression. The {@code bodyBytes} counter reports the size of the body each
+ * would send, so the bytes saved can be read next to the time spent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RequestCompressionBenchmark {
+    @Param({"10", "200"})
+    public int historySize;
+
+    @Param({"false", "true"})
+    public boolean withImage;
+
+    private CallSupport callSupport;
+    private RecordPayload payload;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SentBody {
+        // Assigned rather than added to, so each iteration reports the size of one body.
+        public long bodyBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        callSupport = new CallSupport(new HttpConfig(), null, "http://localhost/api", "benchmark-key");
+
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage("system", "You are a support agent. Use the tools to look up records."));
+        messages.addAll(Fixtures.history(historySize));
+        messages.add(new ChatMessage("assistant", "Here is what I found."));
+
+        long now = System.currentTimeMillis();
+        payload = new RecordPayload(Fixtures.PROJECT_ID, messages)
+                .sessionInfo(new SessionInfo(UUID.randomUUID().toString(), Map.of("customer", "acme")))
+                .inputs(Map.of("company", "Acme", "question", "Why isn't my sink working?"))
+                .promptVersionInfo(new PromptVersionInfo("ed3b96f5-0783-4d40-9ef3-35297c29529c", "prod"))
+                .callInfo(new CallInfo("openai", "gpt-4o", now - 1200, now, Map.of("temperature", 0.2)))
+                .responseInfo(new ResponseInfo(true))
+                .toolSchema(Fixtures.toolSchemaMaps(8))
+                .completionId(UUID.randomUUID());
+        if (withImage) {
+            payload.mediaInputCollection(Fixtures.imageInputs(Fixtures.image()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        callSupport.close();
+    }
+
+    @Benchmark
+    public long uncompressed(SentBody sent) {
+        byte[] body = callSupport.prepareRecord(payload).getBody();
+        sent.bodyBytes = body.length;
+        return sent.bodyBytes;
+    }
+
+    @Benchmark
+    public long gzip(SentBody sent) {
+        byte[] body = callSupport.prepareRecord(payload).getBody();
+        sent.bodyBytes = length(GzipBody.compress(body));
+        return sent.bodyBytes;
+    }
+
+    private static long length(List<ByteBuffer> buffers) {
+        long length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,50 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.resources.prompts.BoundPrompt;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.CompiledTemplatePrompt;
+import ai.freeplay.client.resources.prompts.KindMessage;
+import ai.freeplay.client.resources.prompts.PromptInfo;
+import ai.freeplay.client.resources.prompts.TemplatePrompt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a prompt with a history placeholder. {@code compiledPrompt} reuses one render plan, while
+ * {@code newTemplatePrompt} builds a fresh {@link TemplatePrompt} per call, as {@code Prompts.get} does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TemplateBindBenchmark {
+    private static final PromptInfo PROMPT_INFO = new PromptInfo(
+            "template-id", "version-id", "support-agent", "prod", Map.of(), "openai", "gpt-4o", "openai_chat");
+    private static final List<ChatMessage> MESSAGES = List.of(
+            new ChatMessage("system", "You are a support agent for {{company}}. Answer in a {{tone}} tone."),
+            new KindMessage("history"),
+            new ChatMessage("user", "Question: {{question}}")
+    );
+    private static final TemplatePrompt.BindRequest REQUEST = new TemplatePrompt.BindRequest(Map.of(
+            "company", "Acme",
+            "tone", "friendly",
+            "question", "Why isn't my sink working?"
+    )).history(List.of(
+            new ChatMessage("user", "Hello"),
+            new ChatMessage("assistant", "Hi, how can I help?")
+    ));
+
+    private final CompiledTemplatePrompt compiled = new TemplatePrompt(PROMPT_INFO, MESSAGES).compile();
+
+    @Benchmark
+    public BoundPrompt compiledPrompt() {
+        return compiled.bind(REQUEST);
+    }
+
+    @Benchmark
+    public BoundPrompt newTemplatePrompt() {
+        return new TemplatePrompt(PROMPT_INFO, MESSAGES).bind(REQUEST);
+    }
+}
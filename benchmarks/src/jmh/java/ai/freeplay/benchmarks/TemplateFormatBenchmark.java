@@ -0,0 +1,43 @@
+package ai.freeplay.benchmarks;
+
+import ai.freeplay.client.internal.TemplateUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a typical prompt message. {@code repeatedTemplate} hits the compiled template cache, while
+ * {@code uniqueTemplate} makes every call compile, which is what every call paid before templates were cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TemplateFormatBenchmark {
+    private static final String TEMPLATE = "You are a support agent for {{company}}. Answer in a {{tone}} tone.\n" +
+            "{{#documents}}Document {{title}}:\n{{body}}\n{{/documents}}" +
+            "{{^documents}}No documents were found.{{/documents}}\n" +
+            "Question: {{question}}";
+    private static final Map<String, Object> VARIABLES = Map.of(
+            "company", "Acme",
+            "tone", "friendly",
+            "question", "Why isn't my sink working?",
+            "documents", List.of(
+                    Map.of("title", "Plumbing basics", "body", "Check the trap for clogs."),
+                    Map.of("title", "Warranty", "body", "Sinks are covered for two years.")
+            )
+    );
+
+    private long counter = 0;
+
+    @Benchmark
+    public String repeatedTemplate() {
+        return TemplateUtils.format(TEMPLATE, VARIABLES);
+    }
+
+    @Benchmark
+    public String uniqueTemplate() {
+        return TemplateUtils.format(TEMPLATE + counter++, VARIABLES);
+    }
+}
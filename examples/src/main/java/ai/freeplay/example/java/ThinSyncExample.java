@@ -16,8 +16,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.http.HttpResponse;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 import static ai.freeplay.client.Freeplay.Config;
 import static ai.freeplay.example.java.ExampleUtils.callAnthropic;
@@ -25,7 +23,7 @@ import static ai.freeplay.example.java.ExampleUtils.callAnthropic;
 public class ThinSyncExample {
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    public static void main(String[] args) throws ExecutionException, InterruptedException {
+    public static void main(String[] args) {
         String freeplayApiKey = System.getenv("FREEPLAY_API_KEY");
         String projectId = System.getenv("FREEPLAY_PROJECT_ID");
         String customerDomain = System.getenv("FREEPLAY_CUSTOMER_NAME");
@@ -38,10 +36,10 @@ public class ThinSyncExample {
 
         Map<String, Object> variables = Map.of("question", "Why isn't my window working?");
 
-        FormattedPrompt<List<ChatMessage>> prompt = fpClient.prompts()
+        FormattedPrompt<List<ChatMessage>> prompt = fpClient.blocking().prompts()
                 .<List<ChatMessage>>getFormatted(
                         new GetFormattedRequest(projectId, "my-prompt-anthropic", "prod", variables)
-                ).get();
+                );
 
         long startTime = System.currentTimeMillis();
         HttpResponse<String> llmResponse = callAnthropic(
@@ -51,7 +49,7 @@ public class ThinSyncExample {
                 prompt.getPromptInfo().getModelParameters(),
                 prompt.getFormattedPrompt(),
                 prompt.getSystemContent().orElse(null)
-        ).get();
+        ).join();
 
         RecordResponse recordResponse = recordResult(
                 fpClient,
@@ -60,11 +58,11 @@ public class ThinSyncExample {
                 variables,
                 startTime,
                 llmResponse
-        ).get();
+        );
         System.out.println("Recorded with completionId: " + recordResponse.getCompletionId());
     }
 
-    public static CompletableFuture<RecordResponse> recordResult(
+    public static RecordResponse recordResult(
             Freeplay fpClient,
             String projectId,
             FormattedPrompt<List<ChatMessage>> formattedPrompt, Map<String, Object> variables, long startTime, HttpResponse<String> response
@@ -94,7 +92,7 @@ public class ThinSyncExample {
 
         System.out.println("Completion: " + bodyNode.path("completion").asText());
 
-        return fpClient.recordings().create(
+        return fpClient.blocking().recordings().create(
                 new RecordPayload(
                         projectId,
                         allMessages
@@ -23,6 +23,18 @@ java {
     }
 }
 
+// Classes in src/main/java21 replace their Java 11 versions on JDK 21 and later through the multi-release JAR.
+val java21: SourceSet by sourceSets.creating {
+    java.setSrcDirs(listOf("src/main/java21"))
+}
+
+tasks.named<JavaCompile>(java21.compileJavaTaskName) {
+    javaCompiler.set(javaToolchains.compilerFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    options.release.set(21)
+}
+
 dependencies {
     testImplementation("junit:junit:4.13.2")
     testImplementation("org.mockito:mockito-core:5.23.0")
@@ -56,9 +68,13 @@ tasks.jar {
     manifest {
         attributes(
                 "Implementation-Title" to project.name,
-                "Implementation-Version" to project.version
+                "Implementation-Version" to project.version,
+                "Multi-Release" to "true"
         )
     }
+    into("META-INF/versions/21") {
+        from(java21.output)
+    }
 }
 
 java {
@@ -84,10 +100,26 @@ tasks.register<Test>("slowTest") {
     }
 }
 
+// The test task runs against the class directories, where the Java 11 classes are always loaded. This one puts the
+// packaged JAR on the classpath of a JDK 21 runtime instead, so the classes under META-INF/versions/21 are tested.
+tasks.register<Test>("testMultiReleaseJar") {
+    group = "verification"
+    description = "Runs the fast tests against the multi-release JAR on JDK 21."
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = files(tasks.jar) + sourceSets.test.get().output + configurations.testRuntimeClasspath.get()
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    systemProperty("freeplay.test.multiReleaseJar", "true")
+    useJUnit {
+        excludeCategories("ai.freeplay.client.SlowTest")
+    }
+}
+
 tasks.register("testAll") {
     group = "verification"
     description = "Runs the entire test suite."
-    dependsOn("test", "slowTest")
+    dependsOn("test", "slowTest", "testMultiReleaseJar")
 }
 
 tasks.register("printClasspath") {
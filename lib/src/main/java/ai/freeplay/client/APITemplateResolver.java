@@ -2,8 +2,10 @@ package ai.freeplay.client;
 
 import ai.freeplay.client.internal.AsyncHttp;
 import ai.freeplay.client.internal.JSONUtil;
+import ai.freeplay.client.internal.JsonBody;
 import ai.freeplay.client.internal.v2dto.TemplateDTO;
 import ai.freeplay.client.internal.v2dto.TemplatesDTO;
+import ai.freeplay.client.transport.HttpTransport;
 
 import java.net.URLEncoder;
 import java.net.http.HttpResponse;
@@ -11,27 +13,48 @@ import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 import static ai.freeplay.client.internal.Http.throwFreeplayIfError;
+import static ai.freeplay.client.internal.Http.throwFreeplayIfJsonError;
 import static java.lang.String.format;
 
-public class APITemplateResolver implements TemplateResolver {
+public class APITemplateResolver implements TemplateResolver, AutoCloseable {
     private final String baseUrl;
     private final String freeplayApiKey;
-    private final HttpConfig httpConfig;
+    private final AsyncHttp http;
+    private final boolean ownsHttp;
 
     public APITemplateResolver(String baseUrl, String freeplayApiKey, HttpConfig httpConfig) {
+        this(baseUrl, freeplayApiKey, new AsyncHttp(httpConfig), true);
+    }
+
+    /**
+     * Creates a resolver that sends through the given transport. The resolver does not close the transport.
+     */
+    public APITemplateResolver(String baseUrl, String freeplayApiKey, HttpConfig httpConfig, HttpTransport transport) {
+        this(baseUrl, freeplayApiKey, new AsyncHttp(httpConfig, transport), true);
+    }
+
+    /**
+     * Creates a resolver that shares the given client. The resolver does not close a shared client.
+     */
+    public APITemplateResolver(String baseUrl, String freeplayApiKey, AsyncHttp http) {
+        this(baseUrl, freeplayApiKey, http, false);
+    }
+
+    private APITemplateResolver(String baseUrl, String freeplayApiKey, AsyncHttp http, boolean ownsHttp) {
         this.baseUrl = baseUrl;
         this.freeplayApiKey = freeplayApiKey;
-        this.httpConfig = httpConfig;
+        this.http = http;
+        this.ownsHttp = ownsHttp;
     }
 
     @Override
     public CompletableFuture<TemplatesDTO> getPrompts(String projectId, String environment) {
         String url = format("%s/v2/projects/%s/prompt-templates/all/%s", baseUrl, projectId, environment);
-        return AsyncHttp
-                .get(url, freeplayApiKey, httpConfig)
-                .thenApply((HttpResponse<String> response) -> {
-                    throwFreeplayIfError(response, 200);
-                    return JSONUtil.parse(response.body(), TemplatesDTO.class);
+        return http
+                .get(url, freeplayApiKey, JsonBody.handler(TemplatesDTO.class, 200))
+                .thenApply(response -> {
+                    throwFreeplayIfJsonError(response, 200);
+                    return response.body().getValue();
                 });
     }
 
@@ -42,8 +65,8 @@ public class APITemplateResolver implements TemplateResolver {
         String url = format("%s/v2/projects/%s/prompt-templates/name/%s?environment=%s",
                 baseUrl, projectId, encodedName, encodedEnv
         );
-        return AsyncHttp
-                .get(url, freeplayApiKey, httpConfig)
+        return http
+                .get(url, freeplayApiKey)
                 .thenApply((HttpResponse<String> response) -> {
                     throwFreeplayIfError(response, 200);
                     return JSONUtil.parse(response.body(), TemplateDTO.class);
@@ -55,11 +78,18 @@ public class APITemplateResolver implements TemplateResolver {
         String url = format("%s/v2/projects/%s/prompt-templates/id/%s/versions/%s",
                 baseUrl, projectId, templateId, templateVersionId
         );
-        return AsyncHttp
-                .get(url, freeplayApiKey, httpConfig)
+        return http
+                .get(url, freeplayApiKey)
                 .thenApply((HttpResponse<String> response) -> {
                     throwFreeplayIfError(response, 200);
                     return JSONUtil.parse(response.body(), TemplateDTO.class);
                 });
     }
+
+    @Override
+    public void close() {
+        if (ownsHttp) {
+            http.close();
+        }
+    }
 }
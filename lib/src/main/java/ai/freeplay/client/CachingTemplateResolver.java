@@ -0,0 +1,262 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.internal.v2dto.TemplateDTO;
+import ai.freeplay.client.internal.v2dto.TemplatesDTO;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caches templates from another {@link TemplateResolver} so fetching a prompt is not a network round trip on every
+ * call. Entries are keyed on project, template name and environment, or on template version ID, and are evicted
+ * least-recently-used once {@link Config#maxSize(int)} is reached.
+ * <p>
+ * After {@link Config#ttl(Duration)} an entry is stale: it is still returned immediately while a single background
+ * fetch refreshes it. If that refresh fails the stale entry keeps being served and the next call tries again.
+ * Concurrent misses for the same key share one fetch.
+ */
+public class CachingTemplateResolver implements TemplateResolver {
+    private final TemplateResolver delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Map<CacheKey, CacheEntry> entries;
+    private final Map<CacheKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingTemplateResolver(TemplateResolver delegate) {
+        this(delegate, new Config());
+    }
+
+    public CachingTemplateResolver(TemplateResolver delegate, Config config) {
+        this(delegate, config, System::nanoTime);
+    }
+
+    CachingTemplateResolver(TemplateResolver delegate, Config config, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.ttlNanos = config.ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                if (size() > config.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<TemplatesDTO> getPrompts(String projectId, String environment) {
+        return get(new CacheKey("all", projectId, environment), () -> delegate.getPrompts(projectId, environment));
+    }
+
+    @Override
+    public CompletableFuture<TemplateDTO> getPrompt(String projectId, String templateName, String environment) {
+        return get(
+                new CacheKey("name", projectId, templateName, environment),
+                () -> delegate.getPrompt(projectId, templateName, environment)
+        );
+    }
+
+    @Override
+    public CompletableFuture<TemplateDTO> getPromptByVersionId(String projectId, String templateId, String templateVersionId) {
+        return get(
+                new CacheKey("version", projectId, templateId, templateVersionId),
+                () -> delegate.getPromptByVersionId(projectId, templateId, templateVersionId)
+        );
+    }
+
+    /**
+     * Drops every cached entry. In-flight fetches still complete and populate the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), staleHits.get(), misses.get(), refreshes.get(), evictions.get(), size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> get(CacheKey key, Supplier<CompletableFuture<T>> loader) {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return (CompletableFuture<T>) load(key, loader, false);
+        }
+        hits.incrementAndGet();
+        if (nanoTime.getAsLong() - entry.loadedAt >= ttlNanos) {
+            staleHits.incrementAndGet();
+            load(key, loader, true);
+        }
+        return CompletableFuture.completedFuture((T) entry.value);
+    }
+
+    private <T> CompletableFuture<Object> load(CacheKey key, Supplier<CompletableFuture<T>> loader, boolean refresh) {
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing;
+        }
+        if (refresh) {
+            refreshes.incrementAndGet();
+        }
+        CompletableFuture<T> fetch;
+        try {
+            fetch = loader.get();
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((value, error) -> {
+            if (error == null) {
+                synchronized (entries) {
+                    entries.put(key, new CacheEntry(value, nanoTime.getAsLong()));
+                }
+            }
+            inFlight.remove(key, promise);
+            if (error == null) {
+                promise.complete(value);
+            } else {
+                promise.completeExceptionally(error);
+            }
+        });
+        return promise;
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofMinutes(5);
+        private int maxSize = 1000;
+
+        /**
+         * How long an entry is served before it is refreshed in the background.
+         */
+        public Config ttl(Duration ttl) {
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive.");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Config maxSize(int maxSize) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be at least 1.");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+    }
+
+    public static class Stats {
+        private final long hits;
+        private final long staleHits;
+        private final long misses;
+        private final long refreshes;
+        private final long evictions;
+        private final int size;
+
+        public Stats(long hits, long staleHits, long misses, long refreshes, long evictions, int size) {
+            this.hits = hits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.refreshes = refreshes;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        /**
+         * Calls answered from the cache, including stale entries served during a refresh.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        public long getStaleHits() {
+            return staleHits;
+        }
+
+        /**
+         * Calls that had to wait for a fetch, including those that joined a fetch already in flight.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getRefreshes() {
+            return refreshes;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "hits=" + hits +
+                    ", staleHits=" + staleHits +
+                    ", misses=" + misses +
+                    ", refreshes=" + refreshes +
+                    ", evictions=" + evictions +
+                    ", size=" + size +
+                    '}';
+        }
+    }
+
+    private static class CacheKey {
+        private final String[] parts;
+        private final int hashCode;
+
+        private CacheKey(String... parts) {
+            this.parts = parts;
+            this.hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CacheKey && Arrays.equals(parts, ((CacheKey) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class CacheEntry {
+        private final Object value;
+        private final long loadedAt;
+
+        private CacheEntry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ai.freeplay.client;
+
+import java.time.Duration;
+
+/**
+ * Stops calling an API endpoint family that is failing, so callers fail fast instead of each waiting out the request
+ * timeout. Set it with {@link HttpConfig#circuitBreaker(CircuitBreaker)}.
+ * <p>
+ * Each {@link Endpoint} has its own circuit. A circuit opens when, over the last {@link #windowSize(int)} calls, the
+ * share of failures (I/O errors and 5xx responses) reaches {@link #failureRateThreshold(double)} or the share of calls
+ * slower than {@link #slowCallDuration(Duration)} reaches {@link #slowCallRateThreshold(double)}. While open, calls
+ * fail with {@link ai.freeplay.client.exceptions.FreeplayCircuitOpenException}; completion and trace records then go
+ * to the spool and {@link CachingTemplateResolver} keeps serving cached templates, when those are configured. After
+ * {@link #openDuration(Duration)} the circuit lets {@link #halfOpenTrials(int)} calls through and closes if they all
+ * succeed.
+ */
+public class CircuitBreaker {
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 1.0;
+    private Duration slowCallDuration = Duration.ofSeconds(10);
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenTrials = 3;
+    private Listener listener;
+
+    public enum Endpoint {
+        COMPLETIONS,
+        TRACES,
+        TEMPLATES,
+        DATASETS,
+        FEEDBACK,
+        OTHER
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called on the thread that caused the transition. Keep it short; exceptions are logged and ignored.
+         */
+        void onStateChange(Endpoint endpoint, State from, State to);
+    }
+
+    /**
+     * Number of recent calls per endpoint the failure and slow-call rates are computed over.
+     */
+    public CircuitBreaker windowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1.");
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    /**
+     * Calls an endpoint must have made before its circuit can open.
+     */
+    public CircuitBreaker minimumCalls(int minimumCalls) {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("minimumCalls must be at least 1.");
+        }
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public CircuitBreaker failureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = rate("failureRateThreshold", failureRateThreshold);
+        return this;
+    }
+
+    public CircuitBreaker slowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = rate("slowCallRateThreshold", slowCallRateThreshold);
+        return this;
+    }
+
+    /**
+     * Calls that take at least this long count as slow. A half-open trial that has not completed after this long
+     * reopens the circuit.
+     */
+    public CircuitBreaker slowCallDuration(Duration slowCallDuration) {
+        if (slowCallDuration.isNegative() || slowCallDuration.isZero()) {
+            throw new IllegalArgumentException("slowCallDuration must be positive.");
+        }
+        this.slowCallDuration = slowCallDuration;
+        return this;
+    }
+
+    /**
+     * How long a circuit stays open before trial calls are let through.
+     */
+    public CircuitBreaker openDuration(Duration openDuration) {
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("openDuration must not be negative.");
+        }
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    public CircuitBreaker halfOpenTrials(int halfOpenTrials) {
+        if (halfOpenTrials < 1) {
+            throw new IllegalArgumentException("halfOpenTrials must be at least 1.");
+        }
+        this.halfOpenTrials = halfOpenTrials;
+        return this;
+    }
+
+    public CircuitBreaker listener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return Math.min(minimumCalls, windowSize);
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public int getHalfOpenTrials() {
+        return halfOpenTrials;
+    }
+
+    public Listener getListener() {
+        return listener;
+    }
+
+    private static double rate(String name, double value) {
+        if (value <= 0 || value > 1) {
+            throw new IllegalArgumentException(name + " must be greater than 0 and at most 1.");
+        }
+        return value;
+    }
+}
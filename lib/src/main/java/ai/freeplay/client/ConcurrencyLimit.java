@@ -0,0 +1,186 @@
+package ai.freeplay.client;
+
+import java.time.Duration;
+
+/**
+ * Bounds the number of API calls in flight at once, adapting the bound to how the API is responding. Set it with
+ * {@link HttpConfig#concurrencyLimit(ConcurrencyLimit)}.
+ * <p>
+ * The limit grows by about one per limit's worth of calls that complete normally while it is in use, and is cut
+ * by {@link #backoffRatio(double)} when a call times out, fails to connect, is answered with 429 or 503, or takes
+ * longer on average than {@link #latencyTolerance(double)} times the long-run latency. Calls over the limit wait in a
+ * queue of up to {@link #maxQueued(int)} calls, for at most {@link #maxQueueWait(Duration)}; beyond that the
+ * {@link OverflowPolicy} decides which call fails.
+ */
+public class ConcurrencyLimit {
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private double latencyTolerance = 2.0;
+    private int maxQueued = 1000;
+    private Duration maxQueueWait = Duration.ofSeconds(30);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+    public enum OverflowPolicy {
+        /**
+         * Fail the new call immediately.
+         */
+        REJECT,
+        /**
+         * Fail the call that has waited longest and queue the new one.
+         */
+        SHED_OLDEST
+    }
+
+    public ConcurrencyLimit initialLimit(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("initialLimit must be at least 1.");
+        }
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    public ConcurrencyLimit minLimit(int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit must be at least 1.");
+        }
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    public ConcurrencyLimit maxLimit(int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("maxLimit must be at least 1.");
+        }
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * Factor the limit is multiplied by when the API shows signs of overload. Must be between 0 and 1.
+     */
+    public ConcurrencyLimit backoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1.");
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * How many times slower than the long-run average recent calls can be before it counts as a sign of overload.
+     */
+    public ConcurrencyLimit latencyTolerance(double latencyTolerance) {
+        if (latencyTolerance <= 1) {
+            throw new IllegalArgumentException("latencyTolerance must be greater than 1.");
+        }
+        this.latencyTolerance = latencyTolerance;
+        return this;
+    }
+
+    /**
+     * Calls allowed to wait for a permit. 0 fails every call over the limit immediately.
+     */
+    public ConcurrencyLimit maxQueued(int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative.");
+        }
+        this.maxQueued = maxQueued;
+        return this;
+    }
+
+    /**
+     * Longest a call waits in the queue for a permit. A call still queued after that fails and counts as rejected.
+     */
+    public ConcurrencyLimit maxQueueWait(Duration maxQueueWait) {
+        if (maxQueueWait.isNegative() || maxQueueWait.isZero()) {
+            throw new IllegalArgumentException("maxQueueWait must be positive.");
+        }
+        this.maxQueueWait = maxQueueWait;
+        return this;
+    }
+
+    public ConcurrencyLimit overflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    public int getInitialLimit() {
+        return Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return Math.max(minLimit, maxLimit);
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public static class Stats {
+        private final int limit;
+        private final int inFlight;
+        private final int queued;
+        private final long rejected;
+
+        public Stats(int limit, int inFlight, int queued, long rejected) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.queued = queued;
+            this.rejected = rejected;
+        }
+
+        /**
+         * The current adaptive limit.
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * Calls failed without being sent: rejected, shed from the queue, or timed out waiting in it.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "limit=" + limit +
+                    ", inFlight=" + inFlight +
+                    ", queued=" + queued +
+                    ", rejected=" + rejected +
+                    '}';
+        }
+    }
+}
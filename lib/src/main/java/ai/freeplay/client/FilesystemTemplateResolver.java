@@ -11,19 +11,40 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static ai.freeplay.client.internal.JSONUtil.nodeToMap;
 import static java.lang.String.format;
+import static java.nio.file.StandardWatchEventKinds.*;
 import static java.util.Objects.requireNonNull;
 
-public class FilesystemTemplateResolver implements TemplateResolver {
+/**
+ * Resolves templates from a directory of prompt files downloaded from Freeplay.
+ * <p>
+ * Parsed templates are kept in memory and re-read only when a file's modification time or size changes. Version IDs
+ * are indexed per project on first lookup, and the index is rebuilt when a version cannot be found in it.
+ * <p>
+ * A resolver created with {@link #watching(Path)} instead watches the prompt directories and reparses changed files
+ * on a background thread. Lookups are then served from memory without touching the filesystem, and a file that
+ * fails to parse (for example because it is still being written) leaves the previous template in place.
+ */
+public class FilesystemTemplateResolver implements TemplateResolver, AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(FilesystemTemplateResolver.class.getName());
+
     private final Path promptsDirectory;
+    private final Map<Path, CachedTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<Path, CachedListing> listings = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Path>> versionIndexes = new ConcurrentHashMap<>();
+    private volatile TemplateWatcher watcher;
 
     public FilesystemTemplateResolver(Path rootDirectory) {
         if (!Files.isDirectory(rootDirectory)) {
@@ -39,13 +60,44 @@ public class FilesystemTemplateResolver implements TemplateResolver {
         }
     }
 
+    /**
+     * Creates a resolver that watches {@code freeplay/prompts/<project>/<environment>} for changes and reloads
+     * templates in the background. Close the resolver to stop watching.
+     */
+    public static FilesystemTemplateResolver watching(Path rootDirectory) {
+        FilesystemTemplateResolver resolver = new FilesystemTemplateResolver(rootDirectory);
+        try {
+            resolver.watcher = new TemplateWatcher(resolver);
+        } catch (IOException e) {
+            throw new FreeplayConfigurationException(format(
+                    "Unable to watch templates directory. [%s]%n", rootDirectory.toAbsolutePath()), e);
+        }
+        resolver.watcher.start();
+        return resolver;
+    }
+
+    /**
+     * Reload metrics for a watching resolver, or null if this resolver does not watch for changes.
+     */
+    public ReloadStats getReloadStats() {
+        TemplateWatcher currentWatcher = watcher;
+        return currentWatcher == null ? null : currentWatcher.stats();
+    }
+
+    @Override
+    public void close() {
+        TemplateWatcher currentWatcher = watcher;
+        if (currentWatcher != null) {
+            currentWatcher.close();
+        }
+    }
+
     @Override
     public CompletableFuture<TemplatesDTO> getPrompts(String projectId, String environment) {
         Path environmentDir = getEnvironmentDir(projectId, environment);
-        List<TemplateDTO> templateList = Arrays.stream(
-                        requireNonNull(
-                                environmentDir.toFile().listFiles((dir, name) -> name.endsWith(".json"))
-                        )).map(file -> toTemplate(file, projectId))
+        List<TemplateDTO> templateList = listTemplateFiles(environmentDir).stream()
+                .map(file -> loadTemplate(file, projectId))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
         return CompletableFuture.completedFuture(new TemplatesDTO(templateList));
@@ -55,7 +107,8 @@ public class FilesystemTemplateResolver implements TemplateResolver {
     public CompletableFuture<TemplateDTO> getPrompt(String projectId, String templateName, String environment) {
         Path environmentDir = getEnvironmentDir(projectId, environment);
         Path templateFile = environmentDir.resolve(templateName + ".json");
-        if (!Files.exists(templateFile)) {
+        TemplateDTO template = loadTemplate(templateFile, projectId);
+        if (template == null) {
             throw new FreeplayConfigurationException(format(
                     "Could not find template %s for project %s and environment %s.%n",
                     templateName,
@@ -64,17 +117,18 @@ public class FilesystemTemplateResolver implements TemplateResolver {
             ));
         }
 
-        return CompletableFuture.completedFuture(toTemplate(templateFile.toFile(), projectId));
+        return CompletableFuture.completedFuture(template);
     }
 
     public CompletableFuture<TemplateDTO> getPromptByVersionId(String projectId, String templateId, String templateVersionId) {
         try {
-            List<Path> promptFilePaths = getAllPromptFilePaths(projectId);
-            for (Path templateFile : promptFilePaths) {
-                TemplateDTO templatePrompt = toTemplate(templateFile.toFile(), projectId);
-                if (templatePrompt.getPromptTemplateVersionId().equals(templateVersionId)) {
-                    return CompletableFuture.completedFuture(templatePrompt);
-                }
+            TemplateDTO template = findIndexedVersion(projectId, templateVersionId, false);
+            if (template == null) {
+                // Files may have been added, removed or edited since the index was built.
+                template = findIndexedVersion(projectId, templateVersionId, true);
+            }
+            if (template != null) {
+                return CompletableFuture.completedFuture(template);
             }
             throw new FreeplayConfigurationException(format(
                     "Could not find template version id %s for project %s in local filesystem",
@@ -89,6 +143,40 @@ public class FilesystemTemplateResolver implements TemplateResolver {
 
     }
 
+    /**
+     * Drops all cached templates and indexes so the next lookups read from disk.
+     */
+    public void invalidate() {
+        templates.clear();
+        listings.clear();
+        versionIndexes.clear();
+    }
+
+    private TemplateDTO findIndexedVersion(String projectId, String templateVersionId, boolean rebuild) throws IOException {
+        Map<String, Path> index = rebuild ? null : versionIndexes.get(projectId);
+        if (index == null) {
+            index = buildVersionIndex(projectId);
+            versionIndexes.put(projectId, index);
+        }
+        Path templateFile = index.get(templateVersionId);
+        if (templateFile == null) {
+            return null;
+        }
+        TemplateDTO template = loadTemplate(templateFile, projectId);
+        return template != null && templateVersionId.equals(template.getPromptTemplateVersionId()) ? template : null;
+    }
+
+    private Map<String, Path> buildVersionIndex(String projectId) throws IOException {
+        Map<String, Path> index = new HashMap<>();
+        for (Path templateFile : getAllPromptFilePaths(projectId)) {
+            TemplateDTO template = loadTemplate(templateFile, projectId);
+            if (template != null) {
+                index.putIfAbsent(template.getPromptTemplateVersionId(), templateFile);
+            }
+        }
+        return index;
+    }
+
     private Path getEnvironmentDir(String projectId, String environment) {
         Path environmentDir = promptsDirectory.resolve(projectId + "/" + environment);
         if (!Files.exists(environmentDir)) {
@@ -99,6 +187,26 @@ public class FilesystemTemplateResolver implements TemplateResolver {
         return environmentDir;
     }
 
+    private List<Path> listTemplateFiles(Path environmentDir) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(environmentDir);
+            CachedListing cached = listings.get(environmentDir);
+            if (cached != null && cached.modified.equals(modified)) {
+                return cached.files;
+            }
+            List<Path> files = Arrays.stream(
+                            requireNonNull(
+                                    environmentDir.toFile().listFiles((dir, name) -> name.endsWith(".json"))
+                            ))
+                    .map(File::toPath)
+                    .collect(Collectors.toList());
+            listings.put(environmentDir, new CachedListing(modified, files));
+            return files;
+        } catch (IOException e) {
+            throw new FreeplayConfigurationException("Unable to list prompt templates. ", e);
+        }
+    }
+
     private List<Path> getAllPromptFilePaths(String projectId) throws IOException {
         Path projectDir = promptsDirectory.resolve(projectId);
 
@@ -115,6 +223,45 @@ public class FilesystemTemplateResolver implements TemplateResolver {
         }
     }
 
+    // Returns the parsed template, re-reading it only if the file changed. Returns null if the file does not exist.
+    private TemplateDTO loadTemplate(Path templateFile, String projectId) {
+        CachedTemplate cached = templates.get(templateFile);
+        if (watcher != null && cached != null && cached.projectId.equals(projectId)) {
+            // The watcher keeps cached entries current.
+            return cached.template;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(templateFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            templates.remove(templateFile);
+            return null;
+        } catch (IOException e) {
+            throw new FreeplayConfigurationException("Unable to read prompt template. ", e);
+        }
+        if (cached != null
+                && cached.modified.equals(attributes.lastModifiedTime())
+                && cached.size == attributes.size()
+                && cached.projectId.equals(projectId)) {
+            return cached.template;
+        }
+        return cache(templateFile, attributes, projectId, toTemplate(templateFile.toFile(), projectId));
+    }
+
+    /**
+     * Stores a parsed template and returns the one now cached. An entry read from a newer version of the file is
+     * kept, so a reader that missed the cache and parsed the old content cannot replace what the watcher reloaded
+     * in the meantime.
+     */
+    TemplateDTO cache(Path templateFile, BasicFileAttributes attributes, String projectId, TemplateDTO template) {
+        CachedTemplate loaded = new CachedTemplate(attributes.lastModifiedTime(), attributes.size(), projectId, template);
+        return templates.compute(templateFile, (file, current) ->
+                current != null && current.projectId.equals(projectId) && current.modified.compareTo(loaded.modified) > 0
+                        ? current
+                        : loaded
+        ).template;
+    }
+
     private TemplateDTO toTemplate(File templateFile, String projectId) {
         File promptAbsoluteFile = templateFile.getAbsoluteFile();
 
@@ -245,6 +392,248 @@ public class FilesystemTemplateResolver implements TemplateResolver {
         }
     }
 
+    /**
+     * Reparses a changed template file and swaps it into the cache. On failure the previous entry is kept.
+     */
+    private boolean reload(Path templateFile, String projectId) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(templateFile, BasicFileAttributes.class);
+            cache(templateFile, attributes, projectId, toTemplate(templateFile.toFile(), projectId));
+            return true;
+        } catch (NoSuchFileException e) {
+            templates.remove(templateFile);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Unable to reload prompt template " + templateFile, e);
+            return false;
+        }
+    }
+
+    private void forget(Path templateFile) {
+        templates.remove(templateFile);
+    }
+
+    private void directoryChanged(Path directory, String projectId) {
+        listings.remove(directory);
+        versionIndexes.remove(projectId);
+    }
+
+    public static class ReloadStats {
+        private final long reloads;
+        private final long failures;
+        private final Duration lastReloadLatency;
+        private final Duration maxReloadLatency;
+
+        public ReloadStats(long reloads, long failures, Duration lastReloadLatency, Duration maxReloadLatency) {
+            this.reloads = reloads;
+            this.failures = failures;
+            this.lastReloadLatency = lastReloadLatency;
+            this.maxReloadLatency = maxReloadLatency;
+        }
+
+        /**
+         * Template files reparsed (or removed) after a change on disk.
+         */
+        public long getReloads() {
+            return reloads;
+        }
+
+        /**
+         * Changed files that could not be parsed. The previous template was kept for each.
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Time from noticing a change to swapping in the reparsed template.
+         */
+        public Duration getLastReloadLatency() {
+            return lastReloadLatency;
+        }
+
+        public Duration getMaxReloadLatency() {
+            return maxReloadLatency;
+        }
+
+        @Override
+        public String toString() {
+            return "ReloadStats{" +
+                    "reloads=" + reloads +
+                    ", failures=" + failures +
+                    ", lastReloadLatency=" + lastReloadLatency +
+                    ", maxReloadLatency=" + maxReloadLatency +
+                    '}';
+        }
+    }
+
+    private static class TemplateWatcher implements AutoCloseable {
+        private final FilesystemTemplateResolver resolver;
+        private final WatchService watchService;
+        private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+        private final Thread thread;
+        private final AtomicLong reloads = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong lastReloadNanos = new AtomicLong();
+        private final AtomicLong maxReloadNanos = new AtomicLong();
+        private volatile boolean running = true;
+
+        private TemplateWatcher(FilesystemTemplateResolver resolver) throws IOException {
+            this.resolver = resolver;
+            this.watchService = resolver.promptsDirectory.getFileSystem().newWatchService();
+            this.thread = new Thread(this::run, "freeplay-template-watcher");
+            this.thread.setDaemon(true);
+            // Registers the prompts directory, each project, and each environment.
+            try (Stream<Path> paths = Files.walk(resolver.promptsDirectory, 2)) {
+                for (Path directory : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                    register(directory);
+                }
+            }
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void register(Path directory) throws IOException {
+            WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            directories.put(key, directory);
+        }
+
+        private void run() {
+            while (running) {
+                WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                long detectedAt = System.nanoTime();
+                // Coalesce the burst of events a single write usually produces.
+                Set<Path> changedFiles = new LinkedHashSet<>();
+                while (key != null) {
+                    handle(key, changedFiles);
+                    key = watchService.poll();
+                }
+                for (Path templateFile : changedFiles) {
+                    String projectId = projectIdFor(templateFile);
+                    if (resolver.reload(templateFile, projectId)) {
+                        reloads.incrementAndGet();
+                        long latency = System.nanoTime() - detectedAt;
+                        lastReloadNanos.set(latency);
+                        maxReloadNanos.accumulateAndGet(latency, Math::max);
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private void handle(WatchKey key, Set<Path> changedFiles) {
+            Path directory = directories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (directory == null) {
+                    continue;
+                }
+                if (event.kind() == OVERFLOW) {
+                    // Events were lost; fall back to revalidating everything from disk.
+                    resolver.invalidate();
+                    continue;
+                }
+                Path changed = directory.resolve((Path) event.context());
+                int depth = resolver.promptsDirectory.relativize(changed).getNameCount();
+                if (depth < 3) {
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(changed)) {
+                        registerNewDirectory(changed, depth);
+                    }
+                    continue;
+                }
+                if (depth != 3 || !changed.toString().endsWith(".json")) {
+                    continue;
+                }
+                String projectId = projectIdFor(changed);
+                if (event.kind() != ENTRY_MODIFY) {
+                    resolver.directoryChanged(directory, projectId);
+                }
+                if (event.kind() == ENTRY_DELETE) {
+                    resolver.forget(changed);
+                    changedFiles.remove(changed);
+                    reloads.incrementAndGet();
+                } else {
+                    changedFiles.add(changed);
+                }
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+        }
+
+        private void registerNewDirectory(Path directory, int depth) {
+            try {
+                register(directory);
+                if (depth == 1) {
+                    // A new project may arrive with its environment directories already in place.
+                    try (Stream<Path> environments = Files.list(directory)) {
+                        for (Path environment : environments.filter(Files::isDirectory).collect(Collectors.toList())) {
+                            register(environment);
+                        }
+                    }
+                }
+                resolver.versionIndexes.clear();
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Unable to watch prompt directory " + directory, e);
+            }
+        }
+
+        private String projectIdFor(Path templateFile) {
+            return resolver.promptsDirectory.relativize(templateFile).getName(0).toString();
+        }
+
+        private ReloadStats stats() {
+            return new ReloadStats(
+                    reloads.get(),
+                    failures.get(),
+                    Duration.ofNanos(lastReloadNanos.get()),
+                    Duration.ofNanos(maxReloadNanos.get())
+            );
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Unable to close template watcher.", e);
+            }
+            thread.interrupt();
+        }
+    }
+
+    private static class CachedTemplate {
+        private final FileTime modified;
+        private final long size;
+        private final String projectId;
+        private final TemplateDTO template;
+
+        private CachedTemplate(FileTime modified, long size, String projectId, TemplateDTO template) {
+            this.modified = modified;
+            this.size = size;
+            this.projectId = projectId;
+            this.template = template;
+        }
+    }
+
+    private static class CachedListing {
+        private final FileTime modified;
+        private final List<Path> files;
+
+        private CachedListing(FileTime modified, List<Path> files) {
+            this.modified = modified;
+            this.files = files;
+        }
+    }
+
     @SuppressWarnings("SameParameterValue")
     private static boolean isFormat(JsonNode templateNode, int version) {
         JsonNode formatVersionRaw = templateNode.path("format_version");
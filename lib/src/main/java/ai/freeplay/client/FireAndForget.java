@@ -0,0 +1,186 @@
+package ai.freeplay.client;
+
+import java.time.Duration;
+
+/**
+ * Records completions and traces without doing the work on the caller's thread. {@code recordings().create(...)} and
+ * {@code TraceInfo.recordOutput(...)} only take a snapshot of the record and publish it to a bounded lock-free ring
+ * buffer; a dedicated consumer thread serializes and sends it. The returned future completes straight away, so
+ * delivery failures are not reported to the caller; they are counted in {@link Stats} (and spooled when a
+ * {@link SpoolConfig} is set). Set it with {@link Freeplay.FreeplayConfig#fireAndForget(FireAndForget)}.
+ * <p>
+ * The snapshot copies the payload's fields and message list but shares the maps and message objects in it, so those
+ * must not be modified after recording.
+ */
+public class FireAndForget {
+    private int capacity = 8192;
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    private Duration blockTimeout = Duration.ofMillis(10);
+    private Duration closeTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How the consumer thread waits for new records when the buffer is empty, trading idle CPU for handoff latency.
+     */
+    public enum WaitStrategy {
+        /**
+         * Park until a producer wakes it. Uses no CPU while idle; a producer pays for an unpark after idle periods.
+         */
+        BLOCKING,
+        /**
+         * Spin briefly, then park for short intervals. Producers never wake it.
+         */
+        SLEEPING,
+        /**
+         * Spin, then yield the processor. Low latency, but keeps a core busy while other threads are not runnable.
+         */
+        YIELDING,
+        /**
+         * Spin continuously. Lowest latency; dedicates a core to the consumer.
+         */
+        BUSY_SPIN
+    }
+
+    /**
+     * What happens to a record published while the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new record. Its future fails.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest record not yet taken by the consumer and publish the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Wait up to {@link #blockTimeout(Duration)} for space, then drop the new record.
+         */
+        BLOCK
+    }
+
+    /**
+     * Records the buffer holds, rounded up to a power of two.
+     */
+    public FireAndForget capacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1.");
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    public FireAndForget waitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
+    public FireAndForget overflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * How long a publisher waits for space under {@link OverflowPolicy#BLOCK}.
+     */
+    public FireAndForget blockTimeout(Duration blockTimeout) {
+        if (blockTimeout.isNegative()) {
+            throw new IllegalArgumentException("blockTimeout must not be negative.");
+        }
+        this.blockTimeout = blockTimeout;
+        return this;
+    }
+
+    /**
+     * How long closing the client waits for buffered records to be sent. Records still buffered after it are dropped.
+     */
+    public FireAndForget closeTimeout(Duration closeTimeout) {
+        if (closeTimeout.isNegative()) {
+            throw new IllegalArgumentException("closeTimeout must not be negative.");
+        }
+        this.closeTimeout = closeTimeout;
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public Duration getCloseTimeout() {
+        return closeTimeout;
+    }
+
+    public static class Stats {
+        private final long published;
+        private final long dropped;
+        private final long sent;
+        private final long failed;
+        private final int buffered;
+
+        public Stats(long published, long dropped, long sent, long failed, int buffered) {
+            this.published = published;
+            this.dropped = dropped;
+            this.sent = sent;
+            this.failed = failed;
+            this.buffered = buffered;
+        }
+
+        /**
+         * Records accepted into the buffer.
+         */
+        public long getPublished() {
+            return published;
+        }
+
+        /**
+         * Records dropped by the {@link OverflowPolicy}, whether new or oldest, or left buffered when closing timed out.
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Records the API acknowledged, or that were spooled.
+         */
+        public long getSent() {
+            return sent;
+        }
+
+        /**
+         * Records that failed to serialize or send.
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Records waiting in the buffer.
+         */
+        public int getBuffered() {
+            return buffered;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "published=" + published +
+                    ", dropped=" + dropped +
+                    ", sent=" + sent +
+                    ", failed=" + failed +
+                    ", buffered=" + buffered +
+                    '}';
+        }
+    }
+}
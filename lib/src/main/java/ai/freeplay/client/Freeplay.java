@@ -1,18 +1,25 @@
 package ai.freeplay.client;
 
+import ai.freeplay.client.blocking.BlockingFreeplay;
 import ai.freeplay.client.exceptions.FreeplayConfigurationException;
+import ai.freeplay.client.internal.AsyncHttp;
 import ai.freeplay.client.internal.CallSupport;
 import ai.freeplay.client.resources.feedback.CustomerFeedback;
 import ai.freeplay.client.resources.metadata.Metadata;
 import ai.freeplay.client.resources.prompts.Prompts;
+import ai.freeplay.client.resources.recordings.BatchingRecorder;
 import ai.freeplay.client.resources.recordings.Recordings;
 import ai.freeplay.client.resources.sessions.Sessions;
 import ai.freeplay.client.resources.agentdatasets.AgentDatasets;
 import ai.freeplay.client.resources.promptdatasets.PromptDatasets;
 import ai.freeplay.client.resources.testruns.TestRuns;
 import ai.freeplay.client.resources.traces.Traces;
+import ai.freeplay.client.transport.HttpTransport;
 
-public class Freeplay {
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class Freeplay implements AutoCloseable {
 
     private final Sessions sessions;
     private final Prompts prompts;
@@ -23,24 +30,48 @@ public class Freeplay {
     private final PromptDatasets promptDatasets;
     private final AgentDatasets agentDatasets;
     private final Traces traces;
+    private final CallSupport callSupport;
+    private final BatchingRecorder batchingRecorder;
+    private final BlockingFreeplay blocking;
 
     public Freeplay(FreeplayConfig config) {
         config.validate();
-        CallSupport callSupport = new CallSupport(
-                config.httpConfig,
-                config.templateResolver,
+        AsyncHttp http = new AsyncHttp(config.httpConfig, config.httpTransport);
+        TemplateResolver templateResolver = config.templateResolver != null
+                ? config.templateResolver
+                : new APITemplateResolver(config.baseUrl, config.freeplayAPIKey, http);
+        if (config.templateCacheConfig != null) {
+            templateResolver = new CachingTemplateResolver(templateResolver, config.templateCacheConfig);
+        }
+        callSupport = new CallSupport(
+                http,
+                templateResolver,
                 config.baseUrl,
                 config.freeplayAPIKey
         );
+        callSupport.setIdGenerator(config.idGenerator);
+        if (config.spoolConfig != null) {
+            callSupport.enableSpool(config.spoolConfig);
+        }
+        if (config.fireAndForget != null) {
+            callSupport.enableFireAndForget(config.fireAndForget);
+        }
+        if (config.traceBuffering != null) {
+            callSupport.enableTraceBuffering(config.traceBuffering);
+        }
         sessions = new Sessions(callSupport);
         prompts = new Prompts(callSupport);
-        recordings = new Recordings(callSupport);
+        batchingRecorder = config.recordingBatchConfig != null
+                ? new BatchingRecorder(callSupport, config.recordingBatchConfig)
+                : null;
+        recordings = new Recordings(callSupport, batchingRecorder);
         testRuns = new TestRuns(callSupport);
         customerFeedback = new CustomerFeedback(callSupport);
         metadata = new Metadata(callSupport);
         promptDatasets = new PromptDatasets(callSupport);
         agentDatasets = new AgentDatasets(callSupport);
         traces = new Traces(callSupport);
+        blocking = new BlockingFreeplay(this);
     }
 
     public Sessions sessions() {
@@ -79,6 +110,72 @@ public class Freeplay {
         return traces;
     }
 
+    /**
+     * The same resources with methods that wait for the call and return its result directly.
+     */
+    public BlockingFreeplay blocking() {
+        return blocking;
+    }
+
+    /**
+     * Sends any queued records, including trace spans still waiting for their root. Completes immediately when none
+     * of record batching, fire-and-forget and trace buffering is enabled.
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.allOf(recordings.flush(), callSupport.flushTraceBuffer(), callSupport.flushFireAndForget());
+    }
+
+    /**
+     * Retry counts for API calls made under the {@link RetryPolicy} configured on {@link HttpConfig}.
+     */
+    public RetryPolicy.Stats getRetryStats() {
+        return callSupport.getRetryStats();
+    }
+
+    /**
+     * The adaptive limit, in-flight and queued calls, and rejections under the {@link ConcurrencyLimit} configured on
+     * {@link HttpConfig}, or null if none is configured.
+     */
+    public ConcurrencyLimit.Stats getConcurrencyStats() {
+        return callSupport.getConcurrencyStats();
+    }
+
+    /**
+     * The state of each endpoint family's circuit under the {@link CircuitBreaker} configured on {@link HttpConfig}.
+     * Use {@link CircuitBreaker#listener(CircuitBreaker.Listener)} to be told about transitions.
+     */
+    public Map<CircuitBreaker.Endpoint, CircuitBreaker.State> getCircuitStates() {
+        return callSupport.getCircuitStates();
+    }
+
+    /**
+     * Published, dropped, and sent record counts under the configured {@link FireAndForget}, or null if none is
+     * configured.
+     */
+    public FireAndForget.Stats getFireAndForgetStats() {
+        return callSupport.getFireAndForgetStats();
+    }
+
+    /**
+     * Buffered span counts under the configured {@link TraceBuffering}, or null if none is configured.
+     */
+    public TraceBuffering.Stats getTraceBufferingStats() {
+        return callSupport.getTraceBufferingStats();
+    }
+
+    /**
+     * Drains queued records, closes the spool, and releases the HTTP client shared by all resources. The client
+     * cannot be used after it has been closed. A transport set with
+     * {@link FreeplayConfig#httpTransport(HttpTransport)} is left open.
+     */
+    @Override
+    public void close() {
+        if (batchingRecorder != null) {
+            batchingRecorder.close();
+        }
+        callSupport.close();
+    }
+
     public static FreeplayConfig Config() {
         return new FreeplayConfig();
     }
@@ -87,7 +184,14 @@ public class Freeplay {
         private String freeplayAPIKey = null;
         private String baseUrl = null;
         private HttpConfig httpConfig = new HttpConfig();
+        private HttpTransport httpTransport = null;
         private TemplateResolver templateResolver = null;
+        private CachingTemplateResolver.Config templateCacheConfig = null;
+        private BatchingRecorder.Config recordingBatchConfig = null;
+        private SpoolConfig spoolConfig = null;
+        private FireAndForget fireAndForget = null;
+        private TraceBuffering traceBuffering = null;
+        private IdGenerator idGenerator = IdGenerator.timeOrdered();
 
         public FreeplayConfig freeplayAPIKey(String freeplayAPIKey) {
             this.freeplayAPIKey = freeplayAPIKey;
@@ -108,19 +212,85 @@ public class Freeplay {
             return this;
         }
 
+        /**
+         * Send API calls through this transport instead of a {@link ai.freeplay.client.transport.JdkHttpTransport}
+         * built from the {@link HttpConfig}. Retries, limits and compression configured on the {@code HttpConfig}
+         * still apply; its executor, proxy, connect timeout and version settings are the transport's concern.
+         */
+        public FreeplayConfig httpTransport(HttpTransport httpTransport) {
+            this.httpTransport = httpTransport;
+            return this;
+        }
+
         public FreeplayConfig templateResolver(TemplateResolver templateResolver) {
             this.templateResolver = templateResolver;
             return this;
         }
 
+        /**
+         * Cache templates returned by the configured (or default API) template resolver. To read cache statistics,
+         * construct a {@link CachingTemplateResolver} and pass it to {@link #templateResolver(TemplateResolver)}
+         * instead.
+         */
+        public FreeplayConfig cacheTemplates(CachingTemplateResolver.Config templateCacheConfig) {
+            this.templateCacheConfig = templateCacheConfig;
+            return this;
+        }
+
+        /**
+         * Queue records created with {@code recordings().create(...)} and send them in batches off the calling
+         * thread. Call {@link Freeplay#flush()} or {@link Freeplay#close()} before shutdown to drain the queue.
+         */
+        public FreeplayConfig batchRecordings(BatchingRecorder.Config recordingBatchConfig) {
+            this.recordingBatchConfig = recordingBatchConfig;
+            return this;
+        }
+
+        /**
+         * Spool completion and trace records to disk when the Freeplay API is unreachable or failing, and replay
+         * them in the background once it recovers. Spooled records are kept across restarts.
+         */
+        public FreeplayConfig spool(SpoolConfig spoolConfig) {
+            this.spoolConfig = spoolConfig;
+            return this;
+        }
+
+        /**
+         * Serialize and send completion and trace records on a dedicated thread, so recording only hands a snapshot
+         * to a lock-free buffer. Records created with {@link #batchRecordings(BatchingRecorder.Config)} set go to the
+         * batching recorder instead.
+         */
+        public FreeplayConfig fireAndForget(FireAndForget fireAndForget) {
+            this.fireAndForget = fireAndForget;
+            return this;
+        }
+
+        /**
+         * Hold traces and completions recorded with a {@code parentId} until the root trace of their tree is
+         * recorded, then send them together. Call {@link Freeplay#flush()} or {@link Freeplay#close()} before
+         * shutdown to send spans whose root has not completed.
+         */
+        public FreeplayConfig bufferTraces(TraceBuffering traceBuffering) {
+            this.traceBuffering = traceBuffering;
+            return this;
+        }
+
+        /**
+         * Generate session, trace, and client-side completion IDs with this instead of
+         * {@link IdGenerator#timeOrdered()}. Use {@link IdGenerator#random()} for random version 4 UUIDs.
+         */
+        public FreeplayConfig idGenerator(IdGenerator idGenerator) {
+            if (idGenerator == null) {
+                throw new IllegalArgumentException("idGenerator must not be null.");
+            }
+            this.idGenerator = idGenerator;
+            return this;
+        }
+
         public void validate() {
-            if (templateResolver == null) {
-                if (freeplayAPIKey == null || baseUrl == null) {
-                    throw new FreeplayConfigurationException("Either a TemplateResolver must be configured, " +
-                            "or the Freeplay API key and base URL must be configured.");
-                } else {
-                    templateResolver = new APITemplateResolver(baseUrl, freeplayAPIKey, httpConfig);
-                }
+            if (templateResolver == null && (freeplayAPIKey == null || baseUrl == null)) {
+                throw new FreeplayConfigurationException("Either a TemplateResolver must be configured, " +
+                        "or the Freeplay API key and base URL must be configured.");
             }
         }
     }
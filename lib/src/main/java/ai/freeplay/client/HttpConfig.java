@@ -1,6 +1,7 @@
 package ai.freeplay.client;
 
 import java.net.ProxySelector;
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.concurrent.Executor;
 
@@ -8,6 +9,15 @@ public class HttpConfig {
     private final Executor executor;
     private final Duration requestTimeout;
     private final ProxySelector proxySelector;
+    private Duration connectTimeout;
+    private HttpClient.Version version;
+    private RetryPolicy retryPolicy;
+    private ConcurrencyLimit concurrencyLimit;
+    private CircuitBreaker circuitBreaker;
+    private boolean virtualThreads;
+    private boolean coalesceGets = true;
+    private int gzipMinBytes = -1;
+    private boolean compressedResponses = true;
 
     public HttpConfig(Executor executor) {
         this(executor, null, null);
@@ -31,6 +41,85 @@ public class HttpConfig {
         this.proxySelector = proxySelector;
     }
 
+    /**
+     * Timeout for establishing new connections. Connections are pooled by the shared client, so this is only
+     * paid when a new connection has to be opened.
+     */
+    public HttpConfig connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public HttpConfig version(HttpClient.Version version) {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * Retries failed API calls. Calls are not retried unless a policy is set.
+     */
+    public HttpConfig retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Bounds and queues concurrent API calls. Calls are not limited unless a limit is set.
+     */
+    public HttpConfig concurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+        return this;
+    }
+
+    /**
+     * Fails calls fast while an endpoint family is failing. No circuit breaker is used unless one is set.
+     */
+    public HttpConfig circuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Runs the HTTP client's response handling on virtual threads instead of its default pool of platform threads.
+     * Requires JDK 21 or later; on older runtimes, or when an executor is passed to the constructor, it is ignored.
+     */
+    public HttpConfig virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * Shares one request between concurrent identical GETs (same URL and API key) that are in flight at the same
+     * time, e.g. many threads fetching the same prompt template. On by default; responses are never reused after
+     * the shared request completes.
+     */
+    public HttpConfig coalesceGets(boolean coalesceGets) {
+        this.coalesceGets = coalesceGets;
+        return this;
+    }
+
+    /**
+     * Sends JSON request bodies of at least {@code minBytes} gzipped, with {@code Content-Encoding: gzip}. Record and
+     * trace payloads with long histories, tool schemas, or base64 media compress well. Bodies are sent uncompressed
+     * unless this is set.
+     */
+    public HttpConfig gzipRequestBodies(int minBytes) {
+        if (minBytes < 0) {
+            throw new IllegalArgumentException("minBytes must not be negative.");
+        }
+        this.gzipMinBytes = minBytes;
+        return this;
+    }
+
+    /**
+     * Asks for gzip or deflate responses and decompresses them as they arrive. On by default; large template,
+     * dataset, and test run responses are then much smaller on the wire.
+     */
+    public HttpConfig compressedResponses(boolean compressedResponses) {
+        this.compressedResponses = compressedResponses;
+        return this;
+    }
+
     public Executor getExecutor() {
         return executor;
     }
@@ -42,4 +131,43 @@ public class HttpConfig {
     public ProxySelector getProxySelector() {
         return proxySelector;
     }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public boolean isCoalesceGets() {
+        return coalesceGets;
+    }
+
+    /**
+     * The smallest body sent gzipped, or -1 if request bodies are not compressed.
+     */
+    public int getGzipMinBytes() {
+        return gzipMinBytes;
+    }
+
+    public boolean isCompressedResponses() {
+        return compressedResponses;
+    }
 }
@@ -0,0 +1,31 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.internal.UuidV7Generator;
+
+import java.util.UUID;
+
+/**
+ * Generates the IDs the client assigns itself: session IDs, trace IDs and the completion IDs of buffered records. Set
+ * it with {@link Freeplay.FreeplayConfig#idGenerator(IdGenerator)}. It is called on the recording threads, so it
+ * should not block.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    UUID newId();
+
+    /**
+     * The default: version 7 UUIDs, which start with the millisecond they were generated so IDs created close
+     * together sort and index close together. The random bits come from {@link java.util.concurrent.ThreadLocalRandom},
+     * so generating them takes no lock, but they are not suitable as secrets.
+     */
+    static IdGenerator timeOrdered() {
+        return UuidV7Generator.INSTANCE;
+    }
+
+    /**
+     * Version 4 UUIDs from {@link UUID#randomUUID()}, which draws on a shared {@link java.security.SecureRandom}.
+     */
+    static IdGenerator random() {
+        return UUID::randomUUID;
+    }
+}
@@ -0,0 +1,148 @@
+package ai.freeplay.client;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries failed API calls with exponential backoff and full jitter. Set it with
+ * {@link HttpConfig#retryPolicy(RetryPolicy)}.
+ * <p>
+ * GET, PUT and DELETE requests, and completion records that carry a completion ID, are retried on any I/O error or
+ * retryable status. Other requests are only retried when the server cannot have processed them: connection failures
+ * and 429 responses. A {@code Retry-After} header on a 429 or 503 response is honored, and no retry is started once
+ * {@link #deadline(Duration)} has passed since the first attempt.
+ */
+public class RetryPolicy {
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(200);
+    private Duration maxBackoff = Duration.ofSeconds(10);
+    private Duration deadline = Duration.ofSeconds(30);
+    private Set<Integer> retryableStatuses = Set.of(408, 429, 500, 502, 503, 504);
+
+    /**
+     * Total attempts including the first, so 1 disables retries.
+     */
+    public RetryPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1.");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * The backoff cap for the first retry. The cap doubles on each retry up to {@link #maxBackoff(Duration)} and the
+     * actual delay is chosen uniformly between zero and the cap.
+     */
+    public RetryPolicy initialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    public RetryPolicy maxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * Time after the first attempt when no further retries are started.
+     */
+    public RetryPolicy deadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    public RetryPolicy retryableStatuses(Set<Integer> retryableStatuses) {
+        this.retryableStatuses = Set.copyOf(retryableStatuses);
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+
+    public boolean isRetryableStatus(int statusCode, boolean idempotent) {
+        return idempotent ? retryableStatuses.contains(statusCode) : statusCode == 429;
+    }
+
+    public boolean isRetryableException(Throwable error, boolean idempotent) {
+        if (idempotent) {
+            return error instanceof IOException;
+        }
+        return error instanceof ConnectException || error instanceof HttpConnectTimeoutException;
+    }
+
+    /**
+     * A full-jitter delay before retry number {@code retry}, counting from 1.
+     */
+    public long backoffMillis(int retry) {
+        long cap = maxBackoff.toMillis();
+        long ceiling = Math.min(initialBackoff.toMillis(), cap);
+        for (int i = 1; i < retry && ceiling < cap; i++) {
+            ceiling = Math.min(cap, ceiling * 2);
+        }
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public static class Stats {
+        private final long retries;
+        private final long recovered;
+        private final long exhausted;
+
+        public Stats(long retries, long recovered, long exhausted) {
+            this.retries = retries;
+            this.recovered = recovered;
+            this.exhausted = exhausted;
+        }
+
+        /**
+         * Attempts made after the first one.
+         */
+        public long getRetries() {
+            return retries;
+        }
+
+        /**
+         * Requests that succeeded after at least one retry.
+         */
+        public long getRecovered() {
+            return recovered;
+        }
+
+        /**
+         * Requests that still failed after their last allowed retry.
+         */
+        public long getExhausted() {
+            return exhausted;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "retries=" + retries +
+                    ", recovered=" + recovered +
+                    ", exhausted=" + exhausted +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ai.freeplay.client;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configures the on-disk spool that holds completion and trace records while the Freeplay API is slow or
+ * unreachable. Spooled records survive process restarts and are replayed by a background uploader once the API
+ * recovers.
+ */
+public class SpoolConfig {
+    private final Path directory;
+    private long segmentSize = 8 * 1024 * 1024;
+    private long maxSize = 256 * 1024 * 1024;
+    private double drainRatePerSecond = 20;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(1);
+    private Duration uploadTimeout = Duration.ofSeconds(30);
+
+    public SpoolConfig(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Size of each memory-mapped segment file. A new segment is started when the current one is full.
+     */
+    public SpoolConfig segmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * Upper bound on the disk space used by the spool. Records that do not fit fail as they would without a spool.
+     */
+    public SpoolConfig maxSize(long maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Maximum number of spooled records replayed per second once the API is reachable again.
+     */
+    public SpoolConfig drainRatePerSecond(double drainRatePerSecond) {
+        if (!(drainRatePerSecond > 0)) {
+            throw new IllegalArgumentException("drainRatePerSecond must be positive.");
+        }
+        this.drainRatePerSecond = drainRatePerSecond;
+        return this;
+    }
+
+    /**
+     * Wait before the first replay after a failed one. The wait doubles on each further failure up to
+     * {@link #maxBackoff(Duration)}, which must not be shorter.
+     */
+    public SpoolConfig initialBackoff(Duration initialBackoff) {
+        if (initialBackoff.isNegative() || initialBackoff.isZero()) {
+            throw new IllegalArgumentException("initialBackoff must be positive.");
+        }
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    public SpoolConfig maxBackoff(Duration maxBackoff) {
+        if (maxBackoff.isNegative() || maxBackoff.isZero()) {
+            throw new IllegalArgumentException("maxBackoff must be positive.");
+        }
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * Longest the uploader waits for the response to one replayed record. A record that times out is replayed again
+     * after the backoff, so one hung request cannot stall the spool. Closing the client waits up to this long for an
+     * upload in flight, so a record the API accepts is not replayed on the next start.
+     */
+    public SpoolConfig uploadTimeout(Duration uploadTimeout) {
+        if (uploadTimeout.isNegative() || uploadTimeout.isZero()) {
+            throw new IllegalArgumentException("uploadTimeout must be positive.");
+        }
+        this.uploadTimeout = uploadTimeout;
+        return this;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public double getDrainRatePerSecond() {
+        return drainRatePerSecond;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public Duration getUploadTimeout() {
+        return uploadTimeout;
+    }
+}
@@ -0,0 +1,135 @@
+package ai.freeplay.client;
+
+import java.time.Duration;
+
+/**
+ * Holds the spans of a trace tree on the client until its root completes. A trace or completion recorded with a
+ * {@code parentId} is kept in memory, and when the root trace (the one without a parent) calls
+ * {@code recordOutput(...)}, the buffered descendants are sent together, followed by the root. Spans that complete
+ * after their root are sent straight away. Set it with {@link Freeplay.FreeplayConfig#bufferTraces(TraceBuffering)}.
+ * <p>
+ * The futures of buffered spans complete when they are buffered, so delivery failures are not reported to the caller;
+ * they are logged and counted in {@link Stats}. Completions buffered without a completion ID are given one, so it
+ * can be returned straight away. Completions recorded through {@code batchRecordings(...)} are batched by it instead.
+ * <p>
+ * It does not reduce the number of requests. The API takes one span per request, so a tree of N spans is still N
+ * requests, sent as a burst when the root completes. Turn it on when it matters more that a turn's steps run without
+ * recording traffic: nothing is sent while the tree is open, so the agent's own calls do not share connections or the
+ * concurrency limit with recording, and each tree reaches Freeplay whole instead of span by span. The costs are that
+ * spans arrive later, each turn ends with a burst, and spans still held in memory are lost if the process exits
+ * without closing the client.
+ */
+public class TraceBuffering {
+    private Duration flushTimeout = Duration.ofSeconds(30);
+    private int maxBufferedSpans = 10_000;
+    private Duration closeTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a span waits for its root. When a session's oldest buffered span reaches it, that session's buffered
+     * spans are sent without the root, e.g. for a long-running agent turn or a root that never completes.
+     */
+    public TraceBuffering flushTimeout(Duration flushTimeout) {
+        if (flushTimeout.isNegative() || flushTimeout.isZero()) {
+            throw new IllegalArgumentException("flushTimeout must be positive.");
+        }
+        this.flushTimeout = flushTimeout;
+        return this;
+    }
+
+    /**
+     * Spans held across all sessions. Spans recorded while the buffer is full are sent straight away.
+     */
+    public TraceBuffering maxBufferedSpans(int maxBufferedSpans) {
+        if (maxBufferedSpans < 1) {
+            throw new IllegalArgumentException("maxBufferedSpans must be at least 1.");
+        }
+        this.maxBufferedSpans = maxBufferedSpans;
+        return this;
+    }
+
+    /**
+     * How long closing the client waits for buffered spans to be sent.
+     */
+    public TraceBuffering closeTimeout(Duration closeTimeout) {
+        if (closeTimeout.isNegative()) {
+            throw new IllegalArgumentException("closeTimeout must not be negative.");
+        }
+        this.closeTimeout = closeTimeout;
+        return this;
+    }
+
+    public Duration getFlushTimeout() {
+        return flushTimeout;
+    }
+
+    public int getMaxBufferedSpans() {
+        return maxBufferedSpans;
+    }
+
+    public Duration getCloseTimeout() {
+        return closeTimeout;
+    }
+
+    public static class Stats {
+        private final int buffered;
+        private final long treesCompleted;
+        private final long partialFlushes;
+        private final long sent;
+        private final long failed;
+
+        public Stats(int buffered, long treesCompleted, long partialFlushes, long sent, long failed) {
+            this.buffered = buffered;
+            this.treesCompleted = treesCompleted;
+            this.partialFlushes = partialFlushes;
+            this.sent = sent;
+            this.failed = failed;
+        }
+
+        /**
+         * Spans waiting for their root.
+         */
+        public int getBuffered() {
+            return buffered;
+        }
+
+        /**
+         * Roots that completed with buffered descendants, each sent as one burst.
+         */
+        public long getTreesCompleted() {
+            return treesCompleted;
+        }
+
+        /**
+         * Times a session's spans were sent before their root, because of
+         * {@link TraceBuffering#flushTimeout(Duration)} or a flush of the client.
+         */
+        public long getPartialFlushes() {
+            return partialFlushes;
+        }
+
+        /**
+         * Buffered spans the API acknowledged, or that were spooled.
+         */
+        public long getSent() {
+            return sent;
+        }
+
+        /**
+         * Buffered spans that failed to send.
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "buffered=" + buffered +
+                    ", treesCompleted=" + treesCompleted +
+                    ", partialFlushes=" + partialFlushes +
+                    ", sent=" + sent +
+                    ", failed=" + failed +
+                    '}';
+        }
+    }
+}
@@ -4,17 +4,49 @@ import ai.freeplay.client.exceptions.FreeplayConfigurationException;
 import ai.freeplay.client.internal.v2dto.TemplateDTO.ToolSchema;
 import ai.freeplay.client.resources.prompts.*;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.joining;
 
+/**
+ * Registry of {@link LLMAdapter}s by flavor name. Adapters are stateless and shared.
+ * <p>
+ * Additional flavors can be plugged in by listing {@link LLMAdapter} implementations in
+ * {@code META-INF/services/ai.freeplay.client.adapters.LLMAdapters$LLMAdapter}; each is registered under the names
+ * returned by {@link LLMAdapter#getFlavorNames()}. Built-in flavors cannot be replaced this way, but can be with
+ * {@link #register(String, LLMAdapter)}.
+ */
 public class LLMAdapters {
+    private static final System.Logger LOGGER = System.getLogger(LLMAdapters.class.getName());
+    private static final Map<String, LLMAdapter<?>> ADAPTERS = new ConcurrentHashMap<>();
+
+    static {
+        ADAPTERS.put("openai_chat", new OpenAILLMAdapter());
+        ADAPTERS.put("anthropic_chat", new AnthropicLLMAdapter());
+        ADAPTERS.put("llama_3_chat", new Llama3LLMAdapter());
+        ADAPTERS.put("baseten_mistral_chat", new BasetenLLMAdapter());
+        ADAPTERS.put("gemini_chat", new GeminiLLMAdapter());
+        ADAPTERS.put("gemini_api_chat", new GeminiApiLLMAdapter());
+        ADAPTERS.put("openai_responses", new OpenAIResponsesAdapter());
+        BedrockConverseAdapter bedrockConverseAdapter = new BedrockConverseAdapter();
+        ADAPTERS.put("amazon_bedrock_converse", bedrockConverseAdapter);
+        ADAPTERS.put("bedrock_converse", bedrockConverseAdapter);
+        loadProvidedAdapters();
+    }
+
     public interface LLMAdapter<LLMFormat> {
         String getProvider();
         LLMFormat toLLMSyntax(List<ChatMessage> messages);
 
+        /**
+         * Flavor names this adapter is registered under when it is loaded with {@link ServiceLoader}.
+         */
+        default List<String> getFlavorNames() {
+            return List.of();
+        }
+
         default RoleSupport getRoleSupport() {
             return RoleSupport.DEFAULT;
         }
@@ -29,26 +61,47 @@ public class LLMAdapters {
     }
 
     public static LLMAdapter<?> adapterForFlavor(String flavor) {
-        switch (flavor) {
-            case "openai_chat":
-                return new OpenAILLMAdapter();
-            case "anthropic_chat":
-                return new AnthropicLLMAdapter();
-            case "llama_3_chat":
-                return new Llama3LLMAdapter();
-            case "baseten_mistral_chat":
-                return new BasetenLLMAdapter();
-            case "gemini_chat":
-                return new GeminiLLMAdapter();
-            case "gemini_api_chat":
-                return new GeminiApiLLMAdapter();
-            case "openai_responses":
-                return new OpenAIResponsesAdapter();
-            case "amazon_bedrock_converse":
-            case "bedrock_converse":
-                return new BedrockConverseAdapter();
-            default:
-                throw new FreeplayConfigurationException(format("Unable to create LLMAdapter for name '%s'.%n", flavor));
+        LLMAdapter<?> adapter = flavor == null ? null : ADAPTERS.get(flavor);
+        if (adapter == null) {
+            throw new FreeplayConfigurationException(format("Unable to create LLMAdapter for name '%s'.%n", flavor));
+        }
+        return adapter;
+    }
+
+    /**
+     * Registers an adapter for a flavor, replacing any adapter already registered under that name. The adapter is
+     * shared by all callers and must be thread safe.
+     */
+    public static void register(String flavor, LLMAdapter<?> adapter) {
+        ADAPTERS.put(flavor, adapter);
+    }
+
+    public static Set<String> getFlavorNames() {
+        return Collections.unmodifiableSet(ADAPTERS.keySet());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void loadProvidedAdapters() {
+        Iterator<LLMAdapter> providers = ServiceLoader.load(LLMAdapter.class, LLMAdapters.class.getClassLoader()).iterator();
+        while (true) {
+            LLMAdapter<?> adapter;
+            try {
+                if (!providers.hasNext()) {
+                    return;
+                }
+                adapter = providers.next();
+            } catch (ServiceConfigurationError e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Unable to load LLMAdapter provider.", e);
+                continue;
+            }
+            for (String flavor : adapter.getFlavorNames()) {
+                LLMAdapter<?> existing = ADAPTERS.putIfAbsent(flavor, adapter);
+                if (existing != null) {
+                    LOGGER.log(System.Logger.Level.WARNING,
+                            "Ignoring {0} for flavor ''{1}'', which is already handled by {2}.",
+                            adapter.getClass().getName(), flavor, existing.getClass().getName());
+                }
+            }
         }
     }
 
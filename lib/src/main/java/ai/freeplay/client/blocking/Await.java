@@ -0,0 +1,37 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+final class Await {
+    private Await() {
+    }
+
+    /**
+     * Waits for the call and returns its result, rethrowing a FreeplayException it failed with as is so callers can
+     * catch the specific type.
+     */
+    static <T> T result(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FreeplayException("Interrupted while waiting for the Freeplay API.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FreeplayException("Error calling the Freeplay API.", cause);
+        }
+    }
+}
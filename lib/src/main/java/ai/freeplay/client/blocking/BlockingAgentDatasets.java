@@ -0,0 +1,77 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.agentdatasets.AgentDataset;
+import ai.freeplay.client.resources.agentdatasets.AgentDatasetList;
+import ai.freeplay.client.resources.agentdatasets.AgentDatasets;
+import ai.freeplay.client.resources.agentdatasets.AgentTestCase;
+import ai.freeplay.client.resources.agentdatasets.AgentTestCaseInput;
+import ai.freeplay.client.resources.agentdatasets.AgentTestCaseList;
+import ai.freeplay.client.resources.agentdatasets.CreateAgentDatasetRequest;
+import ai.freeplay.client.resources.agentdatasets.UpdateAgentDatasetRequest;
+import ai.freeplay.client.resources.agentdatasets.UpdateAgentTestCaseRequest;
+
+import java.util.List;
+
+public class BlockingAgentDatasets {
+    private final AgentDatasets delegate;
+
+    BlockingAgentDatasets(AgentDatasets delegate) {
+        this.delegate = delegate;
+    }
+
+    public AgentDataset create(String projectId, CreateAgentDatasetRequest request) {
+        return Await.result(delegate.create(projectId, request));
+    }
+
+    public AgentDatasetList list(String projectId) {
+        return Await.result(delegate.list(projectId));
+    }
+
+    public AgentDatasetList list(String projectId, int page, int pageSize) {
+        return Await.result(delegate.list(projectId, page, pageSize));
+    }
+
+    public AgentDatasetList list(String projectId, int page, int pageSize, String idFilter, String nameFilter) {
+        return Await.result(delegate.list(projectId, page, pageSize, idFilter, nameFilter));
+    }
+
+    public AgentDataset get(String projectId, String datasetId) {
+        return Await.result(delegate.get(projectId, datasetId));
+    }
+
+    public AgentDataset update(String projectId, String datasetId, UpdateAgentDatasetRequest request) {
+        return Await.result(delegate.update(projectId, datasetId, request));
+    }
+
+    public void delete(String projectId, String datasetId) {
+        Await.result(delegate.delete(projectId, datasetId));
+    }
+
+    public AgentTestCaseList listTestCases(String projectId, String datasetId) {
+        return Await.result(delegate.listTestCases(projectId, datasetId));
+    }
+
+    public AgentTestCaseList listTestCases(String projectId, String datasetId, int page, int pageSize) {
+        return Await.result(delegate.listTestCases(projectId, datasetId, page, pageSize));
+    }
+
+    public AgentTestCase getTestCase(String projectId, String datasetId, String testCaseId) {
+        return Await.result(delegate.getTestCase(projectId, datasetId, testCaseId));
+    }
+
+    public List<AgentTestCase> createTestCases(String projectId, String datasetId, List<AgentTestCaseInput> testCases) {
+        return Await.result(delegate.createTestCases(projectId, datasetId, testCases));
+    }
+
+    public AgentTestCase updateTestCase(String projectId, String datasetId, String testCaseId, UpdateAgentTestCaseRequest request) {
+        return Await.result(delegate.updateTestCase(projectId, datasetId, testCaseId, request));
+    }
+
+    public void deleteTestCase(String projectId, String datasetId, String testCaseId) {
+        Await.result(delegate.deleteTestCase(projectId, datasetId, testCaseId));
+    }
+
+    public void deleteTestCases(String projectId, String datasetId, List<String> testCaseIds) {
+        Await.result(delegate.deleteTestCases(projectId, datasetId, testCaseIds));
+    }
+}
@@ -0,0 +1,23 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.feedback.CustomerFeedback;
+import ai.freeplay.client.resources.feedback.CustomerFeedbackResponse;
+import ai.freeplay.client.resources.feedback.TraceFeedbackResponse;
+
+import java.util.Map;
+
+public class BlockingCustomerFeedback {
+    private final CustomerFeedback delegate;
+
+    BlockingCustomerFeedback(CustomerFeedback delegate) {
+        this.delegate = delegate;
+    }
+
+    public CustomerFeedbackResponse update(String projectId, String completionId, Map<String, Object> feedback) {
+        return Await.result(delegate.update(projectId, completionId, feedback));
+    }
+
+    public TraceFeedbackResponse updateTrace(String projectId, String traceId, Map<String, Object> feedback) {
+        return Await.result(delegate.updateTrace(projectId, traceId, feedback));
+    }
+}
@@ -0,0 +1,73 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.Freeplay;
+
+/**
+ * Direct-return versions of the {@link Freeplay} resources, for synchronous code. Each method waits for the
+ * underlying call and returns its result, or throws the {@link ai.freeplay.client.exceptions.FreeplayException} it
+ * failed with.
+ * <p>
+ * Waiting parks the calling thread. On JDK 21 and later, calling from virtual threads (for example a
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} or a server's virtual-thread request handling) makes that wait
+ * cheap, so many thousands of calls can be outstanding without a platform thread each. Pair it with
+ * {@link ai.freeplay.client.HttpConfig#virtualThreads(boolean)} so response handling runs on virtual threads too.
+ */
+public class BlockingFreeplay {
+    private final BlockingPrompts prompts;
+    private final BlockingRecordings recordings;
+    private final BlockingSessions sessions;
+    private final BlockingTraces traces;
+    private final BlockingCustomerFeedback customerFeedback;
+    private final BlockingMetadata metadata;
+    private final BlockingTestRuns testRuns;
+    private final BlockingPromptDatasets promptDatasets;
+    private final BlockingAgentDatasets agentDatasets;
+
+    public BlockingFreeplay(Freeplay freeplay) {
+        this.prompts = new BlockingPrompts(freeplay.prompts());
+        this.recordings = new BlockingRecordings(freeplay.recordings());
+        this.sessions = new BlockingSessions(freeplay.sessions());
+        this.traces = new BlockingTraces(freeplay.traces());
+        this.customerFeedback = new BlockingCustomerFeedback(freeplay.customerFeedback());
+        this.metadata = new BlockingMetadata(freeplay.metadata());
+        this.testRuns = new BlockingTestRuns(freeplay.testRuns());
+        this.promptDatasets = new BlockingPromptDatasets(freeplay.promptDatasets());
+        this.agentDatasets = new BlockingAgentDatasets(freeplay.agentDatasets());
+    }
+
+    public BlockingPrompts prompts() {
+        return prompts;
+    }
+
+    public BlockingRecordings recordings() {
+        return recordings;
+    }
+
+    public BlockingSessions sessions() {
+        return sessions;
+    }
+
+    public BlockingTraces traces() {
+        return traces;
+    }
+
+    public BlockingCustomerFeedback customerFeedback() {
+        return customerFeedback;
+    }
+
+    public BlockingMetadata metadata() {
+        return metadata;
+    }
+
+    public BlockingTestRuns testRuns() {
+        return testRuns;
+    }
+
+    public BlockingPromptDatasets promptDatasets() {
+        return promptDatasets;
+    }
+
+    public BlockingAgentDatasets agentDatasets() {
+        return agentDatasets;
+    }
+}
@@ -0,0 +1,31 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.metadata.Metadata;
+import ai.freeplay.client.resources.metadata.MetadataUpdateResponse;
+
+import java.util.Map;
+
+public class BlockingMetadata {
+    private final Metadata delegate;
+
+    BlockingMetadata(Metadata delegate) {
+        this.delegate = delegate;
+    }
+
+    public MetadataUpdateResponse updateSession(
+            String projectId,
+            String sessionId,
+            Map<String, Object> metadata
+    ) {
+        return Await.result(delegate.updateSession(projectId, sessionId, metadata));
+    }
+
+    public MetadataUpdateResponse updateTrace(
+            String projectId,
+            String sessionId,
+            String traceId,
+            Map<String, Object> metadata
+    ) {
+        return Await.result(delegate.updateTrace(projectId, sessionId, traceId, metadata));
+    }
+}
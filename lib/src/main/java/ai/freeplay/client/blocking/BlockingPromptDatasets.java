@@ -0,0 +1,77 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.promptdatasets.CreatePromptDatasetRequest;
+import ai.freeplay.client.resources.promptdatasets.PromptDataset;
+import ai.freeplay.client.resources.promptdatasets.PromptDatasetList;
+import ai.freeplay.client.resources.promptdatasets.PromptDatasets;
+import ai.freeplay.client.resources.promptdatasets.PromptTestCase;
+import ai.freeplay.client.resources.promptdatasets.PromptTestCaseInput;
+import ai.freeplay.client.resources.promptdatasets.PromptTestCaseList;
+import ai.freeplay.client.resources.promptdatasets.UpdatePromptDatasetRequest;
+import ai.freeplay.client.resources.promptdatasets.UpdatePromptTestCaseRequest;
+
+import java.util.List;
+
+public class BlockingPromptDatasets {
+    private final PromptDatasets delegate;
+
+    BlockingPromptDatasets(PromptDatasets delegate) {
+        this.delegate = delegate;
+    }
+
+    public PromptDataset create(String projectId, CreatePromptDatasetRequest request) {
+        return Await.result(delegate.create(projectId, request));
+    }
+
+    public PromptDatasetList list(String projectId) {
+        return Await.result(delegate.list(projectId));
+    }
+
+    public PromptDatasetList list(String projectId, int page, int pageSize) {
+        return Await.result(delegate.list(projectId, page, pageSize));
+    }
+
+    public PromptDatasetList list(String projectId, int page, int pageSize, String idFilter, String nameFilter) {
+        return Await.result(delegate.list(projectId, page, pageSize, idFilter, nameFilter));
+    }
+
+    public PromptDataset get(String projectId, String datasetId) {
+        return Await.result(delegate.get(projectId, datasetId));
+    }
+
+    public PromptDataset update(String projectId, String datasetId, UpdatePromptDatasetRequest request) {
+        return Await.result(delegate.update(projectId, datasetId, request));
+    }
+
+    public void delete(String projectId, String datasetId) {
+        Await.result(delegate.delete(projectId, datasetId));
+    }
+
+    public PromptTestCaseList listTestCases(String projectId, String datasetId) {
+        return Await.result(delegate.listTestCases(projectId, datasetId));
+    }
+
+    public PromptTestCaseList listTestCases(String projectId, String datasetId, int page, int pageSize) {
+        return Await.result(delegate.listTestCases(projectId, datasetId, page, pageSize));
+    }
+
+    public PromptTestCase getTestCase(String projectId, String datasetId, String testCaseId) {
+        return Await.result(delegate.getTestCase(projectId, datasetId, testCaseId));
+    }
+
+    public List<PromptTestCase> createTestCases(String projectId, String datasetId, List<PromptTestCaseInput> testCases) {
+        return Await.result(delegate.createTestCases(projectId, datasetId, testCases));
+    }
+
+    public PromptTestCase updateTestCase(String projectId, String datasetId, String testCaseId, UpdatePromptTestCaseRequest request) {
+        return Await.result(delegate.updateTestCase(projectId, datasetId, testCaseId, request));
+    }
+
+    public void deleteTestCase(String projectId, String datasetId, String testCaseId) {
+        Await.result(delegate.deleteTestCase(projectId, datasetId, testCaseId));
+    }
+
+    public void deleteTestCases(String projectId, String datasetId, List<String> testCaseIds) {
+        Await.result(delegate.deleteTestCases(projectId, datasetId, testCaseIds));
+    }
+}
@@ -0,0 +1,63 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.prompts.CreateVersionRequest;
+import ai.freeplay.client.resources.prompts.FormattedPrompt;
+import ai.freeplay.client.resources.prompts.Prompts;
+import ai.freeplay.client.resources.prompts.Prompts.GetFormattedRequest;
+import ai.freeplay.client.resources.prompts.TemplatePrompt;
+import ai.freeplay.client.resources.prompts.TemplateVersionResponse;
+
+import java.util.List;
+import java.util.Map;
+
+public class BlockingPrompts {
+    private final Prompts delegate;
+
+    BlockingPrompts(Prompts delegate) {
+        this.delegate = delegate;
+    }
+
+    public TemplatePrompt get(
+            String projectId,
+            String templateName,
+            String environment
+    ) {
+        return Await.result(delegate.get(projectId, templateName, environment));
+    }
+
+    public TemplatePrompt getByVersionId(
+            String projectId,
+            String templateId,
+            String templateVersionId
+    ) {
+        return Await.result(delegate.getByVersionId(projectId, templateId, templateVersionId));
+    }
+
+    public <LLMFormat> FormattedPrompt<LLMFormat> getFormatted(GetFormattedRequest request) {
+        return Await.result(delegate.<LLMFormat>getFormatted(request));
+    }
+
+    public <LLMFormat> FormattedPrompt<LLMFormat> getFormattedByVersionId(
+            String projectId,
+            String templateId,
+            String templateVersionId,
+            Map<String, Object> variables,
+            String flavorName
+    ) {
+        return Await.result(delegate.<LLMFormat>getFormattedByVersionId(
+                projectId, templateId, templateVersionId, variables, flavorName));
+    }
+
+    public TemplateVersionResponse createVersion(CreateVersionRequest request) {
+        return Await.result(delegate.createVersion(request));
+    }
+
+    public void updateVersionEnvironments(
+            String projectId,
+            String promptTemplateId,
+            String promptTemplateVersionId,
+            List<String> environments
+    ) {
+        Await.result(delegate.updateVersionEnvironments(projectId, promptTemplateId, promptTemplateVersionId, environments));
+    }
+}
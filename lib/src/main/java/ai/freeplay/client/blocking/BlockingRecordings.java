@@ -0,0 +1,21 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import ai.freeplay.client.resources.recordings.Recordings;
+
+public class BlockingRecordings {
+    private final Recordings delegate;
+
+    BlockingRecordings(Recordings delegate) {
+        this.delegate = delegate;
+    }
+
+    public RecordResponse create(RecordPayload recordPayload) {
+        return Await.result(delegate.create(recordPayload));
+    }
+
+    public void flush() {
+        Await.result(delegate.flush());
+    }
+}
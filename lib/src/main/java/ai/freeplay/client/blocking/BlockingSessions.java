@@ -0,0 +1,27 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.sessions.Session;
+import ai.freeplay.client.resources.sessions.SessionDeleteResponse;
+import ai.freeplay.client.resources.sessions.Sessions;
+
+import java.util.UUID;
+
+public class BlockingSessions {
+    private final Sessions delegate;
+
+    BlockingSessions(Sessions delegate) {
+        this.delegate = delegate;
+    }
+
+    public Session create() {
+        return delegate.create();
+    }
+
+    public Session restore(UUID sessionId) {
+        return delegate.restore(sessionId);
+    }
+
+    public SessionDeleteResponse delete(String projectId, String sessionId) {
+        return Await.result(delegate.delete(projectId, sessionId));
+    }
+}
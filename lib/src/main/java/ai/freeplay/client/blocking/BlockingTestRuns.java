@@ -0,0 +1,26 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.testruns.TestRun;
+import ai.freeplay.client.resources.testruns.TestRunRequest;
+import ai.freeplay.client.resources.testruns.TestRunResults;
+import ai.freeplay.client.resources.testruns.TestRuns;
+
+public class BlockingTestRuns {
+    private final TestRuns delegate;
+
+    BlockingTestRuns(TestRuns delegate) {
+        this.delegate = delegate;
+    }
+
+    public TestRunRequest.Builder createRequest(String projectId, String datasetName) {
+        return delegate.createRequest(projectId, datasetName);
+    }
+
+    public TestRun create(TestRunRequest request) {
+        return Await.result(delegate.create(request));
+    }
+
+    public TestRunResults get(String projectId, String testRunId) {
+        return Await.result(delegate.get(projectId, testRunId));
+    }
+}
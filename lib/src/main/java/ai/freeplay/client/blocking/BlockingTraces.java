@@ -0,0 +1,17 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.resources.traces.TraceUpdatePayload;
+import ai.freeplay.client.resources.traces.TraceUpdateResponse;
+import ai.freeplay.client.resources.traces.Traces;
+
+public class BlockingTraces {
+    private final Traces delegate;
+
+    BlockingTraces(Traces delegate) {
+        this.delegate = delegate;
+    }
+
+    public TraceUpdateResponse update(TraceUpdatePayload payload) {
+        return Await.result(delegate.update(payload));
+    }
+}
@@ -0,0 +1,16 @@
+package ai.freeplay.client.exceptions;
+
+import ai.freeplay.client.CircuitBreaker;
+
+public class FreeplayCircuitOpenException extends FreeplayException {
+    private final CircuitBreaker.Endpoint endpoint;
+
+    public FreeplayCircuitOpenException(String message, CircuitBreaker.Endpoint endpoint) {
+        super(message);
+        this.endpoint = endpoint;
+    }
+
+    public CircuitBreaker.Endpoint getEndpoint() {
+        return endpoint;
+    }
+}
@@ -5,7 +5,6 @@ public class FreeplayConfigurationException extends FreeplayException {
         super(message);
     }
 
-    @SuppressWarnings("unused")
     public FreeplayConfigurationException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -1,142 +1,438 @@
 package ai.freeplay.client.internal;
 
+import ai.freeplay.client.CircuitBreaker;
+import ai.freeplay.client.ConcurrencyLimit;
 import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.RetryPolicy;
+import ai.freeplay.client.exceptions.FreeplayCircuitOpenException;
 import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.transport.HttpTransport;
+import ai.freeplay.client.transport.JdkHttpTransport;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
-public class AsyncHttp {
+/**
+ * Sends API calls through one long-lived {@link HttpTransport}, applying retries, the concurrency limit, circuit
+ * breaking and compression on the way. One instance is shared by all resources of a Freeplay client so connections
+ * (and TLS sessions) are pooled and kept alive across calls.
+ */
+public class AsyncHttp implements AutoCloseable {
+    private final HttpConfig httpConfig;
+    private final HttpTransport transport;
+    private final boolean ownsTransport;
+    private final Executor retryExecutor;
+    private final ConcurrencyLimiter limiter;
+    private final CircuitBreakers circuitBreakers;
+    private final SingleFlight<String, HttpResponse<String>> getFlights;
+    private volatile boolean closed = false;
 
-    public static CompletableFuture<HttpResponse<String>> get(
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public AsyncHttp(HttpConfig httpConfig) {
+        this(httpConfig, null);
+    }
+
+    /**
+     * Sends through the given transport, or through a {@link JdkHttpTransport} built from the config if it is null.
+     * A transport that was passed in is not closed with this client.
+     */
+    public AsyncHttp(HttpConfig httpConfig, HttpTransport transport) {
+        this.httpConfig = httpConfig;
+        this.transport = transport != null ? transport : new JdkHttpTransport(httpConfig);
+        this.ownsTransport = transport == null;
+        // Retries continue on the threads the transport completes on, e.g. virtual threads when they were requested.
+        this.retryExecutor = this.transport instanceof JdkHttpTransport
+                ? ((JdkHttpTransport) this.transport).getExecutor()
+                : httpConfig.getExecutor();
+        this.limiter = httpConfig.getConcurrencyLimit() != null
+                ? new ConcurrencyLimiter(httpConfig.getConcurrencyLimit())
+                : null;
+        this.circuitBreakers = httpConfig.getCircuitBreaker() != null
+                ? new CircuitBreakers(httpConfig.getCircuitBreaker())
+                : null;
+        this.getFlights = httpConfig.isCoalesceGets() ? new SingleFlight<>() : null;
+    }
+
+    public HttpConfig getHttpConfig() {
+        return httpConfig;
+    }
+
+    public CompletableFuture<HttpResponse<String>> get(
+            String url,
+            String apiKey
+    ) throws FreeplayException {
+        if (getFlights == null) {
+            return get(url, apiKey, BodyHandlers.ofString());
+        }
+        // String responses are immutable, so identical concurrent GETs can share one. Each caller parses its own DTOs.
+        return getFlights.execute(url + '\n' + apiKey, () -> get(url, apiKey, BodyHandlers.ofString()));
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> get(
             String url,
             String apiKey,
-            HttpConfig httpConfig
+            BodyHandler<T> responseBodyHandler
     ) throws FreeplayException {
-        HttpRequest.Builder requestBuilder = request(url, apiKey, httpConfig);
+        return send(request("GET", url, apiKey, null, false), responseBodyHandler, true);
+    }
 
-        try {
-            return client(httpConfig)
-                    .build()
-                    .sendAsync(requestBuilder.build(), BodyHandlers.ofString());
-        } catch (Exception e) {
-            throw new FreeplayException("Error sending GET request.", e);
-        }
+    public CompletableFuture<HttpResponse<String>> postJson(
+            String url,
+            String apiKey,
+            Object body
+    ) throws FreeplayException {
+        return sendJson(url, apiKey, "POST", body);
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> postJson(
+            String url,
+            String apiKey,
+            Object body,
+            BodyHandler<T> responseBodyHandler
+    ) throws FreeplayException {
+        return sendSerializedJson(url, apiKey, "POST", JSONUtil.toString(body), responseBodyHandler, false);
     }
 
-    public static CompletableFuture<HttpResponse<String>> postJson(
+    public CompletableFuture<HttpResponse<String>> putJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig,
             Object body
     ) throws FreeplayException {
-        return sendJson(url, apiKey, httpConfig, "POST", body);
+        return sendJson(url, apiKey, "PUT", body);
     }
 
-    public static CompletableFuture<HttpResponse<String>> putJson(
+    public CompletableFuture<HttpResponse<String>> patchJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig,
             Object body
     ) throws FreeplayException {
-        return sendJson(url, apiKey, httpConfig, "PUT", body);
+        return sendJson(url, apiKey, "PATCH", body);
     }
 
-    public static CompletableFuture<HttpResponse<String>> patchJson(
+    public CompletableFuture<HttpResponse<String>> delete(
+            String url,
+            String apiKey
+    ) throws FreeplayException {
+        return send(request("DELETE", url, apiKey, null, false), BodyHandlers.ofString(), true);
+    }
+
+    public CompletableFuture<HttpResponse<String>> deleteJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig,
             Object body
     ) throws FreeplayException {
-        return sendJson(url, apiKey, httpConfig, "PATCH", body);
+        return sendJson(url, apiKey, "DELETE", body);
     }
 
-    public static CompletableFuture<HttpResponse<String>> delete(
+    /**
+     * Posts a body that has already been serialized to JSON.
+     */
+    public CompletableFuture<HttpResponse<String>> postSerializedJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig
+            String json
     ) throws FreeplayException {
-        HttpRequest.Builder requestBuilder = request(url, apiKey, httpConfig);
+        return postSerializedJson(url, apiKey, json, false);
+    }
 
-        try {
-            return client(httpConfig)
-                    .build()
-                    .sendAsync(requestBuilder.DELETE().build(), BodyHandlers.ofString());
-        } catch (Exception e) {
-            throw new FreeplayException("Error sending DELETE request.", e);
-        }
+    /**
+     * Posts a body that has already been serialized to JSON. An idempotent post, e.g. a completion with a client
+     * generated ID, is retried like a GET under the configured {@link RetryPolicy}.
+     */
+    public CompletableFuture<HttpResponse<String>> postSerializedJson(
+            String url,
+            String apiKey,
+            String json,
+            boolean idempotent
+    ) throws FreeplayException {
+        return sendSerializedJson(url, apiKey, "POST", json, BodyHandlers.ofString(), idempotent);
     }
 
-    public static CompletableFuture<HttpResponse<String>> deleteJson(
+    /**
+     * Posts a body that has already been serialized to UTF-8 JSON. The bytes are sent as they are, without another
+     * copy.
+     */
+    public CompletableFuture<HttpResponse<String>> postSerializedJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig,
-            Object body
+            byte[] json,
+            boolean idempotent
     ) throws FreeplayException {
-        return sendJson(url, apiKey, httpConfig, "DELETE", body);
+        int gzipMinBytes = httpConfig.getGzipMinBytes();
+        boolean gzip = gzipMinBytes >= 0 && json.length >= gzipMinBytes;
+        List<ByteBuffer> body = gzip ? GzipBody.compress(json) : List.of(ByteBuffer.wrap(json));
+        return send(request("POST", url, apiKey, body, gzip), BodyHandlers.ofString(), idempotent);
     }
 
-    private static CompletableFuture<HttpResponse<String>> sendJson(
+    public RetryPolicy.Stats getRetryStats() {
+        return new RetryPolicy.Stats(retries.get(), recovered.get(), exhausted.get());
+    }
+
+    /**
+     * The current concurrency limit, in-flight and queued calls, or null if no {@link ConcurrencyLimit} is set.
+     */
+    public ConcurrencyLimit.Stats getConcurrencyStats() {
+        return limiter != null ? limiter.getStats() : null;
+    }
+
+    /**
+     * The state of each endpoint's circuit, or an empty map if no {@link CircuitBreaker} is set.
+     */
+    public Map<CircuitBreaker.Endpoint, CircuitBreaker.State> getCircuitStates() {
+        return circuitBreakers != null ? circuitBreakers.getStates() : Map.of();
+    }
+
+    /**
+     * GETs that shared an identical in-flight request instead of sending their own.
+     */
+    public long getCoalescedGets() {
+        return getFlights != null ? getFlights.getCoalesced() : 0;
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendJson(
             String url,
             String apiKey,
-            HttpConfig httpConfig,
             String method,
             Object body
     ) throws FreeplayException {
-        HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.ofString(JSONUtil.toString(body));
-        HttpRequest.Builder request =
-                request(url, apiKey, httpConfig)
-                        .method(method, bodyPublisher)
-                        .header("Content-Type", "application/json");
+        return sendSerializedJson(url, apiKey, method, JSONUtil.toString(body), BodyHandlers.ofString(), isIdempotent(method));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendSerializedJson(
+            String url,
+            String apiKey,
+            String method,
+            String json,
+            BodyHandler<T> responseBodyHandler,
+            boolean idempotent
+    ) throws FreeplayException {
+        // Each char encodes to at least one UTF-8 byte, so the string length is a lower bound on the body size.
+        int gzipMinBytes = httpConfig.getGzipMinBytes();
+        boolean gzip = gzipMinBytes >= 0 && json.length() >= gzipMinBytes;
+        List<ByteBuffer> body = gzip
+                ? GzipBody.compress(json)
+                : List.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+        return send(request(method, url, apiKey, body, gzip), responseBodyHandler, idempotent);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(
+            HttpTransport.Request request,
+            BodyHandler<T> responseBodyHandler,
+            boolean idempotent
+    ) {
+        if (httpConfig.isCompressedResponses()) {
+            responseBodyHandler = DecompressingBody.handler(responseBodyHandler);
+        }
+        RetryPolicy retryPolicy = httpConfig.getRetryPolicy();
+        if (retryPolicy == null || retryPolicy.getMaxAttempts() == 1) {
+            return sendOnce(request, responseBodyHandler);
+        }
+        long deadline = System.nanoTime() + retryPolicy.getDeadline().toNanos();
+        return sendWithRetries(request, responseBodyHandler, idempotent, retryPolicy, 1, deadline);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendWithRetries(
+            HttpTransport.Request request,
+            BodyHandler<T> responseBodyHandler,
+            boolean idempotent,
+            RetryPolicy retryPolicy,
+            int attempt,
+            long deadline
+    ) {
+        CompletableFuture<HttpResponse<T>> call;
+        try {
+            call = sendOnce(request, responseBodyHandler);
+        } catch (FreeplayException e) {
+            if (attempt == 1) {
+                throw e;
+            }
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, error) -> {
+            boolean retryable = error != null
+                    ? retryPolicy.isRetryableException(unwrap(error), idempotent)
+                    : retryPolicy.isRetryableStatus(response.statusCode(), idempotent);
+            if (!retryable) {
+                if (attempt > 1 && error == null && response.statusCode() < 400) {
+                    recovered.incrementAndGet();
+                }
+                return completed(response, error);
+            }
+            long delayMillis = Math.max(retryPolicy.backoffMillis(attempt), retryAfterMillis(response));
+            if (attempt >= retryPolicy.getMaxAttempts() || closed
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) > deadline) {
+                exhausted.incrementAndGet();
+                return completed(response, error);
+            }
+            retries.incrementAndGet();
+            Executor delayed = retryExecutor != null
+                    ? CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, retryExecutor)
+                    : CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> sendWithRetries(
+                    request, responseBodyHandler, idempotent, retryPolicy, attempt + 1, deadline), delayed)
+                    .thenCompose(Function.identity());
+        }).thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendOnce(HttpTransport.Request request, BodyHandler<T> responseBodyHandler) {
+        String method = request.getMethod();
+        if (closed) {
+            throw new FreeplayException(format("Unable to send %s request. The Freeplay client has been closed.", method));
+        }
+        if (circuitBreakers == null) {
+            return limited(method, () -> transmit(request, responseBodyHandler));
+        }
+
+        CircuitBreakers.Circuit circuit = circuitBreakers.forUri(request.getUri());
+        CircuitBreakers.Permit permit = circuit.tryAcquire();
+        if (permit == CircuitBreakers.Permit.REJECTED) {
+            return CompletableFuture.failedFuture(new FreeplayCircuitOpenException(format(
+                    "Unable to send %s request. The circuit for %s calls is open.",
+                    method, circuit.getEndpoint().name().toLowerCase()), circuit.getEndpoint()));
+        }
+        // Latency is measured from when the request is handed to the client, excluding time queued by the limiter.
+        AtomicLong sentAtNanos = new AtomicLong(-1);
+        CompletableFuture<HttpResponse<T>> call;
+        try {
+            call = limited(method, () -> {
+                long start = System.nanoTime();
+                CompletableFuture<HttpResponse<T>> sent = transmit(request, responseBodyHandler);
+                sentAtNanos.set(start);
+                return sent;
+            });
+        } catch (RuntimeException e) {
+            circuit.onResult(permit, false, 0, false);
+            throw e;
+        }
+        return call.whenComplete((response, error) -> {
+            long start = sentAtNanos.get();
+            circuit.onResult(permit, start >= 0, System.nanoTime() - start, CircuitBreakers.isFailure(response, error));
+        });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> limited(
+            String method,
+            Supplier<CompletableFuture<HttpResponse<T>>> call
+    ) {
+        return limiter != null ? limiter.submit(method, call) : call.get();
+    }
 
+    private <T> CompletableFuture<HttpResponse<T>> transmit(HttpTransport.Request request, BodyHandler<T> responseBodyHandler) {
         try {
-            return client(httpConfig)
-                    .build()
-                    .sendAsync(request.build(), BodyHandlers.ofString());
+            return transport.send(request, responseBodyHandler);
         } catch (Exception e) {
-            throw new FreeplayException(format("Error sending %s request.", method), e);
+            throw new FreeplayException(format("Error sending %s request.", request.getMethod()), e);
         }
     }
 
-    private static HttpClient.Builder client(HttpConfig httpConfig) {
-        HttpClient.Builder clientBuilder = HttpClient.newBuilder();
-        if (httpConfig.getExecutor() != null) {
-            clientBuilder.executor(httpConfig.getExecutor());
+    private static <T> CompletableFuture<HttpResponse<T>> completed(HttpResponse<T> response, Throwable error) {
+        return error != null ? CompletableFuture.failedFuture(error) : CompletableFuture.completedFuture(response);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
         }
-        if (httpConfig.getProxySelector() != null) {
-            clientBuilder.proxy(httpConfig.getProxySelector());
+        return error;
+    }
+
+    private static boolean isIdempotent(String method) {
+        return !method.equals("POST") && !method.equals("PATCH");
+    }
+
+    /**
+     * The delay requested by a Retry-After header on a 429 or 503 response, in seconds or as an HTTP date.
+     */
+    static long retryAfterMillis(HttpResponse<?> response) {
+        if (response == null || (response.statusCode() != 429 && response.statusCode() != 503) || response.headers() == null) {
+            return 0;
+        }
+        String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException ignore) {
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException ignore) {
+            return 0;
         }
-        return clientBuilder;
     }
 
-    private static HttpRequest.Builder request(
+    private HttpTransport.Request request(
+            String method,
             String url,
             String apiKey,
-            HttpConfig httpConfig
+            List<ByteBuffer> jsonBody,
+            boolean gzipped
     ) {
-        HttpRequest.Builder requestBuilder;
+        URI uri;
         try {
-            requestBuilder = HttpRequest
-                    .newBuilder(new URI(url))
-                    .header("User-Agent", UserAgent.getUserAgent());
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new FreeplayException(format("Error in URL during %s request.", method), e);
+        }
 
-            if (apiKey != null) {
-                requestBuilder.header("Authorization", format("Bearer %s", apiKey));
-            }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("User-Agent", List.of(UserAgent.getUserAgent()));
+        if (apiKey != null) {
+            headers.put("Authorization", List.of(format("Bearer %s", apiKey)));
+        }
+        if (httpConfig.isCompressedResponses()) {
+            headers.put("Accept-Encoding", List.of(DecompressingBody.ACCEPT_ENCODING));
+        }
+        if (jsonBody != null) {
+            headers.put("Content-Type", List.of("application/json"));
+        }
+        if (gzipped) {
+            headers.put("Content-Encoding", List.of("gzip"));
+        }
+        return new HttpTransport.Request(
+                method, uri, headers, jsonBody != null ? jsonBody : List.of(), httpConfig.getRequestTimeout());
+    }
 
-            if (httpConfig.getRequestTimeout() != null) {
-                requestBuilder.timeout(httpConfig.getRequestTimeout());
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (limiter != null) {
+            limiter.close();
+        }
+        if (ownsTransport) {
+            try {
+                transport.close();
+            } catch (Exception ignore) {
             }
-        } catch (URISyntaxException e) {
-            throw new FreeplayException("Error in URL during GET request.", e);
         }
-        return requestBuilder;
     }
 }
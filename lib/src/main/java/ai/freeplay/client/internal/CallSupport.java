@@ -1,9 +1,19 @@
 package ai.freeplay.client.internal;
 
+import ai.freeplay.client.CircuitBreaker;
+import ai.freeplay.client.ConcurrencyLimit;
+import ai.freeplay.client.FireAndForget;
 import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.IdGenerator;
+import ai.freeplay.client.RetryPolicy;
+import ai.freeplay.client.SpoolConfig;
 import ai.freeplay.client.TemplateResolver;
+import ai.freeplay.client.TraceBuffering;
 import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.exceptions.FreeplayConfigurationException;
+import ai.freeplay.client.exceptions.FreeplayException;
 import ai.freeplay.client.internal.dto.*;
+import ai.freeplay.client.internal.spool.SpoolUploader;
 import ai.freeplay.client.internal.v2dto.TemplateDTO;
 import ai.freeplay.client.media.MediaInput;
 import ai.freeplay.client.resources.agentdatasets.*;
@@ -26,24 +36,32 @@ import ai.freeplay.client.resources.testruns.TraceTestCase;
 import ai.freeplay.client.resources.traces.TraceUpdateResponse;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
+import java.net.http.HttpResponse;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static ai.freeplay.client.internal.Http.throwFreeplayIfError;
+import static ai.freeplay.client.internal.Http.throwFreeplayIfJsonError;
 import static ai.freeplay.client.internal.ParameterUtils.validateBasicMap;
 import static ai.freeplay.client.internal.PromptUtils.getFinalEnvironment;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
 
 
-public class CallSupport {
-    private final HttpConfig httpConfig;
+public class CallSupport implements AutoCloseable {
+    private final AsyncHttp http;
     private final TemplateResolver templateResolver;
     private final String baseUrl;
     private final String freeplayApiKey;
+    private volatile SpoolUploader spool;
+    private volatile FireAndForgetQueue fireAndForget;
+    private volatile TraceTreeBuffer traceBuffer;
+    private volatile IdGenerator idGenerator = IdGenerator.timeOrdered();
 
     public CallSupport(
             HttpConfig httpConfig,
@@ -51,7 +69,16 @@ public class CallSupport {
             String baseUrl,
             String freeplayApiKey
     ) {
-        this.httpConfig = httpConfig;
+        this(new AsyncHttp(httpConfig), templateResolver, baseUrl, freeplayApiKey);
+    }
+
+    public CallSupport(
+            AsyncHttp http,
+            TemplateResolver templateResolver,
+            String baseUrl,
+            String freeplayApiKey
+    ) {
+        this.http = http;
         this.templateResolver = templateResolver;
         this.baseUrl = baseUrl;
         this.freeplayApiKey = freeplayApiKey;
@@ -78,11 +105,49 @@ public class CallSupport {
     }
 
     public CompletableFuture<RecordResponse> record(RecordPayload recordPayload) {
+        FireAndForgetQueue fireAndForget = this.fireAndForget;
+        TraceTreeBuffer traceBuffer = recordPayload.getParentId() != null ? this.traceBuffer : null;
+        if (fireAndForget == null && traceBuffer == null) {
+            return sendRecord(prepareRecord(withCompletionId(recordPayload)));
+        }
+        validateRecord(recordPayload);
+        RecordPayload snapshot = recordPayload.snapshot();
+        if (snapshot.getCompletionId() == null) {
+            // A buffered or handed-off record is answered before it is sent, so it needs its ID up front.
+            snapshot.completionId(idGenerator.newId());
+        }
+        if (traceBuffer != null) {
+            PreparedRecord preparedRecord = prepareRecord(snapshot);
+            if (traceBuffer.offer(snapshot.getSessionInfo().getSessionId(), snapshot.getCompletionId(),
+                    snapshot.getParentId(), () -> sendRecord(preparedRecord))) {
+                return CompletableFuture.completedFuture(new RecordResponse(preparedRecord.getCompletionId()));
+            }
+            if (fireAndForget == null) {
+                return sendRecord(preparedRecord);
+            }
+        }
+        if (!fireAndForget.publish(() -> sendRecord(prepareRecord(snapshot)))) {
+            return CompletableFuture.failedFuture(new FreeplayException("Unable to record. The fire-and-forget buffer is full."));
+        }
+        return CompletableFuture.completedFuture(new RecordResponse(snapshot.getCompletionId().toString()));
+    }
 
-        if (recordPayload.getAllMessages().isEmpty()) {
-            throw new FreeplayClientException("Messages list must have at least one message. " +
-                    "The last message should be the current response.");
+    /**
+     * Returns the payload, or a snapshot of it with a client-side completion ID if it has none and may be spooled. A
+     * spooled record is answered with that ID and, because the API deduplicates by it, can be retried.
+     */
+    public RecordPayload withCompletionId(RecordPayload recordPayload) {
+        if (recordPayload.getCompletionId() != null || spool == null) {
+            return recordPayload;
         }
+        return recordPayload.snapshot().completionId(idGenerator.newId());
+    }
+
+    /**
+     * Validates and serializes a record on the calling thread so it can be sent later, e.g. by the batching recorder.
+     */
+    public PreparedRecord prepareRecord(RecordPayload recordPayload) {
+        validateRecord(recordPayload);
 
         String testRunId =
                 recordPayload.getTestRunInfo() == null
@@ -93,79 +158,30 @@ public class CallSupport {
                         ? null
                         : recordPayload.getTestRunInfo().getTestCaseId();
 
-        RecordDTO.ResponseInfoDTO responseInfo = null;
-        if (recordPayload.getResponseInfo() != null) {
-            responseInfo = new RecordDTO.ResponseInfoDTO(
-                    recordPayload.getResponseInfo().isComplete(),
-                    recordPayload.getResponseInfo().getFunctionCall() != null ? new RecordDTO.OpenAIFunctionCallDTO(
-                            recordPayload.getResponseInfo().getFunctionCall().getName(),
-                            recordPayload.getResponseInfo().getFunctionCall().getArguments()
-                    ) : null,
-                    recordPayload.getResponseInfo().getPromptTokens(),
-                    recordPayload.getResponseInfo().getResponseTokens()
-            );
-        }
-
-        Map<String, RecordDTO.MediaInputDTO> mediaInputs = new HashMap<>();
-        if (recordPayload.getMediaInputCollection() != null) {
-            for (Map.Entry<String, MediaInput> entry : recordPayload.getMediaInputCollection().entries()) {
-                mediaInputs.put(entry.getKey(), RecordDTO.MediaInputDTO.fromMediaInput(entry.getValue()));
-            }
-        }
-
-        // Handle optional PromptVersionInfo
-        RecordDTO.PromptVersionInfoDTO promptVersionInfoDTO = null;
-        if (recordPayload.getPromptVersionInfo() != null) {
-            promptVersionInfoDTO = new RecordDTO.PromptVersionInfoDTO(
-                    recordPayload.getPromptVersionInfo().getPromptTemplateVersionId(),
-                    recordPayload.getPromptVersionInfo().getEnvironment(),
-                    recordPayload.getProjectId()
-            );
-        }
+        return new PreparedRecord(
+                format("%s/v2/projects/%s/sessions/%s/completions", baseUrl, recordPayload.getProjectId(), recordPayload.getSessionInfo().getSessionId()),
+                RecordWriter.toBytes(recordPayload, testRunId, testCaseId),
+                recordPayload.getCompletionId() != null ? recordPayload.getCompletionId().toString() : null
+        );
+    }
 
-        // Handle optional CallInfo
-        RecordDTO.CallInfoDTO callInfoDTO = null;
-        if (recordPayload.getCallInfo() != null) {
-            callInfoDTO = new RecordDTO.CallInfoDTO(
-                    recordPayload.getCallInfo().getProvider(),
-                    recordPayload.getCallInfo().getModel(),
-                    recordPayload.getCallInfo().getStartTime(),
-                    recordPayload.getCallInfo().getEndTime(),
-                    recordPayload.getCallInfo().getModelParameters()
-            ).providerInfo(
-                    recordPayload.getCallInfo().getProviderInfo()
-            ).usage(
-                    recordPayload.getCallInfo().getUsage() != null ?
-                            new RecordDTO.CallInfoDTO.UsageTokensDTO(
-                                    recordPayload.getCallInfo().getUsage().getPromptTokens(),
-                                    recordPayload.getCallInfo().getUsage().getCompletionTokens()
-                            ) : null
-            ).apiStyle(recordPayload.getCallInfo().getApiStyle());
+    private static void validateRecord(RecordPayload recordPayload) {
+        if (recordPayload.getAllMessages().isEmpty()) {
+            throw new FreeplayClientException("Messages list must have at least one message. " +
+                    "The last message should be the current response.");
         }
+    }
 
-        RecordDTO payload = new RecordDTO(
-                recordPayload.getAllMessages(),
-                recordPayload.getInputs(),
-                new RecordDTO.SessionInfoDTO(recordPayload.getSessionInfo().getSessionId(), recordPayload.getSessionInfo().getCustomMetadata()),
-                promptVersionInfoDTO,
-                callInfoDTO,
-                responseInfo,
-                testRunId != null ? new RecordDTO.TestRunInfoDTO(testRunId, testCaseId) : null,
-                recordPayload.getEvalResults(),
-                null,
-                recordPayload.getParentId(),
-                recordPayload.getToolSchema(),
-                recordPayload.getOutputSchema(),
-                recordPayload.getCompletionId(),
-                mediaInputs
-        );
-
-        return AsyncHttp.postJson(
-                format("%s/v2/projects/%s/sessions/%s/completions", baseUrl, recordPayload.getProjectId(), recordPayload.getSessionInfo().getSessionId()),
-                freeplayApiKey,
-                httpConfig,
-                payload
+    public CompletableFuture<RecordResponse> sendRecord(PreparedRecord preparedRecord) {
+        // The API deduplicates completions by ID, so a record that carries one is safe to retry.
+        return postOrSpool(
+                preparedRecord.getUrl(),
+                preparedRecord.getBody(),
+                preparedRecord.getCompletionId() != null
         ).thenApply(httpResponse -> {
+            if (httpResponse == null) {
+                return new RecordResponse(preparedRecord.getCompletionId());
+            }
             throwFreeplayIfError(httpResponse, 201);
             JsonNode responseNode = JSONUtil.parseDOM(httpResponse.body());
             return new RecordResponse(responseNode.path("completion_id").asText(null));
@@ -194,31 +210,138 @@ public class CallSupport {
                 traceInfo.getStartTime(),
                 traceInfo.getEndTime()
         );
-        return AsyncHttp.postJson(
-                format("%s/v2/projects/%s/sessions/%s/traces/id/%s", baseUrl, projectId, traceInfo.sessionId, traceInfo.traceId),
-                freeplayApiKey,
-                httpConfig,
-                payload
-        ).thenApply(httpResponse -> {
-            throwFreeplayIfError(httpResponse, 201);
+        String url = format("%s/v2/projects/%s/sessions/%s/traces/id/%s", baseUrl, projectId, traceInfo.sessionId, traceInfo.traceId);
+        TraceTreeBuffer traceBuffer = this.traceBuffer;
+        if (traceBuffer != null && traceBuffer.offer(String.valueOf(traceInfo.sessionId), traceInfo.traceId,
+                traceInfo.getParentId(), () -> sendTrace(url, payload))) {
+            return CompletableFuture.completedFuture(new TraceRecordResponse());
+        }
+        FireAndForgetQueue fireAndForget = this.fireAndForget;
+        if (fireAndForget == null) {
+            return sendTrace(url, payload);
+        }
+        // The DTO holds the trace's values as of now, so later changes to the TraceInfo do not affect it.
+        if (!fireAndForget.publish(() -> sendTrace(url, payload))) {
+            return CompletableFuture.failedFuture(new FreeplayException("Unable to record trace. The fire-and-forget buffer is full."));
+        }
+        return CompletableFuture.completedFuture(new TraceRecordResponse());
+    }
+
+    private CompletableFuture<TraceRecordResponse> sendTrace(String url, TraceInfoDTO payload) {
+        return postOrSpool(url, JSONUtil.toBytes(payload), false).thenApply(httpResponse -> {
+            if (httpResponse != null) {
+                throwFreeplayIfError(httpResponse, 201);
+            }
             return new TraceRecordResponse();
         });
     }
 
+    /**
+     * Posts a record, falling back to the spool when one is configured and the API is unreachable or failing.
+     * Completes with null when the record was spooled.
+     */
+    private CompletableFuture<HttpResponse<String>> postOrSpool(String url, byte[] body, boolean idempotent) {
+        SpoolUploader spool = this.spool;
+        if (spool == null) {
+            return http.postSerializedJson(url, freeplayApiKey, body, idempotent);
+        }
+        if (spool.hasBacklog() && spool.offer(url, body)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return http.postSerializedJson(url, freeplayApiKey, body, idempotent).handle((httpResponse, error) -> {
+            boolean retryable = error != null || SpoolUploader.isRetryableStatus(httpResponse.statusCode());
+            if (retryable && spool.offer(url, body)) {
+                return null;
+            }
+            if (error != null) {
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            return httpResponse;
+        });
+    }
+
+    /**
+     * Spools completion and trace records to disk while the API is unreachable, and replays them in the background.
+     */
+    public void enableSpool(SpoolConfig spoolConfig) {
+        try {
+            this.spool = SpoolUploader.start(spoolConfig, http, freeplayApiKey);
+        } catch (IOException e) {
+            throw new FreeplayConfigurationException(
+                    format("Unable to open spool directory %s.", spoolConfig.getDirectory()), e);
+        }
+    }
+
+    /**
+     * Hands completion and trace records to a consumer thread that serializes and sends them, instead of doing so on
+     * the caller's thread.
+     */
+    public void enableFireAndForget(FireAndForget config) {
+        this.fireAndForget = new FireAndForgetQueue(config);
+    }
+
+    /**
+     * Completes once records handed off so far have been sent. Completes immediately if fire-and-forget is not enabled.
+     */
+    public CompletableFuture<Void> flushFireAndForget() {
+        FireAndForgetQueue fireAndForget = this.fireAndForget;
+        return fireAndForget != null ? fireAndForget.flush() : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Buffered, dropped, and sent record counts, or null if fire-and-forget is not enabled.
+     */
+    public FireAndForget.Stats getFireAndForgetStats() {
+        FireAndForgetQueue fireAndForget = this.fireAndForget;
+        return fireAndForget != null ? fireAndForget.getStats() : null;
+    }
+
+    /**
+     * Holds traces and completions that have a parent until the root of their trace tree is recorded.
+     */
+    public void enableTraceBuffering(TraceBuffering config) {
+        this.traceBuffer = new TraceTreeBuffer(config);
+    }
+
+    /**
+     * Sends buffered trace spans without waiting for their roots. Completes immediately if trace buffering is not
+     * enabled.
+     */
+    public CompletableFuture<Void> flushTraceBuffer() {
+        TraceTreeBuffer traceBuffer = this.traceBuffer;
+        return traceBuffer != null ? traceBuffer.flush() : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Buffered, sent, and failed span counts, or null if trace buffering is not enabled.
+     */
+    public TraceBuffering.Stats getTraceBufferingStats() {
+        TraceTreeBuffer traceBuffer = this.traceBuffer;
+        return traceBuffer != null ? traceBuffer.getStats() : null;
+    }
+
+    public void setIdGenerator(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Generates session, trace, and client-side completion IDs.
+     */
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
     public CompletableFuture<TestRun> createTestRun(String projectId, String datasetName, boolean includeOutputs, String name, String description, String flavorName, List<UUID> targetEvaluationIds) {
         String url = String.format("%s/v2/projects/%s/test-runs", baseUrl, projectId);
-        return AsyncHttp.postJson(
+        return http.postJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
-                new DatasetDTO(datasetName, includeOutputs, name, description, flavorName, targetEvaluationIds)
+                new DatasetDTO(datasetName, includeOutputs, name, description, flavorName, targetEvaluationIds),
+                JsonBody.handler(TestRunDTO.class, 201)
         ).thenApply(httpResponse -> {
-            throwFreeplayIfError(httpResponse, 201);
+            throwFreeplayIfJsonError(httpResponse, 201);
 
-            TestRunDTO testRun =
-                    JSONUtil.parse(
-                            httpResponse.body(),
-                            TestRunDTO.class);
+            TestRunDTO testRun = httpResponse.body().getValue();
 
             List<CompletionTestCase> completionTestCases = null;
             List<TraceTestCase> traceTestCases = null;
@@ -257,10 +380,9 @@ public class CallSupport {
 
     public CompletableFuture<TestRunResults> getTestRunResults(String projectId, String testRunId) {
         String url = String.format("%s/v2/projects/%s/test-runs/id/%s", baseUrl, projectId, testRunId);
-        return AsyncHttp.get(
+        return http.get(
                 url,
-                freeplayApiKey,
-                httpConfig
+                freeplayApiKey
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 200);
 
@@ -282,10 +404,9 @@ public class CallSupport {
     ) {
         validateBasicMap(feedback);
         String url = String.format("%s/v2/projects/%s/completion-feedback/id/%s", baseUrl, projectId, completionId);
-        return AsyncHttp.postJson(
+        return http.postJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 feedback
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 201);
@@ -301,10 +422,9 @@ public class CallSupport {
     ) {
         validateBasicMap(feedback);
         String url = String.format("%s/v2/projects/%s/trace-feedback/id/%s", baseUrl, projectId, traceId);
-        return AsyncHttp.postJson(
+        return http.postJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 feedback
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 201);
@@ -315,10 +435,9 @@ public class CallSupport {
 
     public CompletableFuture<SessionDeleteResponse> deleteSession(String projectId, String sessionId) {
         String url = String.format("%s/v2/projects/%s/sessions/%s", baseUrl, projectId, sessionId);
-        return AsyncHttp.delete(
+        return http.delete(
                 url,
-                freeplayApiKey,
-                httpConfig
+                freeplayApiKey
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 201);
             return new SessionDeleteResponse();
@@ -356,10 +475,9 @@ public class CallSupport {
                 environments
         );
 
-        return AsyncHttp.postJson(
+        return http.postJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 payload
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 201);
@@ -405,10 +523,9 @@ public class CallSupport {
         );
         UpdateVersionEnvironmentsDTO payload = new UpdateVersionEnvironmentsDTO(environments);
 
-        return AsyncHttp.postJson(
+        return http.postJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 payload
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 200);
@@ -428,10 +545,9 @@ public class CallSupport {
                 projectId,
                 sessionId
         );
-        return AsyncHttp.patchJson(
+        return http.patchJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 metadata
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 200);
@@ -453,10 +569,9 @@ public class CallSupport {
                 sessionId,
                 traceId
         );
-        return AsyncHttp.patchJson(
+        return http.patchJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 metadata
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 200);
@@ -483,10 +598,9 @@ public class CallSupport {
                 traceId
         );
         TraceUpdateDTO payload = new TraceUpdateDTO(output, metadata, feedback, evalResults, testRunId, testCaseId);
-        return AsyncHttp.patchJson(
+        return http.patchJson(
                 url,
                 freeplayApiKey,
-                httpConfig,
                 payload
         ).thenApply(httpResponse -> {
             throwFreeplayIfError(httpResponse, 200);
@@ -498,7 +612,7 @@ public class CallSupport {
 
     public CompletableFuture<PromptDataset> createPromptDataset(String projectId, CreatePromptDatasetRequest request) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets", baseUrl, projectId);
-        return AsyncHttp.postJson(url, freeplayApiKey, httpConfig, request)
+        return http.postJson(url, freeplayApiKey, request)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 201);
                     return JSONUtil.parse(httpResponse.body(), PromptDataset.class);
@@ -507,16 +621,16 @@ public class CallSupport {
 
     public CompletableFuture<PromptDatasetList> listPromptDatasets(String projectId, int page, int pageSize, String idFilter, String nameFilter) {
         String url = buildUrl(String.format("%s/v2/projects/%s/prompt-datasets", baseUrl, projectId), page, pageSize, idFilter, nameFilter);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey, JsonBody.handler(PromptDatasetList.class, 200))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 200);
-                    return JSONUtil.parse(httpResponse.body(), PromptDatasetList.class);
+                    throwFreeplayIfJsonError(httpResponse, 200);
+                    return httpResponse.body().getValue();
                 });
     }
 
     public CompletableFuture<PromptDataset> getPromptDataset(String projectId, String datasetId) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), PromptDataset.class);
@@ -525,7 +639,7 @@ public class CallSupport {
 
     public CompletableFuture<PromptDataset> updatePromptDataset(String projectId, String datasetId, UpdatePromptDatasetRequest request) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.patchJson(url, freeplayApiKey, httpConfig, request)
+        return http.patchJson(url, freeplayApiKey, request)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), PromptDataset.class);
@@ -534,7 +648,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> deletePromptDataset(String projectId, String datasetId) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.delete(url, freeplayApiKey, httpConfig)
+        return http.delete(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -543,16 +657,16 @@ public class CallSupport {
 
     public CompletableFuture<PromptTestCaseList> listPromptTestCases(String projectId, String datasetId, int page, int pageSize) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s/test-cases?page=%d&page_size=%d", baseUrl, projectId, datasetId, page, pageSize);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey, JsonBody.handler(PromptTestCaseList.class, 200))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 200);
-                    return JSONUtil.parse(httpResponse.body(), PromptTestCaseList.class);
+                    throwFreeplayIfJsonError(httpResponse, 200);
+                    return httpResponse.body().getValue();
                 });
     }
 
     public CompletableFuture<PromptTestCase> getPromptTestCase(String projectId, String datasetId, String testCaseId) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s/test-cases/%s", baseUrl, projectId, datasetId, testCaseId);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), PromptTestCase.class);
@@ -576,10 +690,10 @@ public class CallSupport {
                 })
                 .collect(toList());
 
-        return AsyncHttp.postJson(url, freeplayApiKey, httpConfig, new BulkCreatePromptTestCasesDTO(dtos))
+        return http.postJson(url, freeplayApiKey, new BulkCreatePromptTestCasesDTO(dtos), JsonBody.handler(PromptTestCaseList.class, 201))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 201);
-                    return JSONUtil.parse(httpResponse.body(), PromptTestCaseList.class).getData();
+                    throwFreeplayIfJsonError(httpResponse, 201);
+                    return httpResponse.body().getValue().getData();
                 });
     }
 
@@ -595,7 +709,7 @@ public class CallSupport {
         UpdatePromptTestCaseDTO dto = new UpdatePromptTestCaseDTO(
                 request.getInputs(), request.getOutput(), request.getMetadata(), request.getHistory(), mediaInputs
         );
-        return AsyncHttp.patchJson(url, freeplayApiKey, httpConfig, dto)
+        return http.patchJson(url, freeplayApiKey, dto)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), PromptTestCase.class);
@@ -604,7 +718,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> deletePromptTestCase(String projectId, String datasetId, String testCaseId) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s/test-cases/%s", baseUrl, projectId, datasetId, testCaseId);
-        return AsyncHttp.delete(url, freeplayApiKey, httpConfig)
+        return http.delete(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -613,7 +727,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> bulkDeletePromptTestCases(String projectId, String datasetId, List<String> testCaseIds) {
         String url = String.format("%s/v2/projects/%s/prompt-datasets/%s/test-cases/bulk", baseUrl, projectId, datasetId);
-        return AsyncHttp.deleteJson(url, freeplayApiKey, httpConfig, new BulkDeleteDTO(testCaseIds))
+        return http.deleteJson(url, freeplayApiKey, new BulkDeleteDTO(testCaseIds))
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -624,7 +738,7 @@ public class CallSupport {
 
     public CompletableFuture<AgentDataset> createAgentDataset(String projectId, CreateAgentDatasetRequest request) {
         String url = String.format("%s/v2/projects/%s/agent-datasets", baseUrl, projectId);
-        return AsyncHttp.postJson(url, freeplayApiKey, httpConfig, request)
+        return http.postJson(url, freeplayApiKey, request)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 201);
                     return JSONUtil.parse(httpResponse.body(), AgentDataset.class);
@@ -633,16 +747,16 @@ public class CallSupport {
 
     public CompletableFuture<AgentDatasetList> listAgentDatasets(String projectId, int page, int pageSize, String idFilter, String nameFilter) {
         String url = buildUrl(String.format("%s/v2/projects/%s/agent-datasets", baseUrl, projectId), page, pageSize, idFilter, nameFilter);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey, JsonBody.handler(AgentDatasetList.class, 200))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 200);
-                    return JSONUtil.parse(httpResponse.body(), AgentDatasetList.class);
+                    throwFreeplayIfJsonError(httpResponse, 200);
+                    return httpResponse.body().getValue();
                 });
     }
 
     public CompletableFuture<AgentDataset> getAgentDataset(String projectId, String datasetId) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), AgentDataset.class);
@@ -651,7 +765,7 @@ public class CallSupport {
 
     public CompletableFuture<AgentDataset> updateAgentDataset(String projectId, String datasetId, UpdateAgentDatasetRequest request) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.patchJson(url, freeplayApiKey, httpConfig, request)
+        return http.patchJson(url, freeplayApiKey, request)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), AgentDataset.class);
@@ -660,7 +774,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> deleteAgentDataset(String projectId, String datasetId) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s", baseUrl, projectId, datasetId);
-        return AsyncHttp.delete(url, freeplayApiKey, httpConfig)
+        return http.delete(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -669,16 +783,16 @@ public class CallSupport {
 
     public CompletableFuture<AgentTestCaseList> listAgentTestCases(String projectId, String datasetId, int page, int pageSize) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases?page=%d&page_size=%d", baseUrl, projectId, datasetId, page, pageSize);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey, JsonBody.handler(AgentTestCaseList.class, 200))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 200);
-                    return JSONUtil.parse(httpResponse.body(), AgentTestCaseList.class);
+                    throwFreeplayIfJsonError(httpResponse, 200);
+                    return httpResponse.body().getValue();
                 });
     }
 
     public CompletableFuture<AgentTestCase> getAgentTestCase(String projectId, String datasetId, String testCaseId) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases/%s", baseUrl, projectId, datasetId, testCaseId);
-        return AsyncHttp.get(url, freeplayApiKey, httpConfig)
+        return http.get(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), AgentTestCase.class);
@@ -688,16 +802,16 @@ public class CallSupport {
     public CompletableFuture<List<AgentTestCase>> bulkCreateAgentTestCases(String projectId, String datasetId, List<AgentTestCaseInput> testCases) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases/bulk", baseUrl, projectId, datasetId);
         Map<String, Object> body = Map.of("data", testCases);
-        return AsyncHttp.postJson(url, freeplayApiKey, httpConfig, body)
+        return http.postJson(url, freeplayApiKey, body, JsonBody.handler(AgentTestCaseList.class, 201))
                 .thenApply(httpResponse -> {
-                    throwFreeplayIfError(httpResponse, 201);
-                    return JSONUtil.parse(httpResponse.body(), AgentTestCaseList.class).getData();
+                    throwFreeplayIfJsonError(httpResponse, 201);
+                    return httpResponse.body().getValue().getData();
                 });
     }
 
     public CompletableFuture<AgentTestCase> updateAgentTestCase(String projectId, String datasetId, String testCaseId, UpdateAgentTestCaseRequest request) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases/%s", baseUrl, projectId, datasetId, testCaseId);
-        return AsyncHttp.patchJson(url, freeplayApiKey, httpConfig, request)
+        return http.patchJson(url, freeplayApiKey, request)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return JSONUtil.parse(httpResponse.body(), AgentTestCase.class);
@@ -706,7 +820,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> deleteAgentTestCase(String projectId, String datasetId, String testCaseId) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases/%s", baseUrl, projectId, datasetId, testCaseId);
-        return AsyncHttp.delete(url, freeplayApiKey, httpConfig)
+        return http.delete(url, freeplayApiKey)
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -715,7 +829,7 @@ public class CallSupport {
 
     public CompletableFuture<Void> bulkDeleteAgentTestCases(String projectId, String datasetId, List<String> testCaseIds) {
         String url = String.format("%s/v2/projects/%s/agent-datasets/%s/test-cases/bulk", baseUrl, projectId, datasetId);
-        return AsyncHttp.deleteJson(url, freeplayApiKey, httpConfig, new BulkDeleteDTO(testCaseIds))
+        return http.deleteJson(url, freeplayApiKey, new BulkDeleteDTO(testCaseIds))
                 .thenApply(httpResponse -> {
                     throwFreeplayIfError(httpResponse, 200);
                     return null;
@@ -731,6 +845,32 @@ public class CallSupport {
         return url.toString();
     }
 
+    public RetryPolicy.Stats getRetryStats() {
+        return http.getRetryStats();
+    }
+
+    public ConcurrencyLimit.Stats getConcurrencyStats() {
+        return http.getConcurrencyStats();
+    }
+
+    public Map<CircuitBreaker.Endpoint, CircuitBreaker.State> getCircuitStates() {
+        return http.getCircuitStates();
+    }
+
+    @Override
+    public void close() {
+        if (traceBuffer != null) {
+            traceBuffer.close();
+        }
+        if (fireAndForget != null) {
+            fireAndForget.close();
+        }
+        if (spool != null) {
+            spool.close();
+        }
+        http.close();
+    }
+
     @SuppressWarnings("unused")
     private static String historyAsString(List<ChatMessage> allMessages) {
         List<ChatMessage> allButLast = allMessages.subList(0, allMessages.size() - 1);
@@ -0,0 +1,275 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.CircuitBreaker;
+import ai.freeplay.client.CircuitBreaker.Endpoint;
+import ai.freeplay.client.CircuitBreaker.State;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * One circuit per {@link Endpoint}, each tracking the outcomes of its last calls in a fixed-size ring.
+ */
+class CircuitBreakers {
+    private static final System.Logger LOGGER = System.getLogger(CircuitBreakers.class.getName());
+
+    private final CircuitBreaker config;
+    private final Map<Endpoint, Circuit> circuits = new EnumMap<>(Endpoint.class);
+
+    CircuitBreakers(CircuitBreaker config) {
+        this.config = config;
+        for (Endpoint endpoint : Endpoint.values()) {
+            circuits.put(endpoint, new Circuit(endpoint));
+        }
+    }
+
+    Circuit forUri(URI uri) {
+        // The raw path keeps an encoded slash in a name from splitting it into two segments.
+        return circuits.get(endpointFor(uri.getRawPath()));
+    }
+
+    Map<Endpoint, State> getStates() {
+        Map<Endpoint, State> states = new EnumMap<>(Endpoint.class);
+        for (Circuit circuit : circuits.values()) {
+            states.put(circuit.endpoint, circuit.getState());
+        }
+        return Collections.unmodifiableMap(states);
+    }
+
+    /**
+     * Matches the path against the API's path templates, {@code /v2/projects/{project_id}/<resource>/...}, by
+     * segment position, so an ID or template name that happens to look like a resource is not mistaken for one.
+     */
+    static Endpoint endpointFor(String path) {
+        if (path == null) {
+            return Endpoint.OTHER;
+        }
+        String[] segments = path.split("/");
+        for (int i = 0; i + 3 < segments.length; i++) {
+            if (segments[i].equals("v2") && segments[i + 1].equals("projects")) {
+                return endpointFor(segments, i + 3);
+            }
+        }
+        return Endpoint.OTHER;
+    }
+
+    private static Endpoint endpointFor(String[] segments, int resource) {
+        switch (segments[resource]) {
+            case "completion-feedback":
+            case "trace-feedback":
+                return Endpoint.FEEDBACK;
+            case "prompt-templates":
+                return Endpoint.TEMPLATES;
+            case "prompt-datasets":
+            case "agent-datasets":
+                return Endpoint.DATASETS;
+            case "sessions":
+                // sessions/{session_id}/completions and sessions/{session_id}/traces/id/{trace_id}/...
+                if (segments.length > resource + 2 && !segments[resource + 1].equals("id")) {
+                    if (segments[resource + 2].equals("completions")) {
+                        return Endpoint.COMPLETIONS;
+                    }
+                    if (segments[resource + 2].equals("traces")) {
+                        return Endpoint.TRACES;
+                    }
+                }
+                return Endpoint.OTHER;
+            default:
+                return Endpoint.OTHER;
+        }
+    }
+
+    /**
+     * I/O errors, including timeouts, and 5xx responses count against a circuit. Other errors are the caller's.
+     */
+    static boolean isFailure(HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof IOException;
+        }
+        return response.statusCode() >= 500;
+    }
+
+    /**
+     * Permission to make one call. A trial permit belongs to one half-open round, so a late result from an earlier
+     * round cannot close the circuit.
+     */
+    static final class Permit {
+        static final Permit REJECTED = new Permit(false, -1, 0);
+        static final Permit NORMAL = new Permit(false, -1, 0);
+
+        private final boolean trial;
+        private final long round;
+        private final long acquiredAtNanos;
+
+        private Permit(boolean trial, long round, long acquiredAtNanos) {
+            this.trial = trial;
+            this.round = round;
+            this.acquiredAtNanos = acquiredAtNanos;
+        }
+
+        boolean isTrial() {
+            return trial;
+        }
+    }
+
+    class Circuit {
+        private final Endpoint endpoint;
+        private final boolean[] failed;
+        private final boolean[] slow;
+        private int next = 0;
+        private int recorded = 0;
+        private int failures = 0;
+        private int slowCalls = 0;
+        private State state = State.CLOSED;
+        private long openedAtNanos;
+        private final List<Permit> trialsInFlight = new ArrayList<>();
+        private int trialSuccesses = 0;
+        private long halfOpenRound = 0;
+
+        private Circuit(Endpoint endpoint) {
+            this.endpoint = endpoint;
+            this.failed = new boolean[config.getWindowSize()];
+            this.slow = new boolean[config.getWindowSize()];
+        }
+
+        Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        Permit tryAcquire() {
+            State from = null;
+            State to = null;
+            Permit permit = Permit.REJECTED;
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    return Permit.NORMAL;
+                }
+                long now = System.nanoTime();
+                if (state == State.HALF_OPEN && hasOverdueTrial(now)) {
+                    // A trial that never completes would otherwise hold the circuit half-open for good. It has been
+                    // slow either way, so the round fails as it would once the trial finally answered.
+                    from = state;
+                    to = open();
+                } else if (state == State.OPEN && now - openedAtNanos >= config.getOpenDuration().toNanos()) {
+                    state = State.HALF_OPEN;
+                    halfOpenRound++;
+                    trialsInFlight.clear();
+                    trialSuccesses = 0;
+                    from = State.OPEN;
+                    to = state;
+                }
+                if (state == State.HALF_OPEN && trialsInFlight.size() + trialSuccesses < config.getHalfOpenTrials()) {
+                    permit = new Permit(true, halfOpenRound, now);
+                    trialsInFlight.add(permit);
+                }
+            }
+            if (to != null) {
+                notifyListener(from, to);
+            }
+            return permit;
+        }
+
+        private boolean hasOverdueTrial(long now) {
+            for (Permit trial : trialsInFlight) {
+                if (now - trial.acquiredAtNanos >= config.getSlowCallDuration().toNanos()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records the outcome of a call made under {@code permit}. A call that was never sent releases its permit
+         * without affecting the circuit.
+         */
+        void onResult(Permit permit, boolean sent, long latencyNanos, boolean failure) {
+            State from = null;
+            State to = null;
+            synchronized (this) {
+                boolean isSlow = sent && latencyNanos >= config.getSlowCallDuration().toNanos();
+                if (permit.isTrial()) {
+                    if (state != State.HALF_OPEN || permit.round != halfOpenRound) {
+                        return;
+                    }
+                    trialsInFlight.remove(permit);
+                    if (!sent) {
+                        return;
+                    }
+                    if (failure || isSlow) {
+                        from = state;
+                        to = open();
+                    } else if (++trialSuccesses >= config.getHalfOpenTrials()) {
+                        from = state;
+                        to = close();
+                    }
+                } else if (permit == Permit.NORMAL && sent && state == State.CLOSED) {
+                    record(failure, isSlow);
+                    if (recorded >= config.getMinimumCalls()
+                            && (failures >= config.getFailureRateThreshold() * recorded
+                            || slowCalls >= config.getSlowCallRateThreshold() * recorded)) {
+                        from = state;
+                        to = open();
+                    }
+                }
+            }
+            if (to != null) {
+                notifyListener(from, to);
+            }
+        }
+
+        private void record(boolean failure, boolean isSlow) {
+            if (recorded == failed.length) {
+                failures -= failed[next] ? 1 : 0;
+                slowCalls -= slow[next] ? 1 : 0;
+            } else {
+                recorded++;
+            }
+            failed[next] = failure;
+            slow[next] = isSlow;
+            failures += failure ? 1 : 0;
+            slowCalls += isSlow ? 1 : 0;
+            next = (next + 1) % failed.length;
+        }
+
+        private State open() {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            return state;
+        }
+
+        private State close() {
+            state = State.CLOSED;
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+            return state;
+        }
+
+        private void notifyListener(State from, State to) {
+            CircuitBreaker.Listener listener = config.getListener();
+            if (listener == null) {
+                return;
+            }
+            try {
+                listener.onStateChange(endpoint, from, to);
+            } catch (RuntimeException e) {
+                LOGGER.log(WARNING, "Circuit breaker listener failed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.ConcurrencyLimit;
+import ai.freeplay.client.exceptions.FreeplayException;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * AIMD limit on in-flight HTTP calls, shared by every resource of a client through {@link AsyncHttp}. Each completed
+ * call is a latency sample. A call that signals overload, or a short-term latency average that has drifted well above
+ * the long-term one, cuts the limit multiplicatively. A normal call while at least half the limit is in use raises it
+ * by {@code 1 / limit}, i.e. by about one per limit's worth of calls.
+ */
+class ConcurrencyLimiter {
+    private static final double SHORT_SMOOTHING = 0.5;
+    private static final double LONG_SMOOTHING = 0.05;
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final ConcurrencyLimit config;
+    private final Deque<Pending<?>> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight = 0;
+    private double shortLatencyNanos = 0;
+    private double longLatencyNanos = 0;
+    private long samples = 0;
+    private long rejected = 0;
+    private boolean closed = false;
+
+    ConcurrencyLimiter(ConcurrencyLimit config) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * Starts the call now if a permit is free, or queues it. A call started immediately is invoked on the caller's
+     * thread so exceptions it throws propagate as before; a queued call that throws fails the returned future.
+     */
+    <T> CompletableFuture<HttpResponse<T>> submit(String method, Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        Pending<T> pending = new Pending<>(method, call);
+        Pending<?> shed = null;
+        synchronized (this) {
+            if (closed) {
+                throw new FreeplayException(format("Unable to send %s request. The Freeplay client has been closed.", method));
+            }
+            if (inFlight < (int) limit) {
+                inFlight++;
+            } else if (queue.size() < config.getMaxQueued()) {
+                enqueue(pending);
+                return pending.future;
+            } else if (config.getOverflowPolicy() == ConcurrencyLimit.OverflowPolicy.SHED_OLDEST && !queue.isEmpty()) {
+                shed = dequeue();
+                enqueue(pending);
+                rejected++;
+            } else {
+                rejected++;
+                return CompletableFuture.failedFuture(overloaded(method, (int) limit));
+            }
+        }
+        if (shed != null) {
+            shed.future.completeExceptionally(overloaded(shed.method, limit()));
+            return pending.future;
+        }
+
+        CompletableFuture<HttpResponse<T>> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            release(-1, false);
+            throw e;
+        }
+        track(started, pending.future);
+        return pending.future;
+    }
+
+    synchronized ConcurrencyLimit.Stats getStats() {
+        return new ConcurrencyLimit.Stats((int) limit, inFlight, queue.size(), rejected);
+    }
+
+    /**
+     * Fails every queued call. Calls already in flight are left to complete.
+     */
+    void close() {
+        List<Pending<?>> queued;
+        synchronized (this) {
+            closed = true;
+            queued = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                queued.add(dequeue());
+            }
+        }
+        for (Pending<?> pending : queued) {
+            pending.future.completeExceptionally(new FreeplayException(format(
+                    "Unable to send %s request. The Freeplay client has been closed.", pending.method)));
+        }
+    }
+
+    // Called with the lock held. The timer only holds the call until it leaves the queue, when it is cancelled.
+    private void enqueue(Pending<?> pending) {
+        queue.add(pending);
+        pending.expiry.completeOnTimeout(null, config.getMaxQueueWait().toNanos(), TimeUnit.NANOSECONDS)
+                .thenRun(() -> expire(pending));
+    }
+
+    // Called with the lock held.
+    private Pending<?> dequeue() {
+        Pending<?> pending = queue.poll();
+        pending.expiry.cancel(false);
+        return pending;
+    }
+
+    private void expire(Pending<?> pending) {
+        synchronized (this) {
+            if (!queue.remove(pending)) {
+                return;
+            }
+            rejected++;
+        }
+        pending.future.completeExceptionally(new FreeplayException(format(
+                "Unable to send %s request. It waited %s in the concurrency limit queue without getting a permit.",
+                pending.method, config.getMaxQueueWait())));
+    }
+
+    private synchronized int limit() {
+        return (int) limit;
+    }
+
+    private <T> void start(Pending<T> pending) {
+        CompletableFuture<HttpResponse<T>> started;
+        try {
+            started = pending.call.get();
+        } catch (RuntimeException e) {
+            release(-1, false);
+            pending.future.completeExceptionally(e);
+            return;
+        }
+        track(started, pending.future);
+    }
+
+    private <T> void track(CompletableFuture<HttpResponse<T>> started, CompletableFuture<HttpResponse<T>> result) {
+        long startNanos = System.nanoTime();
+        started.whenComplete((response, error) -> {
+            release(System.nanoTime() - startNanos, isOverloaded(response, error));
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            } else {
+                result.complete(response);
+            }
+        });
+    }
+
+    /**
+     * Returns a permit and, if the call was sent, adjusts the limit from its outcome before starting queued calls.
+     */
+    private void release(long latencyNanos, boolean overloaded) {
+        List<Pending<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            if (latencyNanos >= 0) {
+                adjust(latencyNanos, overloaded);
+            }
+            inFlight--;
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                inFlight++;
+                ready.add(dequeue());
+            }
+        }
+        for (Pending<?> pending : ready) {
+            start(pending);
+        }
+    }
+
+    private void adjust(long latencyNanos, boolean overloaded) {
+        if (!overloaded) {
+            shortLatencyNanos = smooth(shortLatencyNanos, latencyNanos, SHORT_SMOOTHING);
+            longLatencyNanos = smooth(longLatencyNanos, latencyNanos, LONG_SMOOTHING);
+            samples++;
+        }
+        boolean slow = samples > WARMUP_SAMPLES && shortLatencyNanos > longLatencyNanos * config.getLatencyTolerance();
+        if (overloaded || slow) {
+            limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+        }
+    }
+
+    private static double smooth(double average, long sample, double weight) {
+        return average == 0 ? sample : average + (sample - average) * weight;
+    }
+
+    private static boolean isOverloaded(HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof IOException;
+        }
+        return response.statusCode() == 429 || response.statusCode() == 503;
+    }
+
+    private static FreeplayException overloaded(String method, int limit) {
+        return new FreeplayException(format(
+                "Unable to send %s request. The concurrency limit (%d in flight) has been reached and the queue is full.",
+                method, limit));
+    }
+
+    private static class Pending<T> {
+        private final String method;
+        private final Supplier<CompletableFuture<HttpResponse<T>>> call;
+        private final CompletableFuture<HttpResponse<T>> future = new CompletableFuture<>();
+        private final CompletableFuture<Void> expiry = new CompletableFuture<>();
+
+        private Pending(String method, Supplier<CompletableFuture<HttpResponse<T>>> call) {
+            this.method = method;
+            this.call = call;
+        }
+    }
+}
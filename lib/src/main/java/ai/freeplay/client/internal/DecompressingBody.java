@@ -0,0 +1,258 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates gzip and deflate response bodies as they arrive, passing the decompressed chunks on to another body
+ * subscriber, e.g. the streaming JSON parser of {@link JsonBody}. The JDK client sends {@code Accept-Encoding} only if
+ * asked to and never decompresses, so this is paired with the header in {@link AsyncHttp}.
+ */
+final class DecompressingBody {
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private DecompressingBody() {
+    }
+
+    static <T> BodyHandler<T> handler(BodyHandler<T> downstream) {
+        return responseInfo -> {
+            String encoding = responseInfo.headers().firstValue("Content-Encoding")
+                    .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                    .orElse("identity");
+            switch (encoding) {
+                case "gzip":
+                case "x-gzip":
+                    return new InflatingSubscriber<>(downstream.apply(responseInfo), true);
+                case "deflate":
+                    return new InflatingSubscriber<>(downstream.apply(responseInfo), false);
+                default:
+                    return downstream.apply(responseInfo);
+            }
+        };
+    }
+
+    private static class InflatingSubscriber<T> implements BodySubscriber<T> {
+        private static final int GZIP_TRAILER_SIZE = 8;
+
+        private final BodySubscriber<T> downstream;
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        // Bytes held back until the gzip header (or the first two bytes of a deflate stream) can be read.
+        private byte[] header = new byte[0];
+        private final byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+        private int trailerSize = 0;
+        private Inflater inflater;
+        private Flow.Subscription subscription;
+        private boolean failed = false;
+
+        private InflatingSubscriber(BodySubscriber<T> downstream, boolean gzip) {
+            this.downstream = downstream;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (failed) {
+                return;
+            }
+            // One downstream onNext per upstream onNext keeps the downstream's demand in step with the upstream.
+            List<ByteBuffer> inflated = new ArrayList<>();
+            try {
+                for (ByteBuffer item : items) {
+                    inflate(item, inflated);
+                }
+            } catch (DataFormatException e) {
+                fail(e);
+                return;
+            }
+            downstream.onNext(inflated);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (failed) {
+                return;
+            }
+            end();
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (failed) {
+                return;
+            }
+            if (inflater == null && header.length == 0) {
+                // An empty body, e.g. a 204, has nothing to inflate.
+                downstream.onComplete();
+            } else if (inflater == null || !inflater.finished()) {
+                fail(new DataFormatException("Unexpected end of compressed stream."));
+            } else if (gzip && !trailerMatches()) {
+                fail(new DataFormatException("Corrupt gzip trailer."));
+            } else {
+                end();
+                downstream.onComplete();
+            }
+        }
+
+        private void inflate(ByteBuffer input, List<ByteBuffer> output) throws DataFormatException {
+            if (inflater == null) {
+                input = readHeader(input);
+                if (input == null) {
+                    return;
+                }
+            }
+            if (inflater.finished()) {
+                readTrailer(input);
+                return;
+            }
+            inflater.setInput(input);
+            while (!inflater.finished() && !inflater.needsInput()) {
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && inflater.needsDictionary()) {
+                    throw new DataFormatException("Compressed stream requires a preset dictionary.");
+                }
+                if (inflated > 0) {
+                    chunk.flip();
+                    crc.update(chunk.duplicate());
+                    output.add(chunk);
+                }
+            }
+            if (inflater.finished()) {
+                readTrailer(input);
+            }
+        }
+
+        /**
+         * Consumes the stream header, returning the rest of the input once the inflater is set up, or null if more
+         * input is needed.
+         */
+        private ByteBuffer readHeader(ByteBuffer input) throws DataFormatException {
+            byte[] buffered = new byte[header.length + input.remaining()];
+            System.arraycopy(header, 0, buffered, 0, header.length);
+            input.get(buffered, header.length, input.remaining());
+            int length = gzip ? gzipHeaderLength(buffered) : deflateHeaderLength(buffered);
+            if (length < 0) {
+                header = buffered;
+                return null;
+            }
+            header = null;
+            if (gzip) {
+                inflater = new Inflater(true);
+            } else {
+                // "deflate" should be zlib-wrapped, but some servers send a raw deflate stream.
+                inflater = new Inflater(!isZlibHeader(buffered));
+            }
+            return ByteBuffer.wrap(buffered, length, buffered.length - length);
+        }
+
+        private void readTrailer(ByteBuffer input) throws DataFormatException {
+            if (!gzip) {
+                return;
+            }
+            int count = Math.min(input.remaining(), GZIP_TRAILER_SIZE - trailerSize);
+            input.get(trailer, trailerSize, count);
+            trailerSize += count;
+            if (input.hasRemaining()) {
+                throw new DataFormatException("Unexpected data after gzip stream.");
+            }
+        }
+
+        private boolean trailerMatches() {
+            if (trailerSize < GZIP_TRAILER_SIZE) {
+                return false;
+            }
+            return littleEndianInt(trailer, 0) == (int) crc.getValue()
+                    && littleEndianInt(trailer, 4) == (int) inflater.getBytesWritten();
+        }
+
+        private void fail(DataFormatException e) {
+            failed = true;
+            subscription.cancel();
+            end();
+            downstream.onError(new FreeplayException("Unable to decompress response body.", e));
+        }
+
+        private void end() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * The length of the gzip header (RFC 1952) at the start of the bytes, or -1 if they do not hold all of it yet.
+     */
+    private static int gzipHeaderLength(byte[] bytes) throws DataFormatException {
+        if (bytes.length < 10) {
+            return -1;
+        }
+        if ((bytes[0] & 0xff) != 0x1f || (bytes[1] & 0xff) != 0x8b || bytes[2] != 8) {
+            throw new DataFormatException("Not in gzip format.");
+        }
+        int flags = bytes[3] & 0xff;
+        int position = 10;
+        if ((flags & 0x04) != 0) {
+            if (bytes.length < position + 2) {
+                return -1;
+            }
+            position += 2 + ((bytes[position] & 0xff) | (bytes[position + 1] & 0xff) << 8);
+        }
+        for (int terminated : new int[]{0x08, 0x10}) {
+            if ((flags & terminated) != 0) {
+                do {
+                    if (position >= bytes.length) {
+                        return -1;
+                    }
+                } while (bytes[position++] != 0);
+            }
+        }
+        if ((flags & 0x02) != 0) {
+            position += 2;
+        }
+        return position <= bytes.length ? position : -1;
+    }
+
+    private static int deflateHeaderLength(byte[] bytes) {
+        // The zlib header is left for the inflater; two bytes are only needed to tell it from a raw stream.
+        return bytes.length < 2 ? -1 : 0;
+    }
+
+    private static boolean isZlibHeader(byte[] bytes) {
+        int cmf = bytes[0] & 0xff;
+        int flg = bytes[1] & 0xff;
+        return (cmf & 0x0f) == 8 && (cmf << 8 | flg) % 31 == 0;
+    }
+
+    private static int littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+                | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16
+                | (bytes[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,251 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.FireAndForget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Hands records from caller threads to one consumer thread through a {@link RingBuffer}. Publishing is a CAS and a
+ * store; the consumer runs each task, which serializes a record and starts sending it.
+ */
+public class FireAndForgetQueue implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(FireAndForgetQueue.class.getName());
+    private static final int SPIN_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final FireAndForget config;
+    private final RingBuffer<Supplier<CompletableFuture<?>>> buffer;
+    private final Thread consumer;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final Queue<Flush> flushes = new ConcurrentLinkedQueue<>();
+    private volatile boolean parked = false;
+    private volatile boolean running = true;
+    private volatile boolean closed = false;
+    // Set by the consumer when it exits. Tasks published after that are drained by their publisher.
+    private volatile boolean stopped = false;
+    private volatile boolean dropRemaining = false;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Tasks taken off the buffer, by the consumer or dropped as oldest.
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public FireAndForgetQueue(FireAndForget config) {
+        this.config = config;
+        this.buffer = new RingBuffer<>(config.getCapacity());
+        this.consumer = new Thread(this::consume, "freeplay-fire-and-forget");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Publishes a task for the consumer thread. Returns false if it was dropped because the buffer is full or closed.
+     */
+    public boolean publish(Supplier<CompletableFuture<?>> task) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (!buffer.offer(task) && !publishOnOverflow(task)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        published.incrementAndGet();
+        if (parked) {
+            LockSupport.unpark(consumer);
+        }
+        if (stopped) {
+            // Published while the queue was closing, after the consumer's last look at the buffer.
+            drainRemaining();
+        }
+        return true;
+    }
+
+    /**
+     * Completes once every task published before this call has run and its send has completed.
+     */
+    public CompletableFuture<Void> flush() {
+        Flush flush = new Flush(published.get());
+        flushes.add(flush);
+        LockSupport.unpark(consumer);
+        return flush.future;
+    }
+
+    public FireAndForget.Stats getStats() {
+        return new FireAndForget.Stats(published.get(), dropped.get(), sent.get(), failed.get(), buffer.size());
+    }
+
+    /**
+     * Stops accepting tasks and waits up to the close timeout for buffered ones to be sent. Tasks still buffered when
+     * it times out are counted as dropped.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush().get(config.getCloseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.log(WARNING, "Timed out sending {0} buffered records on close.", buffer.size() + inFlight.size());
+            dropRemaining = true;
+        } finally {
+            running = false;
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean publishOnOverflow(Supplier<CompletableFuture<?>> task) {
+        switch (config.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                while (!buffer.offer(task)) {
+                    if (buffer.poll() != null) {
+                        taken.incrementAndGet();
+                        dropped.incrementAndGet();
+                    }
+                }
+                return true;
+            case BLOCK:
+                long deadline = System.nanoTime() + config.getBlockTimeout().toNanos();
+                while (!buffer.offer(task)) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void consume() {
+        int idle = 0;
+        while (running) {
+            Supplier<CompletableFuture<?>> task = buffer.poll();
+            if (task != null) {
+                idle = 0;
+                taken.incrementAndGet();
+                run(task);
+                continue;
+            }
+            completeFlushes();
+            idle = await(idle);
+        }
+        stopped = true;
+        drainRemaining();
+    }
+
+    /**
+     * Runs the tasks left once the consumer has stopped: those published between the closing flush and the consumer
+     * exiting, or by publishers that passed the closed check just before close.
+     */
+    private void drainRemaining() {
+        Supplier<CompletableFuture<?>> task;
+        while ((task = buffer.poll()) != null) {
+            taken.incrementAndGet();
+            if (dropRemaining) {
+                dropped.incrementAndGet();
+            } else {
+                run(task);
+            }
+        }
+    }
+
+    private void run(Supplier<CompletableFuture<?>> task) {
+        CompletableFuture<?> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            LOGGER.log(WARNING, "Unable to send record.", e);
+            return;
+        }
+        inFlight.add(future);
+        future.whenComplete((result, error) -> {
+            inFlight.remove(future);
+            if (error != null) {
+                failed.incrementAndGet();
+                LOGGER.log(WARNING, "Unable to send record.", error);
+            } else {
+                sent.incrementAndGet();
+            }
+        });
+    }
+
+    private void completeFlushes() {
+        Flush flush;
+        while ((flush = flushes.peek()) != null && taken.get() >= flush.target) {
+            flushes.poll();
+            List<CompletableFuture<?>> pending = new ArrayList<>(inFlight);
+            CompletableFuture<Void> future = flush.future;
+            CompletableFuture
+                    .allOf(pending.stream()
+                            .map(sending -> sending.handle((result, error) -> null))
+                            .toArray(CompletableFuture[]::new))
+                    .whenComplete((result, error) -> future.complete(null));
+        }
+    }
+
+    private int await(int idle) {
+        switch (config.getWaitStrategy()) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                return idle;
+            case YIELDING:
+                if (idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                return idle + 1;
+            case SLEEPING:
+                if (idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (idle < 2 * SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, SLEEP_NANOS);
+                }
+                return idle + 1;
+            default:
+                // Publishers unpark the consumer if they see it parked; rechecking after setting the flag means a
+                // task published just before it was set is not missed.
+                parked = true;
+                if (buffer.isEmpty() && flushes.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+                return idle;
+        }
+    }
+
+    private static class Flush {
+        private final long target;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Flush(long target) {
+            this.target = target;
+        }
+    }
+}
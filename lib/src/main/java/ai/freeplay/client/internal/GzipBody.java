@@ -0,0 +1,103 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips a JSON request body. The string is encoded to UTF-8 and deflated a buffer at a time, and the compressed
+ * output is sent from the chunks it was written to, so neither the encoded nor the compressed body is held as one
+ * contiguous copy.
+ */
+public final class GzipBody {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private GzipBody() {
+    }
+
+    /**
+     * The gzipped body, as the buffers it was written to.
+     */
+    public static List<ByteBuffer> compress(String json) {
+        ChunkedOutputStream chunks = new ChunkedOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(chunks, BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            writer.write(json);
+        } catch (IOException e) {
+            throw new FreeplayException("Error compressing request body.", e);
+        }
+        return chunks.buffers();
+    }
+
+    /**
+     * The gzipped body, for JSON that has already been written to UTF-8 bytes.
+     */
+    public static List<ByteBuffer> compress(byte[] json) {
+        ChunkedOutputStream chunks = new ChunkedOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(chunks, BUFFER_SIZE)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new FreeplayException("Error compressing request body.", e);
+        }
+        return chunks.buffers();
+    }
+
+    private static class ChunkedOutputStream extends OutputStream {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private byte[] current = new byte[CHUNK_SIZE];
+        private int position = 0;
+
+        @Override
+        public void write(int b) {
+            if (position == current.length) {
+                nextChunk();
+            }
+            current[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) {
+            while (count > 0) {
+                if (position == current.length) {
+                    nextChunk();
+                }
+                int written = Math.min(count, current.length - position);
+                System.arraycopy(bytes, offset, current, position, written);
+                position += written;
+                offset += written;
+                count -= written;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (position > 0) {
+                chunks.add(position == current.length ? current : Arrays.copyOf(current, position));
+            }
+            current = null;
+        }
+
+        private List<ByteBuffer> buffers() {
+            List<ByteBuffer> buffers = new ArrayList<>(chunks.size());
+            for (byte[] chunk : chunks) {
+                buffers.add(ByteBuffer.wrap(chunk));
+            }
+            return buffers;
+        }
+
+        private void nextChunk() {
+            chunks.add(current);
+            current = new byte[CHUNK_SIZE];
+            position = 0;
+        }
+    }
+}
@@ -2,9 +2,11 @@ package ai.freeplay.client.internal;
 
 import ai.freeplay.client.HttpConfig;
 import ai.freeplay.client.exceptions.*;
+import ai.freeplay.client.transport.JdkHttpTransport;
 import com.fasterxml.jackson.jr.ob.JSON;
 
 import java.io.IOException;
+import java.lang.ref.Cleaner;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
@@ -16,11 +18,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 
 import static java.lang.String.format;
 
 public class Http {
+    // Transports are reused for as long as the HttpConfig they were built from is reachable, and closed with their
+    // executor once it is not.
+    private static final Map<HttpConfig, JdkHttpTransport> transports = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Cleaner cleaner = Cleaner.create();
 
     public static HttpResponse<String> postWithBearer(String url, String apiKey, HttpConfig httpConfig) throws FreeplayException {
         return postJsonWithBearer(url, null, apiKey, BodyHandlers.ofString(), httpConfig);
@@ -129,16 +136,7 @@ public class Http {
                 requestBuilder.timeout(httpConfig.getRequestTimeout());
             }
 
-            HttpClient.Builder clientBuilder = HttpClient.newBuilder();
-            if (httpConfig.getExecutor() != null) {
-                clientBuilder.executor(httpConfig.getExecutor());
-            }
-            if (httpConfig.getProxySelector() != null) {
-                clientBuilder.proxy(httpConfig.getProxySelector());
-            }
-            return clientBuilder
-                    .build()
-                    .send(requestBuilder.build(), responseBodyHandler);
+            return clientFor(httpConfig).send(requestBuilder.build(), responseBodyHandler);
         } catch (Exception e) {
             throw new FreeplayException("Error sending POST request.", e);
         }
@@ -163,21 +161,20 @@ public class Http {
         }
 
         try {
-            HttpClient.Builder clientBuilder = HttpClient.newBuilder();
-            if (httpConfig.getExecutor() != null) {
-                clientBuilder.executor(httpConfig.getExecutor());
-            }
-            if (httpConfig.getProxySelector() != null) {
-                clientBuilder.proxy(httpConfig.getProxySelector());
-            }
-            return clientBuilder
-                    .build()
-                    .send(requestBuilder.build(), BodyHandlers.ofString());
+            return clientFor(httpConfig).send(requestBuilder.build(), BodyHandlers.ofString());
         } catch (Exception e) {
             throw new FreeplayException("Error sending GET request.", e);
         }
     }
 
+    private static HttpClient clientFor(HttpConfig httpConfig) {
+        return transports.computeIfAbsent(httpConfig, config -> {
+            JdkHttpTransport transport = new JdkHttpTransport(config);
+            cleaner.register(config, transport::close);
+            return transport;
+        }).getClient();
+    }
+
     public static Map<String, Object> parseBody(HttpResponse<String> response) throws FreeplayException {
         try {
             return JSON.std.mapFrom(response.body());
@@ -193,6 +190,17 @@ public class Http {
         throwIfError(response, expectedStatus, FreeplayClientException::new, FreeplayServerException::new);
     }
 
+    /**
+     * Like {@link #throwFreeplayIfError(HttpResponse, int)} for a body bound with {@link JsonBody#handler}.
+     */
+    public static void throwFreeplayIfJsonError(
+            HttpResponse<? extends JsonBody<?>> response,
+            int expectedStatus
+    ) throws FreeplayException {
+        throwIfError(response.statusCode(), response.body().getText(), expectedStatus,
+                FreeplayClientException::new, FreeplayServerException::new);
+    }
+
     public static void throwLLMIfError(
             HttpResponse<String> response,
             int expectedStatus
@@ -206,17 +214,27 @@ public class Http {
             Function<String, ? extends FreeplayException> clientExceptionCreator,
             Function<String, ? extends FreeplayException> serverExceptionCreator
     ) throws FreeplayException {
-        if (response.statusCode() != expectedStatus) {
-            String message = format("Error making call [%s]", response.statusCode());
+        throwIfError(response.statusCode(), response.body(), expectedStatus, clientExceptionCreator, serverExceptionCreator);
+    }
+
+    private static void throwIfError(
+            int statusCode,
+            String body,
+            int expectedStatus,
+            Function<String, ? extends FreeplayException> clientExceptionCreator,
+            Function<String, ? extends FreeplayException> serverExceptionCreator
+    ) throws FreeplayException {
+        if (statusCode != expectedStatus) {
+            String message = format("Error making call [%s]", statusCode);
             try {
-                Map<String, Object> bodyMap = Http.parseBody(response);
+                Map<String, Object> bodyMap = JSON.std.mapFrom(body);
                 if (bodyMap.get("message") != null) {
                     message += bodyMap.get("message").toString();
                 }
             } catch (Exception ignore) {
             }
 
-            if (response.statusCode() >= 500) {
+            if (statusCode >= 500) {
                 throw serverExceptionCreator.apply(message);
             } else {
                 throw clientExceptionCreator.apply(message);
@@ -18,6 +18,10 @@ public class JSONUtil {
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
             .enable(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION);
 
+    static ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
     public static Map<String, Object> parseMap(String json) {
         try {
             return JSON.std
@@ -70,6 +74,14 @@ public class JSONUtil {
         }
     }
 
+    public static byte[] toBytes(Object thing) {
+        try {
+            return objectMapper.writeValueAsBytes(thing);
+        } catch (JsonProcessingException e) {
+            throw new FreeplayException("Unable to write JSON.", e);
+        }
+    }
+
     public static Map<String, Object> nodeToMap(JsonNode paramsNode) {
         return objectMapper.convertValue(paramsNode, new TypeReference<>() {
         });
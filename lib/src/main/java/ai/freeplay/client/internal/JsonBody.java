@@ -0,0 +1,140 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * A response body bound to a DTO as it arrives, for endpoints that can return large lists. Chunks are fed to
+ * Jackson's non-blocking parser as they are received, so the body is never held as a {@code String} or a tree and
+ * no HttpClient thread blocks waiting for input.
+ * <p>
+ * A response with an unexpected status is buffered as a string instead so error messages can include it.
+ */
+public class JsonBody<T> {
+    private final T value;
+    private final String text;
+
+    private JsonBody(T value, String text) {
+        this.value = value;
+        this.text = text;
+    }
+
+    public static <T> BodyHandler<JsonBody<T>> handler(Class<T> type, int expectedStatus) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() != expectedStatus) {
+                return BodySubscribers.mapping(
+                        BodyHandlers.ofString().apply(responseInfo),
+                        text -> new JsonBody<>(null, text)
+                );
+            }
+            return new StreamingSubscriber<>(type);
+        };
+    }
+
+    /**
+     * The bound DTO, or null if the response had an unexpected status.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * The raw body of a response with an unexpected status, or null if it was bound.
+     */
+    public String getText() {
+        return text;
+    }
+
+    private static class StreamingSubscriber<T> implements BodySubscriber<JsonBody<T>> {
+        private final Class<T> type;
+        private final ObjectMapper objectMapper;
+        private final JsonParser parser;
+        private final TokenBuffer tokens;
+        private final CompletableFuture<JsonBody<T>> body = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        private StreamingSubscriber(Class<T> type) {
+            this.type = type;
+            this.objectMapper = JSONUtil.objectMapper();
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new FreeplayException("Unable to parse JSON.", e);
+            }
+            this.tokens = new TokenBuffer(parser);
+        }
+
+        @Override
+        public CompletionStage<JsonBody<T>> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+                for (ByteBuffer item : items) {
+                    feeder.feedInput(item);
+                    copyAvailableTokens();
+                }
+            } catch (IOException | RuntimeException e) {
+                subscription.cancel();
+                body.completeExceptionally(new FreeplayException("Unable to parse JSON.", e));
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                copyAvailableTokens();
+                try (JsonParser buffered = tokens.asParser(objectMapper)) {
+                    body.complete(new JsonBody<>(objectMapper.readValue(buffered, type), null));
+                }
+            } catch (IOException | RuntimeException e) {
+                body.completeExceptionally(new FreeplayException("Unable to parse JSON.", e));
+            }
+        }
+
+        private void copyAvailableTokens() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                tokens.copyCurrentEvent(parser);
+            }
+        }
+    }
+}
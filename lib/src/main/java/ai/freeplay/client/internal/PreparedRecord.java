@@ -0,0 +1,38 @@
+package ai.freeplay.client.internal;
+
+/**
+ * A completion record that has been validated and serialized, ready to be sent.
+ */
+public class PreparedRecord {
+    private final String url;
+    private final byte[] body;
+    private final String completionId;
+
+    public PreparedRecord(String url, byte[] body, String completionId) {
+        this.url = url;
+        this.body = body;
+        this.completionId = completionId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * The UTF-8 JSON body. It is not copied, so it must not be modified.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * The completion ID supplied by the caller, if any.
+     */
+    public String getCompletionId() {
+        return completionId;
+    }
+
+    public int sizeInBytes() {
+        return body.length;
+    }
+}
@@ -0,0 +1,196 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.internal.dto.RecordDTO.CallInfoDTO.ApiStyleDTO;
+import ai.freeplay.client.media.MediaInput;
+import ai.freeplay.client.media.MediaInputBase64;
+import ai.freeplay.client.media.MediaInputUrl;
+import ai.freeplay.client.resources.prompts.PromptVersionInfo;
+import ai.freeplay.client.resources.recordings.CallInfo;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.ResponseInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes a {@link RecordPayload} as the completion record JSON ({@link ai.freeplay.client.internal.dto.RecordDTO}'s
+ * shape) straight to UTF-8 bytes. The payload is walked with a {@link JsonGenerator} writing into Jackson's pooled
+ * buffers, instead of being copied into DTOs, serialized to a {@code String}, and encoded again when sent. Base64 media
+ * is written from its bytes without being decoded into a {@code String}.
+ */
+final class RecordWriter {
+    private RecordWriter() {
+    }
+
+    static byte[] toBytes(RecordPayload payload, String testRunId, String testCaseId) {
+        try {
+            return JSONUtil.objectMapper().writeValueAsBytes(new Body(payload, testRunId, testCaseId));
+        } catch (JsonProcessingException e) {
+            throw new FreeplayException("Unable to write JSON.", e);
+        }
+    }
+
+    private static class Body extends JsonSerializable.Base {
+        private final RecordPayload payload;
+        private final String testRunId;
+        private final String testCaseId;
+
+        private Body(RecordPayload payload, String testRunId, String testCaseId) {
+            this.payload = payload;
+            this.testRunId = testRunId;
+            this.testCaseId = testCaseId;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            provider.defaultSerializeField("messages", payload.getAllMessages(), generator);
+            provider.defaultSerializeField("inputs", payload.getInputs(), generator);
+
+            generator.writeObjectFieldStart("session_info");
+            generator.writeStringField("session_id", payload.getSessionInfo().getSessionId());
+            provider.defaultSerializeField("custom_metadata", payload.getSessionInfo().getCustomMetadata(), generator);
+            generator.writeEndObject();
+
+            generator.writeFieldName("prompt_info");
+            writePromptInfo(generator, payload.getPromptVersionInfo(), payload.getProjectId());
+            generator.writeFieldName("call_info");
+            writeCallInfo(generator, provider, payload.getCallInfo());
+            generator.writeFieldName("response_info");
+            writeResponseInfo(generator, payload.getResponseInfo());
+
+            generator.writeFieldName("test_run_info");
+            if (testRunId != null) {
+                generator.writeStartObject();
+                generator.writeStringField("test_run_id", testRunId);
+                generator.writeStringField("test_case_id", testCaseId);
+                generator.writeEndObject();
+            } else {
+                generator.writeNull();
+            }
+
+            provider.defaultSerializeField("eval_results", payload.getEvalResults(), generator);
+            generator.writeNullField("trace_info");
+            writeStringOrNull(generator, "parent_id", payload.getParentId());
+            provider.defaultSerializeField("tool_schema", payload.getToolSchema(), generator);
+            provider.defaultSerializeField("output_schema", payload.getOutputSchema(), generator);
+            writeStringOrNull(generator, "completion_id", payload.getCompletionId());
+
+            generator.writeObjectFieldStart("media_inputs");
+            if (payload.getMediaInputCollection() != null) {
+                for (Map.Entry<String, MediaInput> entry : payload.getMediaInputCollection().entries()) {
+                    generator.writeFieldName(entry.getKey());
+                    writeMediaInput(generator, entry.getValue());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(
+                JsonGenerator generator,
+                SerializerProvider provider,
+                TypeSerializer typeSerializer
+        ) throws IOException {
+            serialize(generator, provider);
+        }
+    }
+
+    private static void writePromptInfo(
+            JsonGenerator generator,
+            PromptVersionInfo promptVersionInfo,
+            String projectId
+    ) throws IOException {
+        if (promptVersionInfo == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("prompt_template_version_id", promptVersionInfo.getPromptTemplateVersionId());
+        generator.writeStringField("environment", promptVersionInfo.getEnvironment());
+        generator.writeStringField("project_id", projectId);
+        generator.writeEndObject();
+    }
+
+    private static void writeCallInfo(JsonGenerator generator, SerializerProvider provider, CallInfo callInfo) throws IOException {
+        if (callInfo == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("provider", callInfo.getProvider());
+        generator.writeStringField("model", callInfo.getModel());
+        generator.writeNumberField("start_time", callInfo.getStartTime());
+        generator.writeNumberField("end_time", callInfo.getEndTime());
+        provider.defaultSerializeField("model_parameters", callInfo.getModelParameters(), generator);
+        provider.defaultSerializeField("provider_info", callInfo.getProviderInfo(), generator);
+        generator.writeFieldName("usage");
+        if (callInfo.getUsage() != null) {
+            generator.writeStartObject();
+            provider.defaultSerializeField("completion_tokens", callInfo.getUsage().getCompletionTokens(), generator);
+            provider.defaultSerializeField("prompt_tokens", callInfo.getUsage().getPromptTokens(), generator);
+            generator.writeEndObject();
+        } else {
+            generator.writeNull();
+        }
+        if (callInfo.getApiStyle() != null) {
+            generator.writeStringField("api_style", ApiStyleDTO.valueOf(callInfo.getApiStyle().toString()).getValue());
+        } else {
+            generator.writeNullField("api_style");
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeResponseInfo(JsonGenerator generator, ResponseInfo responseInfo) throws IOException {
+        if (responseInfo == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeBooleanField("is_complete", responseInfo.isComplete());
+        generator.writeFieldName("function_call");
+        if (responseInfo.getFunctionCall() != null) {
+            generator.writeStartObject();
+            generator.writeStringField("name", responseInfo.getFunctionCall().getName());
+            generator.writeStringField("arguments", responseInfo.getFunctionCall().getArguments());
+            generator.writeEndObject();
+        } else {
+            generator.writeNull();
+        }
+        generator.writeNumberField("prompt_tokens", responseInfo.getPromptTokens());
+        generator.writeNumberField("response_tokens", responseInfo.getResponseTokens());
+        generator.writeEndObject();
+    }
+
+    private static void writeMediaInput(JsonGenerator generator, MediaInput input) throws IOException {
+        generator.writeStartObject();
+        if (input instanceof MediaInputUrl) {
+            generator.writeStringField("url", ((MediaInputUrl) input).getUrl());
+            generator.writeStringField("type", "url");
+        } else {
+            MediaInputBase64 base64 = (MediaInputBase64) input;
+            generator.writeFieldName("data");
+            generator.writeUTF8String(base64.getData(), 0, base64.getData().length);
+            if (base64.getContentType() != null) {
+                generator.writeStringField("content_type", base64.getContentType());
+            }
+            generator.writeStringField("type", "base64");
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStringOrNull(JsonGenerator generator, String field, Object value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value.toString());
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+}
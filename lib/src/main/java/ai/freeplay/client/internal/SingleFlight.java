@@ -0,0 +1,143 @@
+package ai.freeplay.client.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight call between concurrent callers asking for the same key. Nothing is cached: the key is
+ * forgotten as soon as the call completes, so a later caller starts a new call.
+ * <p>
+ * Every caller gets its own future, completed with the shared result or failed with the shared error. Cancelling a
+ * caller's future detaches only that caller; the shared call is cancelled once every caller has cancelled.
+ */
+class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Joins the in-flight call for the key, or starts one. A call that fails to start throws to the caller that
+     * started it, as the call itself would have.
+     */
+    CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight == null) {
+                Flight created = new Flight(key);
+                flight = flights.putIfAbsent(key, created);
+                if (flight == null) {
+                    CompletableFuture<V> waiter = created.join();
+                    created.start(call);
+                    return waiter;
+                }
+            }
+            CompletableFuture<V> waiter = flight.join();
+            if (waiter != null) {
+                coalesced.incrementAndGet();
+                return waiter;
+            }
+            // The flight finished between the lookup and the join; start or join a newer one.
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Calls that joined an existing flight instead of starting their own.
+     */
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    int getInFlight() {
+        return flights.size();
+    }
+
+    private class Flight {
+        private final K key;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private CompletableFuture<V> source;
+        private int waiters = 0;
+        private boolean closed = false;
+
+        private Flight(K key) {
+            this.key = key;
+        }
+
+        /**
+         * A new caller's future, or null if the flight no longer accepts callers.
+         */
+        private synchronized CompletableFuture<V> join() {
+            if (closed) {
+                return null;
+            }
+            waiters++;
+            CompletableFuture<V> waiter = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    waiter.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error);
+                } else {
+                    waiter.complete(value);
+                }
+            });
+            waiter.whenComplete((value, error) -> {
+                if (waiter.isCancelled()) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        private void start(Supplier<CompletableFuture<V>> call) {
+            CompletableFuture<V> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                // Callers that already joined see the same error; the caller that started the flight gets the throw.
+                finish(null, e);
+                throw e;
+            }
+            boolean abandoned;
+            synchronized (this) {
+                source = started;
+                abandoned = closed;
+            }
+            if (abandoned) {
+                started.cancel(true);
+                return;
+            }
+            started.whenComplete(this::finish);
+        }
+
+        private void finish(V value, Throwable error) {
+            synchronized (this) {
+                closed = true;
+            }
+            flights.remove(key, this);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        }
+
+        private void leave() {
+            CompletableFuture<V> abandoned;
+            synchronized (this) {
+                if (--waiters > 0 || closed) {
+                    return;
+                }
+                closed = true;
+                abandoned = source;
+            }
+            flights.remove(key, this);
+            if (abandoned != null) {
+                abandoned.cancel(true);
+            }
+        }
+    }
+}
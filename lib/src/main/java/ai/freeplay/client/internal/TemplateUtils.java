@@ -7,6 +7,7 @@ import com.github.mustachejava.Code;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Iteration;
 import com.github.mustachejava.Mustache;
+import com.github.mustachejava.codes.PartialCode;
 import com.github.mustachejava.reflect.ReflectionObjectHandler;
 import com.github.mustachejava.util.Node;
 
@@ -17,34 +18,82 @@ import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class TemplateUtils {
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+
+    // The factory, object handler and compiled templates are all safe to share across threads.
+    private static final DefaultMustacheFactory MUSTACHE_FACTORY = new NoEscapeMustacheFactory();
+    private static final Map<String, Mustache> COMPILED_TEMPLATES = new ConcurrentHashMap<>();
+
+    static {
+        MUSTACHE_FACTORY.setObjectHandler(new JSONObjectSerializingObjectHandler());
+    }
 
     public static String format(String template, Map<String, Object> variables) {
         validateVariables(variables);
+        return render(compile(template), variables);
+    }
 
-        DefaultMustacheFactory mf = new NoEscapeMustacheFactory();
-        mf.setObjectHandler(new JSONObjectSerializingObjectHandler());
+    /**
+     * Renders a template returned by {@link #compile(String)}. Unlike {@link #format(String, Map)} this does not
+     * validate the variables, so callers rendering several templates can call {@link #validateVariables(Map)} once.
+     */
+    public static String render(Mustache mustache, Map<String, Object> variables) {
+        StringWriter writer = new StringWriter();
 
-        Mustache mustache;
+        mustache.execute(writer, variables);
+        writer.flush();
+        return writer.toString();
+    }
+
+    public static Mustache compile(String template) {
+        Mustache mustache = COMPILED_TEMPLATES.get(template);
+        if (mustache != null) {
+            return mustache;
+        }
         try {
-            mustache = mf.compile(new StringReader(template), "<template-name>");
+            mustache = MUSTACHE_FACTORY.compile(new StringReader(template), "<template-name>");
         } catch (Exception e) {
             throw new FreeplayClientException("Unable to format template.", e);
         }
+        if (COMPILED_TEMPLATES.size() >= MAX_CACHED_TEMPLATES) {
+            // Bounded without an LRU: evict an arbitrary entry. Prompt templates are a small, stable set in practice.
+            Iterator<String> keys = COMPILED_TEMPLATES.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        Mustache existing = COMPILED_TEMPLATES.putIfAbsent(template, mustache);
+        return existing != null ? existing : mustache;
+    }
 
-        StringWriter writer = new StringWriter();
-
-        mustache.execute(writer, variables);
-        writer.flush();
-        return writer.toString();
+    /**
+     * The top-level variable and section names a compiled template reads. Names used inside a section are left out
+     * since they may resolve against the section's items rather than the variables.
+     */
+    public static Set<String> variableNames(Mustache mustache) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Code code : mustache.getCodes()) {
+            String name = code.getName();
+            if (code instanceof PartialCode || name == null || name.isEmpty() || name.equals(".")) {
+                continue;
+            }
+            int dot = name.indexOf('.');
+            names.add(dot > 0 ? name.substring(0, dot) : name);
+        }
+        return names;
     }
 
-    private static void validateVariables(Map<String, Object> variables) {
+    public static void validateVariables(Map<String, Object> variables) {
         for (Map.Entry<String, Object> entry : variables.entrySet()) {
             validateValue(entry.getValue());
         }
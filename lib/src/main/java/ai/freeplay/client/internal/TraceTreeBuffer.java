@@ -0,0 +1,288 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.TraceBuffering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Buffers spans per session until the root of their tree completes. Each session remembers the parent of every span
+ * in a tree that has not completed, so the spans to send with a root are found by walking up from each buffered span.
+ * Once a root completes, its tree's links are replaced by a bounded set of completed span IDs, so a span whose
+ * ancestors lead to a completed tree is sent straight away. Both are capped per session, and a session's state is
+ * dropped once it has had no buffered spans for {@link TraceBuffering#getFlushTimeout()}.
+ */
+public class TraceTreeBuffer implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(TraceTreeBuffer.class.getName());
+    // Guards against parent cycles, which the API would reject anyway.
+    private static final int MAX_DEPTH = 1000;
+    // Spans of completed trees remembered per session, for spans recorded after their root.
+    private static final int MAX_COMPLETED_SPANS = 1024;
+
+    private final TraceBuffering config;
+    private final Map<String, SessionSpans> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed = false;
+
+    private final AtomicLong treesCompleted = new AtomicLong();
+    private final AtomicLong partialFlushes = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public TraceTreeBuffer(TraceBuffering config) {
+        this.config = config;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "freeplay-trace-buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(10, config.getFlushTimeout().toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::flushExpired, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers a span until the root of its tree completes and returns true, or returns false if the caller should
+     * send it now: it is a root, its root has already completed, or the buffer is full or closed. When it is sent
+     * now, its buffered descendants have been sent before this returns.
+     */
+    public boolean offer(String sessionId, UUID spanId, UUID parentId, Supplier<CompletableFuture<?>> send) {
+        List<Span> descendants;
+        while (true) {
+            SessionSpans session = sessions.computeIfAbsent(sessionId,
+                    key -> new SessionSpans(config.getMaxBufferedSpans()));
+            synchronized (session) {
+                if (session.removed) {
+                    continue;
+                }
+                long now = System.nanoTime();
+                session.lastActivityNanos = now;
+                if (parentId != null && !session.isCompleted(parentId)) {
+                    session.parents.put(spanId, parentId);
+                    if (closed) {
+                        return false;
+                    }
+                    if (buffered.incrementAndGet() > config.getMaxBufferedSpans()) {
+                        buffered.decrementAndGet();
+                        return false;
+                    }
+                    session.buffered.add(new Span(send, spanId, now));
+                    return true;
+                }
+                descendants = session.complete(spanId);
+            }
+            break;
+        }
+        if (!descendants.isEmpty()) {
+            if (parentId == null) {
+                treesCompleted.incrementAndGet();
+            }
+            send(descendants);
+        }
+        return false;
+    }
+
+    /**
+     * Sends every buffered span without waiting for its root, and completes once they and earlier flushed spans have
+     * been sent.
+     */
+    public CompletableFuture<Void> flush() {
+        for (SessionSpans session : sessions.values()) {
+            List<Span> spans;
+            synchronized (session) {
+                spans = session.takeAll();
+            }
+            if (!spans.isEmpty()) {
+                partialFlushes.incrementAndGet();
+                send(spans);
+            }
+        }
+        return CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]));
+    }
+
+    public TraceBuffering.Stats getStats() {
+        return new TraceBuffering.Stats(
+                buffered.get(),
+                treesCompleted.get(),
+                partialFlushes.get(),
+                sent.get(),
+                failed.get()
+        );
+    }
+
+    /**
+     * Sends the buffered spans and waits up to {@link TraceBuffering#getCloseTimeout()} for them.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdownNow();
+        try {
+            flush().get(config.getCloseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.log(WARNING, "Buffered trace spans were not all sent before closing.", e);
+        }
+    }
+
+    private void flushExpired() {
+        try {
+            long now = System.nanoTime();
+            long timeoutNanos = config.getFlushTimeout().toNanos();
+            for (Map.Entry<String, SessionSpans> entry : sessions.entrySet()) {
+                SessionSpans session = entry.getValue();
+                List<Span> spans;
+                synchronized (session) {
+                    if (session.buffered.isEmpty()) {
+                        if (now - session.lastActivityNanos >= timeoutNanos) {
+                            session.removed = true;
+                            sessions.remove(entry.getKey(), session);
+                        }
+                        continue;
+                    }
+                    if (now - session.buffered.get(0).bufferedAtNanos < timeoutNanos) {
+                        continue;
+                    }
+                    spans = session.takeAll();
+                }
+                partialFlushes.incrementAndGet();
+                send(spans);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(WARNING, "Unexpected error flushing buffered trace spans.", e);
+        }
+    }
+
+    private void send(List<Span> spans) {
+        buffered.addAndGet(-spans.size());
+        for (Span span : spans) {
+            CompletableFuture<?> sending;
+            try {
+                sending = span.send.get();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                LOGGER.log(WARNING, "Unable to send a buffered trace span.", e);
+                continue;
+            }
+            CompletableFuture<Void> done = sending.handle((response, error) -> {
+                if (error != null) {
+                    failed.incrementAndGet();
+                    LOGGER.log(WARNING, "Unable to send a buffered trace span.", error);
+                } else {
+                    sent.incrementAndGet();
+                }
+                return null;
+            });
+            inFlight.add(done);
+            done.thenRun(() -> inFlight.remove(done));
+        }
+    }
+
+    private static class SessionSpans {
+        // Span ID to parent ID for spans whose tree has not completed. The oldest links are dropped past the cap; a
+        // span that loses its path to the root is sent when it times out instead.
+        private final Map<UUID, UUID> parents;
+        // Spans whose tree's root has completed, oldest dropped first.
+        private final Set<UUID> completed = Collections.newSetFromMap(new LinkedHashMap<UUID, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > MAX_COMPLETED_SPANS;
+            }
+        });
+        private final List<Span> buffered = new ArrayList<>();
+        private long lastActivityNanos;
+        private boolean removed = false;
+
+        private SessionSpans(int maxParents) {
+            this.parents = new LinkedHashMap<UUID, UUID>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, UUID> eldest) {
+                    return size() > maxParents;
+                }
+            };
+        }
+
+        /**
+         * Whether the span's chain of parents leads to a span whose tree has completed.
+         */
+        private boolean isCompleted(UUID spanId) {
+            UUID current = spanId;
+            for (int depth = 0; depth < MAX_DEPTH && current != null; depth++) {
+                if (completed.contains(current)) {
+                    return true;
+                }
+                current = parents.get(current);
+            }
+            return false;
+        }
+
+        /**
+         * Marks a span's tree as completed, moves the links of the spans under it into {@link #completed}, and
+         * returns the buffered spans among them.
+         */
+        private List<Span> complete(UUID spanId) {
+            completed.add(spanId);
+            Set<UUID> underCompleted = new HashSet<>();
+            for (UUID candidate : parents.keySet()) {
+                if (isCompleted(candidate)) {
+                    underCompleted.add(candidate);
+                }
+            }
+            for (UUID candidate : underCompleted) {
+                parents.remove(candidate);
+                completed.add(candidate);
+            }
+            List<Span> descendants = new ArrayList<>();
+            for (Iterator<Span> spans = buffered.iterator(); spans.hasNext(); ) {
+                Span span = spans.next();
+                if (underCompleted.contains(span.spanId)) {
+                    descendants.add(span);
+                    spans.remove();
+                }
+            }
+            return descendants;
+        }
+
+        private List<Span> takeAll() {
+            List<Span> all = new ArrayList<>(buffered);
+            buffered.clear();
+            return all;
+        }
+    }
+
+    private static class Span {
+        private final Supplier<CompletableFuture<?>> send;
+        private final UUID spanId;
+        private final long bufferedAtNanos;
+
+        private Span(Supplier<CompletableFuture<?>> send, UUID spanId, long bufferedAtNanos) {
+            this.send = send;
+            this.spanId = spanId;
+            this.bufferedAtNanos = bufferedAtNanos;
+        }
+    }
+}
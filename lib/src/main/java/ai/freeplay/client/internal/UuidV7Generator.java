@@ -0,0 +1,30 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.IdGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 7 UUIDs as laid out in RFC 9562: a 48-bit Unix timestamp in milliseconds, then the version, 12 random bits,
+ * the variant and 62 random bits. IDs from the same millisecond are not ordered among themselves.
+ */
+public class UuidV7Generator implements IdGenerator {
+    public static final UuidV7Generator INSTANCE = new UuidV7Generator();
+
+    // ThreadLocalRandom is seeded from the clock, so mix in a secure per-process value to keep two processes that
+    // start together from producing the same IDs.
+    private static final long PROCESS_BITS = new SecureRandom().nextLong();
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    @Override
+    public UUID newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | VERSION | (random.nextInt() & 0x0FFFL);
+        long leastSigBits = ((random.nextLong() ^ PROCESS_BITS) >>> 2) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,23 @@
+package ai.freeplay.client.internal;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual thread support. This is the Java 11 version, which reports virtual threads as unavailable. The JAR is
+ * multi-release: on JDK 21 and later the version in {@code src/main/java21} is loaded instead.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * An executor that runs each task on a new virtual thread, or null when virtual threads are not available.
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        return null;
+    }
+}
@@ -0,0 +1,182 @@
+package ai.freeplay.client.internal.spool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * A durable FIFO queue of byte entries, stored as a directory of {@link SpoolSegment} files rotated by size.
+ * Entries are written through a memory mapping, so they survive a process crash; segments are forced to disk when
+ * they are rotated and on close. Delivery is at-least-once: an entry read but not yet acknowledged when the process
+ * stops is read again after a restart.
+ */
+public class Spool implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(Spool.class.getName());
+    private static final String SUFFIX = ".spool";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    // Sequences of all live segments, oldest first. Only the head (read) and tail (write) segments are mapped.
+    private final Deque<Long> sequences = new ArrayDeque<>();
+    private SpoolSegment head;
+    private SpoolSegment tail;
+    private long diskUsage;
+    private boolean closed = false;
+
+    private Spool(Path directory, int segmentSize, long maxSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+    }
+
+    public static Spool open(Path directory, long segmentSize, long maxSize) throws IOException {
+        if (segmentSize <= SpoolSegment.HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid spool segment size: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        Spool spool = new Spool(directory, (int) segmentSize, maxSize);
+        spool.load();
+        return spool;
+    }
+
+    private void load() throws IOException {
+        List<Long> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            existing.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+                        } catch (NumberFormatException ignore) {
+                        }
+                    });
+        }
+        existing.sort(null);
+        for (Long sequence : existing) {
+            sequences.addLast(sequence);
+            diskUsage += Files.size(segmentPath(sequence));
+        }
+
+        if (sequences.isEmpty()) {
+            tail = SpoolSegment.create(segmentPath(0), 0, segmentSize);
+            sequences.addLast(0L);
+            diskUsage += segmentSize;
+            head = tail;
+            return;
+        }
+        head = SpoolSegment.open(segmentPath(sequences.getFirst()), sequences.getFirst());
+        tail = sequences.size() == 1
+                ? head
+                : SpoolSegment.open(segmentPath(sequences.getLast()), sequences.getLast());
+        advanceHead();
+    }
+
+    /**
+     * Appends an entry. Returns false if the spool is closed or has no room left within its maximum size.
+     */
+    public synchronized boolean append(byte[] entry) throws IOException {
+        if (closed || entry.length == 0) {
+            return false;
+        }
+        if (!tail.append(entry)) {
+            int size = Math.max(segmentSize, SpoolSegment.HEADER_SIZE + SpoolSegment.ENTRY_HEADER_SIZE + entry.length);
+            if (diskUsage + size > maxSize) {
+                return false;
+            }
+            long sequence = tail.getSequence() + 1;
+            SpoolSegment next = SpoolSegment.create(segmentPath(sequence), sequence, size);
+            if (tail == head) {
+                tail.force();
+            } else {
+                tail.close();
+            }
+            tail = next;
+            sequences.addLast(sequence);
+            diskUsage += size;
+            tail.append(entry);
+        }
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Returns the oldest unacknowledged entry without removing it, or null if the spool is empty.
+     */
+    public synchronized byte[] peek() throws IOException {
+        if (closed) {
+            return null;
+        }
+        advanceHead();
+        return head.peek();
+    }
+
+    /**
+     * Removes the entry last returned by {@link #peek()}.
+     */
+    public synchronized void acknowledge() throws IOException {
+        if (closed) {
+            return;
+        }
+        head.advance();
+        advanceHead();
+    }
+
+    public synchronized boolean isEmpty() {
+        return closed || (head == tail && head.isConsumed());
+    }
+
+    /**
+     * Waits until an entry is appended, the spool is closed, or the timeout elapses.
+     */
+    public synchronized void awaitEntries(long timeoutMillis) throws InterruptedException {
+        if (!closed && head == tail && head.isConsumed()) {
+            wait(timeoutMillis);
+        }
+    }
+
+    public synchronized long getDiskUsage() {
+        return diskUsage;
+    }
+
+    // Retires fully consumed segments that are no longer being written to.
+    private void advanceHead() throws IOException {
+        while (head != tail && head.isConsumed()) {
+            head.close();
+            sequences.removeFirst();
+            try {
+                Files.deleteIfExists(head.getPath());
+                diskUsage -= head.getSize();
+            } catch (IOException e) {
+                // The read position is persisted, so a segment left behind is skipped when reopened.
+                LOGGER.log(WARNING, "Unable to delete consumed spool segment " + head.getPath(), e);
+            }
+            long next = sequences.getFirst();
+            head = next == tail.getSequence() ? tail : SpoolSegment.open(segmentPath(next), next);
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        notifyAll();
+        if (head != tail) {
+            head.close();
+        }
+        tail.close();
+    }
+}
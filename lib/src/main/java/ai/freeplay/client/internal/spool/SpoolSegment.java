@@ -0,0 +1,158 @@
+package ai.freeplay.client.internal.spool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A fixed-size, memory-mapped, append-only file of checksummed entries.
+ * <p>
+ * Layout: a 16 byte header (magic, version, read position, reserved) followed by entries of
+ * {@code [length:int][crc32:int][payload]}. A zero length marks the end of the written entries. On open, entries
+ * are scanned until the first one that is incomplete or fails its checksum, so a torn write is discarded.
+ */
+class SpoolSegment {
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_HEADER_SIZE = 8;
+
+    private static final int MAGIC = 0x46505350;
+    private static final int VERSION = 1;
+    private static final int READ_POSITION_OFFSET = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int readPosition;
+
+    private SpoolSegment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static SpoolSegment create(Path path, long sequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE);
+        SpoolSegment segment = new SpoolSegment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(4, VERSION);
+        segment.buffer.putInt(READ_POSITION_OFFSET, HEADER_SIZE);
+        segment.writePosition = HEADER_SIZE;
+        segment.readPosition = HEADER_SIZE;
+        return segment;
+    }
+
+    static SpoolSegment open(Path path, long sequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, READ, WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Invalid spool segment size " + size + ": " + path);
+        }
+        SpoolSegment segment = new SpoolSegment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        if (segment.buffer.getInt(0) != MAGIC || segment.buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a spool segment: " + path);
+        }
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        int position = HEADER_SIZE;
+        while (position + ENTRY_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0
+                    || length > buffer.capacity() - position - ENTRY_HEADER_SIZE
+                    || buffer.getInt(position + 4) != checksum(position + ENTRY_HEADER_SIZE, length)) {
+                break;
+            }
+            position += ENTRY_HEADER_SIZE + length;
+        }
+        if (position + 4 <= buffer.capacity()) {
+            // Discard a torn write so the next append starts from a clean end marker.
+            buffer.putInt(position, 0);
+        }
+        writePosition = position;
+        int storedReadPosition = buffer.getInt(READ_POSITION_OFFSET);
+        readPosition = Math.max(HEADER_SIZE, Math.min(storedReadPosition, writePosition));
+    }
+
+    boolean append(byte[] payload) {
+        int entrySize = ENTRY_HEADER_SIZE + payload.length;
+        if (entrySize > buffer.capacity() - writePosition) {
+            return false;
+        }
+        ByteBuffer target = buffer.duplicate();
+        target.position(writePosition + ENTRY_HEADER_SIZE);
+        target.put(payload);
+        buffer.putInt(writePosition + 4, checksum(writePosition + ENTRY_HEADER_SIZE, payload.length));
+        if (writePosition + entrySize + 4 <= buffer.capacity()) {
+            buffer.putInt(writePosition + entrySize, 0);
+        }
+        // The length is written last; until then the entry reads as the end marker.
+        buffer.putInt(writePosition, payload.length);
+        writePosition += entrySize;
+        return true;
+    }
+
+    byte[] peek() {
+        if (readPosition >= writePosition) {
+            return null;
+        }
+        int length = buffer.getInt(readPosition);
+        byte[] payload = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(readPosition + ENTRY_HEADER_SIZE);
+        source.get(payload);
+        return payload;
+    }
+
+    void advance() {
+        if (readPosition < writePosition) {
+            readPosition += ENTRY_HEADER_SIZE + buffer.getInt(readPosition);
+            buffer.putInt(READ_POSITION_OFFSET, readPosition);
+        }
+    }
+
+    boolean isConsumed() {
+        return readPosition >= writePosition;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getSize() {
+        return buffer.capacity();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int checksum(int position, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(position);
+        slice.limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
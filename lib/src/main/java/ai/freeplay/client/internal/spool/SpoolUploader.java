@@ -0,0 +1,179 @@
+package ai.freeplay.client.internal.spool;
+
+import ai.freeplay.client.SpoolConfig;
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.internal.AsyncHttp;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Spools records that could not be delivered and replays them from a background thread. Replay is paced by
+ * {@link SpoolConfig#drainRatePerSecond(double)} and backs off exponentially while the API is still failing.
+ * Records the API rejects outright (4xx other than 408 and 429) are logged and dropped so they cannot block the
+ * spool.
+ */
+public class SpoolUploader implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(SpoolUploader.class.getName());
+
+    private final Spool spool;
+    private final AsyncHttp http;
+    private final String apiKey;
+    private final SpoolConfig config;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private SpoolUploader(Spool spool, AsyncHttp http, String apiKey, SpoolConfig config) {
+        this.spool = spool;
+        this.http = http;
+        this.apiKey = apiKey;
+        this.config = config;
+        this.thread = new Thread(this::run, "freeplay-spool-uploader");
+        this.thread.setDaemon(true);
+    }
+
+    public static SpoolUploader start(SpoolConfig config, AsyncHttp http, String apiKey) throws IOException {
+        if (config.getInitialBackoff().compareTo(config.getMaxBackoff()) > 0) {
+            throw new IllegalArgumentException("initialBackoff must not be greater than maxBackoff.");
+        }
+        Spool spool = Spool.open(config.getDirectory(), config.getSegmentSize(), config.getMaxSize());
+        SpoolUploader uploader = new SpoolUploader(spool, http, apiKey, config);
+        uploader.thread.start();
+        return uploader;
+    }
+
+    public static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Spools a JSON body to be posted to the given URL. Returns false if the spool is full or closed.
+     */
+    public boolean offer(String url, byte[] body) {
+        byte[] target = (url + '\n').getBytes(StandardCharsets.UTF_8);
+        byte[] entry = Arrays.copyOf(target, target.length + body.length);
+        System.arraycopy(body, 0, entry, target.length, body.length);
+        try {
+            return spool.append(entry);
+        } catch (IOException e) {
+            LOGGER.log(WARNING, "Unable to write to the spool.", e);
+            return false;
+        }
+    }
+
+    /**
+     * True while records are waiting to be replayed. New records are spooled behind them to keep their order and
+     * avoid sending to an API that is known to be failing.
+     */
+    public boolean hasBacklog() {
+        return !spool.isEmpty();
+    }
+
+    private void run() {
+        long pauseNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getDrainRatePerSecond());
+        long backoffMillis = config.getInitialBackoff().toMillis();
+        try {
+            while (running) {
+                byte[] entry = spool.peek();
+                if (entry == null) {
+                    spool.awaitEntries(TimeUnit.SECONDS.toMillis(1));
+                    continue;
+                }
+                if (upload(entry)) {
+                    spool.acknowledge();
+                    backoffMillis = config.getInitialBackoff().toMillis();
+                    TimeUnit.NANOSECONDS.sleep(pauseNanos);
+                } else {
+                    Thread.sleep(backoffMillis);
+                    backoffMillis = Math.min(backoffMillis * 2, config.getMaxBackoff().toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            if (running) {
+                LOGGER.log(WARNING, "Spool uploader stopped. Spooled records will be replayed on restart.", e);
+            }
+        }
+    }
+
+    // Returns true when the entry is done with, either delivered or rejected by the API.
+    private boolean upload(byte[] entry) {
+        String text = new String(entry, StandardCharsets.UTF_8);
+        int separator = text.indexOf('\n');
+        if (separator < 0) {
+            LOGGER.log(WARNING, "Dropping malformed spool entry.");
+            return true;
+        }
+        HttpResponse<String> response;
+        try {
+            response = await(http.postSerializedJson(text.substring(0, separator), apiKey, text.substring(separator + 1)));
+        } catch (ExecutionException e) {
+            return false;
+        } catch (TimeoutException e) {
+            LOGGER.log(WARNING, "Spooled record not answered within {0}. It will be replayed.", config.getUploadTimeout());
+            return false;
+        } catch (FreeplayException e) {
+            running = false;
+            return false;
+        }
+        if (response.statusCode() / 100 == 2) {
+            return true;
+        }
+        if (isRetryableStatus(response.statusCode())) {
+            return false;
+        }
+        LOGGER.log(WARNING, "Dropping spooled record rejected by the API [{0}]: {1}", response.statusCode(), response.body());
+        return true;
+    }
+
+    // Waits out an upload that is in flight when the uploader is closed, so a record the API has accepted is
+    // acknowledged instead of being replayed again on the next start.
+    private HttpResponse<String> await(CompletableFuture<HttpResponse<String>> call)
+            throws ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + config.getUploadTimeout().toNanos();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return call.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops replaying and closes the spool. Records not yet delivered stay on disk for the next start. An upload in
+     * flight is waited out for up to {@link SpoolConfig#uploadTimeout(java.time.Duration)}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            // The upload timeout, plus a margin for the uploader to acknowledge the record and exit.
+            thread.join(config.getUploadTimeout().toMillis() + TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            spool.close();
+        } catch (IOException e) {
+            LOGGER.log(WARNING, "Unable to close the spool.", e);
+        }
+    }
+}
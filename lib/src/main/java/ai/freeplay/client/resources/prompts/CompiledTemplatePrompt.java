@@ -0,0 +1,161 @@
+package ai.freeplay.client.resources.prompts;
+
+import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.internal.TemplateUtils;
+import ai.freeplay.client.internal.v2dto.TemplateDTO.ToolSchema;
+import ai.freeplay.client.media.MediaInput;
+import ai.freeplay.client.media.MediaInputBase64;
+import ai.freeplay.client.media.MediaInputCollection;
+import ai.freeplay.client.media.MediaInputUrl;
+import com.github.mustachejava.Mustache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * A {@link TemplatePrompt} prepared for binding: message templates are compiled, and the history placeholder and
+ * media slots are resolved up front. Build it once per template version with {@link TemplatePrompt#compile()} and
+ * reuse it for every {@link #bind(TemplatePrompt.BindRequest)}. Instances are immutable and safe to share.
+ */
+public class CompiledTemplatePrompt {
+    private final PromptInfo promptInfo;
+    private final List<ToolSchema> toolSchema;
+    private final Map<String, Object> outputSchema;
+    // A null template marks the position the history is inserted at.
+    private final Mustache[] templates;
+    private final String[] roles;
+    private final MediaSlot[][] mediaSlots;
+    private final boolean hasHistoryPlaceholder;
+    private final Set<String> variableNames;
+
+    CompiledTemplatePrompt(
+            PromptInfo promptInfo,
+            List<ChatMessage> messages,
+            List<ToolSchema> toolSchema,
+            Map<String, Object> outputSchema
+    ) {
+        this.promptInfo = promptInfo;
+        this.toolSchema = toolSchema;
+        this.outputSchema = outputSchema;
+
+        int size = messages.size();
+        this.templates = new Mustache[size];
+        this.roles = new String[size];
+        this.mediaSlots = new MediaSlot[size][];
+        Set<String> variableNames = new LinkedHashSet<>();
+        boolean hasHistoryPlaceholder = false;
+        for (int i = 0; i < size; i++) {
+            ChatMessage message = messages.get(i);
+            if (message.isStructuredMessage() || message.isCompletionMessage()) {
+                throw new FreeplayClientException("StructuredMessage or CompletionMessage is not allowed when binding a prompt");
+            }
+            if (message.isKind()) {
+                hasHistoryPlaceholder |= "history".equals(((KindMessage) message).getValue());
+                continue;
+            }
+            templates[i] = TemplateUtils.compile(message.getContent());
+            roles[i] = message.getRole();
+            List<MediaSlot> slots = message.getMediaSlots();
+            mediaSlots[i] = slots == null ? new MediaSlot[0] : slots.toArray(new MediaSlot[0]);
+            variableNames.addAll(TemplateUtils.variableNames(templates[i]));
+        }
+        this.hasHistoryPlaceholder = hasHistoryPlaceholder;
+        this.variableNames = Collections.unmodifiableSet(variableNames);
+    }
+
+    public PromptInfo getPromptInfo() {
+        return promptInfo;
+    }
+
+    public List<ToolSchema> getToolSchema() {
+        return toolSchema;
+    }
+
+    public Map<String, Object> getOutputSchema() {
+        return outputSchema;
+    }
+
+    /**
+     * The top-level variable names the message templates read.
+     */
+    public Set<String> getVariableNames() {
+        return variableNames;
+    }
+
+    public boolean hasHistoryPlaceholder() {
+        return hasHistoryPlaceholder;
+    }
+
+    public BoundPrompt bind(TemplatePrompt.BindRequest bindRequest) {
+        Map<String, Object> variables = bindRequest.getVariables();
+        List<ChatMessage> history = bindRequest.getHistory();
+        MediaInputCollection mediaInputs = bindRequest.getMediaInputs();
+
+        TemplateUtils.validateVariables(variables);
+        if (hasHistoryPlaceholder && history == null) {
+            TemplatePrompt.LOGGER.log(WARNING,
+                    "Prompt '{0}' has a history placeholder but no history was provided.",
+                    promptInfo.getTemplateName()
+            );
+        }
+
+        List<ChatMessage> messages = new ArrayList<>(templates.length + (history != null ? history.size() : 0));
+        for (int i = 0; i < templates.length; i++) {
+            Mustache template = templates[i];
+            if (template == null) {
+                if (history != null) {
+                    messages.addAll(history);
+                }
+                continue;
+            }
+            String content = TemplateUtils.render(template, variables);
+            List<Object> parts = mediaInputs != null ? contentParts(content, mediaSlots[i], mediaInputs) : null;
+            messages.add(parts == null ? new ChatMessage(roles[i], content) : new ChatMessage(roles[i], parts));
+        }
+        if (!hasHistoryPlaceholder && history != null) {
+            messages.addAll(history);
+        }
+
+        BoundPrompt boundPrompt = new BoundPrompt(promptInfo, messages, toolSchema);
+        if (outputSchema != null) {
+            boundPrompt.outputSchema(outputSchema);
+        }
+        return boundPrompt;
+    }
+
+    /**
+     * The text part followed by a part per matched media slot, or null when no slot has an input.
+     */
+    private static List<Object> contentParts(String content, MediaSlot[] slots, MediaInputCollection mediaInputs) {
+        List<Object> parts = null;
+        for (MediaSlot slot : slots) {
+            ContentPart part = contentPart(slot, mediaInputs.get(slot.getPlaceholderName()).orElse(null));
+            if (part == null) {
+                continue;
+            }
+            if (parts == null) {
+                parts = new ArrayList<>(slots.length + 1);
+                parts.add(new ContentPartText(content));
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private static ContentPart contentPart(MediaSlot slot, MediaInput input) {
+        if (input instanceof MediaInputUrl) {
+            MediaInputUrl url = (MediaInputUrl) input;
+            return new ContentPartUrl(slot.getPlaceholderName(), slot.getType(), url.getUrl());
+        } else if (input instanceof MediaInputBase64) {
+            MediaInputBase64 base64 = (MediaInputBase64) input;
+            return new ContentPartBase64(slot.getPlaceholderName(), slot.getType(), base64.getContentType(), base64.getData());
+        }
+        return null;
+    }
+}
@@ -1,19 +1,10 @@
 package ai.freeplay.client.resources.prompts;
 
-import ai.freeplay.client.exceptions.FreeplayClientException;
-import ai.freeplay.client.internal.TemplateUtils;
 import ai.freeplay.client.internal.v2dto.TemplateDTO.ToolSchema;
-import ai.freeplay.client.media.MediaInputBase64;
 import ai.freeplay.client.media.MediaInputCollection;
-import ai.freeplay.client.media.MediaInputUrl;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
-
-import static java.lang.System.Logger.Level.WARNING;
-import static java.util.stream.Collectors.toList;
 
 public class TemplatePrompt {
     public static final System.Logger LOGGER = System.getLogger(TemplatePrompt.class.getName());
@@ -22,6 +13,7 @@ public class TemplatePrompt {
     private final List<ChatMessage> messages;
     private final List<ToolSchema> toolSchema;
     private Map<String, Object> outputSchema;
+    private volatile CompiledTemplatePrompt compiled;
 
     public TemplatePrompt(PromptInfo promptInfo, List<ChatMessage> messages) {
         this(promptInfo, messages, null);
@@ -36,6 +28,7 @@ public class TemplatePrompt {
 
     public TemplatePrompt outputSchema(Map<String, Object> outputSchema) {
         this.outputSchema = outputSchema;
+        this.compiled = null;
         return this;
     }
 
@@ -55,54 +48,21 @@ public class TemplatePrompt {
         return outputSchema;
     }
 
-    public BoundPrompt bind(BindRequest bindRequest) {
-        var history = bindRequest.getHistory();
-        if (getMessages().stream().anyMatch(message -> message.isStructuredMessage() || message.isCompletionMessage())) {
-            throw new FreeplayClientException("StructuredMessage or CompletionMessage is not allowed when binding a prompt");
-        }
-
-        if (hasHistoryPlaceholder() && history == null) {
-            LOGGER.log(WARNING,
-                    "Prompt '{0}' has a history placeholder but no history was provided.",
-                    promptInfo.getTemplateName()
-            );
-        }
-        List<ChatMessage> messages = getMessages().stream().flatMap(chatMessage -> {
-                    if (chatMessage.isKind()) {
-                        if (history != null) {
-                            return history.stream();
-                        } else {
-                            return Stream.of();
-                        }
-                    } else {
-                        var contentParts = extractContentParts(chatMessage, bindRequest.getMediaInputs());
-                        String substitutedContent = TemplateUtils.format(chatMessage.getContent(), bindRequest.getVariables());
-
-                        if (contentParts.isEmpty()) {
-                            return Stream.of(new ChatMessage(chatMessage.getRole(), substitutedContent));
-                        } else {
-                            List<Object> messageContent = new ArrayList<>(contentParts.size() + 1);
-                            messageContent.add(new ContentPartText(substitutedContent));
-                            messageContent.addAll(contentParts);
-
-                            return Stream.of(new ChatMessage(
-                                    chatMessage.getRole(),
-                                    messageContent
-                            ));
-                        }
-                    }
-                }
-        ).collect(toList());
-
-        if (!hasHistoryPlaceholder() && history != null) {
-            messages.addAll(history);
+    /**
+     * Prepares this prompt for binding. The result is cached until the output schema changes, so callers that keep
+     * a {@code TemplatePrompt} per template version only pay for compiling once.
+     */
+    public CompiledTemplatePrompt compile() {
+        CompiledTemplatePrompt compiled = this.compiled;
+        if (compiled == null) {
+            compiled = new CompiledTemplatePrompt(promptInfo, messages, toolSchema, outputSchema);
+            this.compiled = compiled;
         }
+        return compiled;
+    }
 
-        BoundPrompt boundPrompt = new BoundPrompt(promptInfo, messages, toolSchema);
-        if (outputSchema != null) {
-            boundPrompt.outputSchema(outputSchema);
-        }
-        return boundPrompt;
+    public BoundPrompt bind(BindRequest bindRequest) {
+        return compile().bind(bindRequest);
     }
 
     public static class BindRequest {
@@ -145,31 +105,4 @@ public class TemplatePrompt {
                     '}';
         }
     }
-
-    private List<ContentPart> extractContentParts(ChatMessage message, MediaInputCollection mediaInputs) {
-        List<ContentPart> result = new ArrayList<>();
-        for (MediaSlot slot : message.getMediaSlots()) {
-            var maybeMatch = mediaInputs.get(slot.getPlaceholderName());
-            if (maybeMatch.isEmpty()) {
-                continue;
-            }
-            var match = maybeMatch.get();
-            if (match instanceof MediaInputUrl) {
-                MediaInputUrl url = (MediaInputUrl) match;
-                result.add(new ContentPartUrl(slot.getPlaceholderName(), slot.getType(), url.getUrl()));
-            } else if (match instanceof MediaInputBase64) {
-                MediaInputBase64 base64 = (MediaInputBase64) match;
-                result.add(new ContentPartBase64(slot.getPlaceholderName(), slot.getType(), base64.getContentType(), base64.getData()));
-            }
-        }
-
-        return result;
-    }
-
-    private boolean hasHistoryPlaceholder() {
-        return this.messages.stream()
-                .anyMatch(message ->
-                        message.isKind() && ((KindMessage) message).getValue().equals("history")
-                );
-    }
 }
@@ -0,0 +1,271 @@
+package ai.freeplay.client.resources.recordings;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.internal.CallSupport;
+import ai.freeplay.client.internal.PreparedRecord;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Queues completion records and sends them off the caller's thread. A batch is flushed when it reaches
+ * {@link Config#maxBatchSize(int)} records or {@link Config#maxBatchBytes(long)} bytes, or when
+ * {@link Config#flushInterval(Duration)} elapses. Records in a batch are sent concurrently, bounded by
+ * {@link Config#maxInFlight(int)}. The future returned by {@link #submit(RecordPayload)} completes when the API
+ * acknowledges that record.
+ */
+public class BatchingRecorder implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(BatchingRecorder.class.getName());
+
+    private final CallSupport callSupport;
+    private final Config config;
+    private final BlockingQueue<PendingRecord> queue;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Semaphore inFlight;
+    private final Set<CompletableFuture<RecordResponse>> unacknowledged = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    // Submitters share the read lock so they do not contend with each other. Close takes the write lock, so no record
+    // can be queued after the final drain has started.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed = false;
+
+    public BatchingRecorder(CallSupport callSupport, Config config) {
+        this.callSupport = callSupport;
+        this.config = config;
+        this.queue = new LinkedBlockingQueue<>(config.maxQueueSize);
+        this.inFlight = new Semaphore(config.maxInFlight);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "freeplay-batching-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = config.flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<RecordResponse> submit(RecordPayload recordPayload) {
+        if (closed) {
+            throw new FreeplayException("Unable to record. The batching recorder has been closed.");
+        }
+        PreparedRecord preparedRecord = callSupport.prepareRecord(callSupport.withCompletionId(recordPayload));
+        PendingRecord pending = new PendingRecord(preparedRecord, preparedRecord.sizeInBytes());
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new FreeplayException("Unable to record. The batching recorder has been closed.");
+            }
+            unacknowledged.add(pending.future);
+            if (!queue.offer(pending)) {
+                unacknowledged.remove(pending.future);
+                return CompletableFuture.failedFuture(new FreeplayException(String.format(
+                        "Unable to record. The batching recorder queue is full (%d records).", config.maxQueueSize)));
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        pending.future.whenComplete((response, error) -> unacknowledged.remove(pending.future));
+
+        long bytes = queuedBytes.addAndGet(pending.sizeInBytes);
+        if (queue.size() >= config.maxBatchSize || bytes >= config.maxBatchBytes) {
+            scheduleFlush();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Sends everything queued so far. The returned future completes once every record submitted before this call
+     * has been acknowledged or has failed.
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<RecordResponse>> pending = new ArrayList<>(unacknowledged);
+        scheduleFlush();
+        return CompletableFuture
+                .allOf(pending.stream()
+                        .map(future -> future.handle((response, error) -> null))
+                        .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Stops accepting records and drains the queue, waiting up to {@link Config#closeTimeout(Duration)} for
+     * outstanding records to be acknowledged. Records that have not been sent by then fail with a
+     * {@link FreeplayException}. Records already sent complete when the API answers.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            flush().get(config.closeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.log(WARNING, "Timed out draining {0} queued records on close.", unacknowledged.size());
+            // Interrupts a drain waiting for an in-flight slot, which then fails the rest of its batch.
+            scheduler.shutdownNow();
+            List<PendingRecord> queued = new ArrayList<>();
+            queue.drainTo(queued);
+            failUnsent(queued);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushScheduled.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        List<PendingRecord> batch = List.of();
+        int sent = 0;
+        try {
+            while (!(batch = nextBatch()).isEmpty()) {
+                for (sent = 0; sent < batch.size(); sent++) {
+                    send(batch.get(sent));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failUnsent(batch.subList(sent, batch.size()));
+        } catch (RuntimeException e) {
+            LOGGER.log(WARNING, "Unexpected error flushing records.", e);
+        }
+    }
+
+    private static void failUnsent(List<PendingRecord> records) {
+        FreeplayException error = new FreeplayException(
+                "Unable to record. The batching recorder was closed before the record was sent.");
+        for (PendingRecord pending : records) {
+            pending.future.completeExceptionally(error);
+        }
+    }
+
+    private List<PendingRecord> nextBatch() {
+        List<PendingRecord> batch = new ArrayList<>();
+        long batchBytes = 0;
+        PendingRecord pending;
+        while (batch.size() < config.maxBatchSize
+                && (batch.isEmpty() || batchBytes < config.maxBatchBytes)
+                && (pending = queue.poll()) != null) {
+            queuedBytes.addAndGet(-pending.sizeInBytes);
+            batchBytes += pending.sizeInBytes;
+            batch.add(pending);
+        }
+        return batch;
+    }
+
+    private void send(PendingRecord pending) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            callSupport.sendRecord(pending.record).whenComplete((response, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    pending.future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                } else {
+                    pending.future.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingRecord {
+        private final PreparedRecord record;
+        private final int sizeInBytes;
+        private final CompletableFuture<RecordResponse> future = new CompletableFuture<>();
+
+        private PendingRecord(PreparedRecord record, int sizeInBytes) {
+            this.record = record;
+            this.sizeInBytes = sizeInBytes;
+        }
+    }
+
+    public static class Config {
+        private int maxBatchSize = 100;
+        private long maxBatchBytes = 1024 * 1024;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int maxInFlight = 8;
+        private int maxQueueSize = 10_000;
+        private Duration closeTimeout = Duration.ofSeconds(30);
+
+        public Config maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be at least 1.");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Config maxBatchBytes(long maxBatchBytes) {
+            if (maxBatchBytes < 1) {
+                throw new IllegalArgumentException("maxBatchBytes must be at least 1.");
+            }
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        public Config flushInterval(Duration flushInterval) {
+            if (flushInterval.toMillis() < 1) {
+                throw new IllegalArgumentException("flushInterval must be at least 1 millisecond.");
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Config maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1.");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Config maxQueueSize(int maxQueueSize) {
+            if (maxQueueSize < 1) {
+                throw new IllegalArgumentException("maxQueueSize must be at least 1.");
+            }
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        public Config closeTimeout(Duration closeTimeout) {
+            if (closeTimeout.isNegative()) {
+                throw new IllegalArgumentException("closeTimeout must not be negative.");
+            }
+            this.closeTimeout = closeTimeout;
+            return this;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ai.freeplay.client.resources.recordings;
 
+import ai.freeplay.client.IdGenerator;
 import ai.freeplay.client.adapters.GeminiLLMAdapter;
 import ai.freeplay.client.media.MediaInputCollection;
 import ai.freeplay.client.resources.prompts.ChatMessage;
@@ -7,6 +8,7 @@ import ai.freeplay.client.resources.prompts.PromptVersionInfo;
 import ai.freeplay.client.resources.sessions.SessionInfo;
 import com.google.cloud.vertexai.api.Content;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -37,7 +39,7 @@ public class RecordPayload {
     ) {
         this.projectId = projectId;
         this.allMessages = allMessages;
-        this.sessionInfo = new SessionInfo(UUID.randomUUID().toString(), null);
+        this.sessionInfo = new SessionInfo(IdGenerator.timeOrdered().newId().toString(), null);
         this.inputs = null;
         this.promptVersionInfo = null;
         this.callInfo = null;
@@ -139,6 +141,23 @@ public class RecordPayload {
         return this;
     }
 
+    /**
+     * A copy of this payload that later changes to it, or to its message list, do not affect. The maps, messages,
+     * and other objects it refers to are shared.
+     */
+    public RecordPayload snapshot() {
+        RecordPayload snapshot = new RecordPayload(
+                projectId, new ArrayList<>(allMessages), inputs, sessionInfo, promptVersionInfo, callInfo, responseInfo);
+        snapshot.testRunInfo = testRunInfo;
+        snapshot.evalResults = evalResults;
+        snapshot.parentId = parentId;
+        snapshot.completionId = completionId;
+        snapshot.toolSchema = toolSchema;
+        snapshot.outputSchema = outputSchema;
+        snapshot.mediaInputCollection = mediaInputCollection;
+        return snapshot;
+    }
+
     public List<ChatMessage> getAllMessages() {
         return allMessages;
     }
@@ -6,12 +6,31 @@ import java.util.concurrent.CompletableFuture;
 
 public class Recordings {
     private final CallSupport callSupport;
+    private final BatchingRecorder batchingRecorder;
 
     public Recordings(CallSupport callSupport) {
+        this(callSupport, null);
+    }
+
+    public Recordings(CallSupport callSupport, BatchingRecorder batchingRecorder) {
         this.callSupport = callSupport;
+        this.batchingRecorder = batchingRecorder;
     }
 
     public CompletableFuture<RecordResponse> create(RecordPayload recordPayload) {
+        if (batchingRecorder != null) {
+            return batchingRecorder.submit(recordPayload);
+        }
         return callSupport.record(recordPayload);
     }
+
+    /**
+     * Sends any records queued by the batching recorder. Completes immediately when batching is not enabled.
+     */
+    public CompletableFuture<Void> flush() {
+        if (batchingRecorder != null) {
+            return batchingRecorder.flush();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
 }
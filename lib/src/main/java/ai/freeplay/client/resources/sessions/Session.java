@@ -1,5 +1,6 @@
 package ai.freeplay.client.resources.sessions;
 
+import ai.freeplay.client.IdGenerator;
 import ai.freeplay.client.internal.CallSupport;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 
@@ -16,7 +17,7 @@ public class Session {
 
     public Session(CallSupport callSupport) {
         this.callSupport = callSupport;
-        sessionId = UUID.randomUUID();
+        sessionId = newId();
     }
 
     // this can't be used by customer to restore sessions anynmore?
@@ -48,7 +49,7 @@ public class Session {
     public TraceInfo createTrace(String input) {
         return new TraceInfo(
                 this.sessionId,
-                UUID.randomUUID(),
+                newId(),
                 input,
                 this.callSupport
         );
@@ -57,7 +58,7 @@ public class Session {
     public TraceInfo createTrace(CreateTracePayload payload) {
         TraceInfo trace = new TraceInfo(
                 this.sessionId,
-                UUID.randomUUID(),
+                newId(),
                 payload.getInput(),
                 this.callSupport,
                 payload.getKind(),
@@ -75,4 +76,9 @@ public class Session {
         }
         return trace;
     }
+
+    private UUID newId() {
+        IdGenerator idGenerator = callSupport != null ? callSupport.getIdGenerator() : null;
+        return (idGenerator != null ? idGenerator : IdGenerator.timeOrdered()).newId();
+    }
 }
@@ -0,0 +1,46 @@
+package ai.freeplay.client.transport;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes a body that is already in memory as a single item. Each subscriber gets its own view of the bytes.
+ */
+class BufferedBody implements Flow.Publisher<List<ByteBuffer>> {
+    private final byte[] body;
+
+    BufferedBody(byte[] body) {
+        this.body = body;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ByteBuffer>> subscriber) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    if (done.compareAndSet(false, true)) {
+                        subscriber.onError(new IllegalArgumentException("Requested a non-positive number of items."));
+                    }
+                    return;
+                }
+                // Set before onNext so a request made from within onNext does not publish the body twice.
+                if (done.compareAndSet(false, true)) {
+                    if (body.length > 0) {
+                        subscriber.onNext(List.of(ByteBuffer.wrap(body).asReadOnlyBuffer()));
+                    }
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done.set(true);
+            }
+        });
+    }
+}
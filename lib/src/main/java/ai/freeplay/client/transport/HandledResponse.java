@@ -0,0 +1,115 @@
+package ai.freeplay.client.transport;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapts a {@link HttpTransport.Response} to a JDK body handler and the {@link HttpResponse} it produces.
+ */
+class HandledResponse<T> implements HttpResponse<T> {
+    private final HttpTransport.Request request;
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final T body;
+
+    private HandledResponse(HttpTransport.Request request, int statusCode, HttpHeaders headers, T body) {
+        this.request = request;
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    static <T> CompletableFuture<HttpResponse<T>> send(
+            HttpTransport transport,
+            HttpTransport.Request request,
+            BodyHandler<T> responseBodyHandler
+    ) {
+        return transport.send(request).thenCompose(response -> {
+            HttpHeaders headers = HttpHeaders.of(response.getHeaders(), (name, value) -> true);
+            BodySubscriber<T> subscriber = responseBodyHandler.apply(new Info(response.getStatusCode(), headers));
+            response.getBody().subscribe(subscriber);
+            return subscriber.getBody().<HttpResponse<T>>thenApply(body ->
+                    new HandledResponse<>(request, response.getStatusCode(), headers, body));
+        });
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * The request without its body, rebuilt from the transport request.
+     */
+    @Override
+    public HttpRequest request() {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+                .method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        request.getHeaders().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        request.getTimeout().ifPresent(builder::timeout);
+        return builder.build();
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public T body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return request.getUri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+
+    private static class Info implements ResponseInfo {
+        private final int statusCode;
+        private final HttpHeaders headers;
+
+        private Info(int statusCode, HttpHeaders headers) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ai.freeplay.client.transport;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Sends the HTTP requests made by a Freeplay client. Requests and responses carry their bodies as byte buffers, so an
+ * implementation can sit on any HTTP stack, e.g. a connection pool shared with the rest of a service. Retries, the
+ * concurrency limit, circuit breaking and compression are applied before a request reaches the transport.
+ * <p>
+ * Set it with {@link ai.freeplay.client.Freeplay.FreeplayConfig#httpTransport(HttpTransport)}. The default is a
+ * {@link JdkHttpTransport} built from the client's {@link ai.freeplay.client.HttpConfig}.
+ */
+public interface HttpTransport extends AutoCloseable {
+    /**
+     * Sends the request. The future completes once the status and headers have been received; the body is read from
+     * {@link Response#getBody()}. Connection and I/O errors complete it exceptionally.
+     */
+    CompletableFuture<Response> send(Request request);
+
+    /**
+     * Sends the request and reads the body with a JDK body handler. The default adapts {@link #send(Request)}; a
+     * transport that can feed the handler directly may override it.
+     */
+    default <T> CompletableFuture<HttpResponse<T>> send(Request request, BodyHandler<T> responseBodyHandler) {
+        return HandledResponse.send(this, request, responseBodyHandler);
+    }
+
+    /**
+     * Releases the transport's resources. A Freeplay client only closes the transport it created itself.
+     */
+    @Override
+    default void close() {
+    }
+
+    class Request {
+        private final String method;
+        private final URI uri;
+        private final Map<String, List<String>> headers;
+        private final List<ByteBuffer> body;
+        private final Duration timeout;
+
+        /**
+         * @param body    the request body, empty for none
+         * @param timeout how long to wait for the response, or null to wait indefinitely
+         */
+        public Request(String method, URI uri, Map<String, List<String>> headers, List<ByteBuffer> body, Duration timeout) {
+            this.method = method;
+            this.uri = uri;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.body = List.copyOf(body);
+            this.timeout = timeout;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * The first value of a header, matched ignoring case.
+         */
+        public Optional<String> header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                    return Optional.of(header.getValue().get(0));
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * The body buffers. Each call returns read-only views positioned at the start of the body, so a request can
+         * be sent again on a retry.
+         */
+        public List<ByteBuffer> getBody() {
+            List<ByteBuffer> views = new ArrayList<>(body.size());
+            for (ByteBuffer buffer : body) {
+                views.add(buffer.asReadOnlyBuffer());
+            }
+            return views;
+        }
+
+        List<ByteBuffer> buffers() {
+            return body;
+        }
+
+        public long getContentLength() {
+            long length = 0;
+            for (ByteBuffer buffer : body) {
+                length += buffer.remaining();
+            }
+            return length;
+        }
+
+        /**
+         * The body copied into one array.
+         */
+        public byte[] getBodyBytes() {
+            byte[] bytes = new byte[(int) getContentLength()];
+            int position = 0;
+            for (ByteBuffer buffer : getBody()) {
+                int length = buffer.remaining();
+                buffer.get(bytes, position, length);
+                position += length;
+            }
+            return bytes;
+        }
+
+        public Optional<Duration> getTimeout() {
+            return Optional.ofNullable(timeout);
+        }
+    }
+
+    class Response {
+        private final int statusCode;
+        private final Map<String, List<String>> headers;
+        private final Flow.Publisher<List<ByteBuffer>> body;
+
+        /**
+         * @param body publishes the response body. It is subscribed to once.
+         */
+        public Response(int statusCode, Map<String, List<String>> headers, Flow.Publisher<List<ByteBuffer>> body) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * A response whose body has already been read.
+         */
+        public static Response of(int statusCode, Map<String, List<String>> headers, byte[] body) {
+            return new Response(statusCode, headers, new BufferedBody(body));
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public Flow.Publisher<List<ByteBuffer>> getBody() {
+            return body;
+        }
+    }
+}
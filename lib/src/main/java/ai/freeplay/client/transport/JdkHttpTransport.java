@@ -0,0 +1,173 @@
+package ai.freeplay.client.transport;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.internal.VirtualThreads;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Sends requests with a {@link HttpClient}. Connections and TLS sessions are pooled by the client and kept alive
+ * across calls. Bodies held in one buffer are sent without a copy and with a known length, and responses stream
+ * straight into the caller's body handler.
+ */
+public class JdkHttpTransport implements HttpTransport {
+    private static final System.Logger LOGGER = System.getLogger(JdkHttpTransport.class.getName());
+
+    private final HttpClient client;
+    private final ExecutorService ownedExecutor;
+    private final boolean ownsClient;
+
+    /**
+     * Builds a client from the executor, proxy, connect timeout, HTTP version and virtual threads settings of the
+     * config. The client is closed with the transport.
+     */
+    public JdkHttpTransport(HttpConfig httpConfig) {
+        Executor executor = executorFor(httpConfig);
+        this.client = buildClient(httpConfig, executor);
+        this.ownedExecutor = executor != httpConfig.getExecutor() && executor instanceof ExecutorService
+                ? (ExecutorService) executor
+                : null;
+        this.ownsClient = true;
+    }
+
+    /**
+     * Sends with an existing client, e.g. one shared with the rest of an application. Closing the transport does not
+     * close the client.
+     */
+    public JdkHttpTransport(HttpClient client) {
+        this.client = client;
+        this.ownedExecutor = null;
+        this.ownsClient = false;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * The executor the client runs its callbacks on, or null when it uses the HttpClient default.
+     */
+    public Executor getExecutor() {
+        return client.executor().orElse(null);
+    }
+
+    @Override
+    public CompletableFuture<Response> send(Request request) {
+        return client.sendAsync(toHttpRequest(request), BodyHandlers.ofPublisher()).thenApply(response ->
+                new Response(response.statusCode(), response.headers().map(), response.body()));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> send(Request request, BodyHandler<T> responseBodyHandler) {
+        return client.sendAsync(toHttpRequest(request), responseBodyHandler);
+    }
+
+    public static HttpRequest toHttpRequest(Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+        List<ByteBuffer> body = request.buffers();
+        if (body.isEmpty() && request.getMethod().equals("GET")) {
+            builder.GET();
+        } else if (body.isEmpty() && request.getMethod().equals("DELETE")) {
+            builder.DELETE();
+        } else {
+            builder.method(request.getMethod(), publisher(body));
+        }
+        request.getHeaders().forEach((name, values) -> {
+            for (String value : values) {
+                builder.header(name, value);
+            }
+        });
+        request.getTimeout().ifPresent(builder::timeout);
+        return builder.build();
+    }
+
+    private static BodyPublisher publisher(List<ByteBuffer> body) {
+        if (body.isEmpty()) {
+            return BodyPublishers.noBody();
+        }
+        if (body.size() == 1 && body.get(0).hasArray()) {
+            ByteBuffer buffer = body.get(0);
+            return BodyPublishers.ofByteArray(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        long length = 0;
+        for (ByteBuffer buffer : body) {
+            length += buffer.remaining();
+        }
+        // Iterated again for each subscription, so a retried request is sent from the first buffer.
+        Iterable<byte[]> arrays = () -> body.stream().map(JdkHttpTransport::bytes).iterator();
+        return BodyPublishers.fromPublisher(BodyPublishers.ofByteArrays(arrays), length);
+    }
+
+    private static HttpClient buildClient(HttpConfig httpConfig, Executor executor) {
+        HttpClient.Builder clientBuilder = HttpClient.newBuilder();
+        if (executor != null) {
+            clientBuilder.executor(executor);
+        }
+        if (httpConfig.getProxySelector() != null) {
+            clientBuilder.proxy(httpConfig.getProxySelector());
+        }
+        if (httpConfig.getConnectTimeout() != null) {
+            clientBuilder.connectTimeout(httpConfig.getConnectTimeout());
+        }
+        if (httpConfig.getVersion() != null) {
+            clientBuilder.version(httpConfig.getVersion());
+        }
+        return clientBuilder.build();
+    }
+
+    /**
+     * The executor passed to the config, or a virtual-thread executor when virtual threads were requested and the
+     * runtime supports them. Null leaves HttpClient on its default executor.
+     */
+    private static Executor executorFor(HttpConfig httpConfig) {
+        if (httpConfig.getExecutor() != null || !httpConfig.isVirtualThreads()) {
+            return httpConfig.getExecutor();
+        }
+        if (!VirtualThreads.isAvailable()) {
+            LOGGER.log(WARNING, "Virtual threads require JDK 21 or later. Using the default HTTP client executor.");
+            return null;
+        }
+        return VirtualThreads.newExecutor("freeplay-http-");
+    }
+
+    @Override
+    public void close() {
+        if (!ownsClient) {
+            return;
+        }
+        // HttpClient is only AutoCloseable from JDK 21. On older runtimes the selector thread exits once the
+        // client is no longer reachable.
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception ignore) {
+            }
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        if (view.hasArray() && view.arrayOffset() == 0 && view.position() == 0 && view.remaining() == view.array().length) {
+            return view.array();
+        }
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+}
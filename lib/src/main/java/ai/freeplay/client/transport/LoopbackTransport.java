@@ -0,0 +1,51 @@
+package ai.freeplay.client.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Answers requests in memory with a {@link Handler}, without opening a socket. Useful for tests, and for measuring
+ * the client's own overhead apart from the network.
+ */
+public class LoopbackTransport implements HttpTransport {
+    private final Handler handler;
+    private final Executor executor;
+
+    /**
+     * Answers each request on the thread that sends it.
+     */
+    public LoopbackTransport(Handler handler) {
+        this(handler, null);
+    }
+
+    /**
+     * Answers each request on the executor, like a transport whose responses arrive on its own threads.
+     */
+    public LoopbackTransport(Handler handler, Executor executor) {
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Response> send(Request request) {
+        if (executor == null) {
+            return handle(request);
+        }
+        return CompletableFuture.supplyAsync(() -> request, executor).thenCompose(this::handle);
+    }
+
+    private CompletableFuture<Response> handle(Request request) {
+        try {
+            return CompletableFuture.completedFuture(handler.handle(request));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public interface Handler {
+        /**
+         * Returns the response to the request. A thrown exception fails the request like a connection error.
+         */
+        Response handle(Request request) throws Exception;
+    }
+}
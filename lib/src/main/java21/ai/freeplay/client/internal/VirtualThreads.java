@@ -0,0 +1,24 @@
+package ai.freeplay.client.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread support on JDK 21 and later. Must keep the same public API as the Java 11 version in
+ * {@code src/main/java}.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * An executor that runs each task on a new virtual thread.
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}
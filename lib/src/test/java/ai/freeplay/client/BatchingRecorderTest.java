@@ -0,0 +1,178 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.BatchingRecorder;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import ai.freeplay.client.transport.HttpTransport;
+import ai.freeplay.client.transport.LoopbackTransport;
+import org.junit.Test;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static ai.freeplay.client.internal.utilities.MockFixtures.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BatchingRecorderTest extends HttpClientTestBase {
+
+    private static RecordPayload recordPayload(int index) {
+        return new RecordPayload(projectId, List.of(
+                new ChatMessage("user", "Question " + index),
+                new ChatMessage("assistant", "Answer " + index)
+        ));
+    }
+
+    @Test
+    public void testFlushesWhenBatchSizeIsReached() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockRecordAsync(mockedClient);
+            Freeplay fpClient = new Freeplay(Config()
+                    .freeplayAPIKey(freeplayApiKey)
+                    .baseUrl(baseUrl)
+                    .batchRecordings(new BatchingRecorder.Config()
+                            .maxBatchSize(3)
+                            .flushInterval(Duration.ofHours(1))));
+
+            List<CompletableFuture<RecordResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(fpClient.recordings().create(recordPayload(i)));
+            }
+
+            for (CompletableFuture<RecordResponse> future : futures) {
+                assertNotNull(future.get(5, TimeUnit.SECONDS).getCompletionId());
+            }
+            verify(mockedClient, times(3)).sendAsync(any(), any());
+            fpClient.close();
+        });
+    }
+
+    @Test
+    public void testFlushDrainsQueueBeforeThresholds() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockRecordAsync(mockedClient);
+            Freeplay fpClient = new Freeplay(Config()
+                    .freeplayAPIKey(freeplayApiKey)
+                    .baseUrl(baseUrl)
+                    .batchRecordings(new BatchingRecorder.Config()
+                            .maxBatchSize(100)
+                            .flushInterval(Duration.ofHours(1))));
+
+            CompletableFuture<RecordResponse> first = fpClient.recordings().create(recordPayload(1));
+            CompletableFuture<RecordResponse> second = fpClient.recordings().create(recordPayload(2));
+            assertFalse(first.isDone());
+            verify(mockedClient, never()).sendAsync(any(), any());
+
+            fpClient.flush().get(5, TimeUnit.SECONDS);
+
+            assertTrue(first.isDone());
+            assertTrue(second.isDone());
+            verify(mockedClient, times(2)).sendAsync(any(), any());
+            fpClient.close();
+        });
+    }
+
+    @Test
+    public void testCloseDrainsQueue() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockRecordAsync(mockedClient);
+            Freeplay fpClient = new Freeplay(Config()
+                    .freeplayAPIKey(freeplayApiKey)
+                    .baseUrl(baseUrl)
+                    .batchRecordings(new BatchingRecorder.Config().flushInterval(Duration.ofHours(1))));
+
+            CompletableFuture<RecordResponse> future = fpClient.recordings().create(recordPayload(1));
+            fpClient.close();
+
+            assertNotNull(future.get(5, TimeUnit.SECONDS).getCompletionId());
+            verify(mockedClient, times(1)).sendAsync(any(), any());
+        });
+    }
+
+    @Test
+    public void testCloseFailsRecordsNotSentBeforeTheTimeout() throws Exception {
+        CountDownLatch answer = new CountDownLatch(1);
+        ExecutorService responder = Executors.newCachedThreadPool();
+        LoopbackTransport transport = new LoopbackTransport(request -> {
+            answer.await();
+            return HttpTransport.Response.of(201, Map.of(), "{\"completion_id\": \"completion-id\"}".getBytes(StandardCharsets.UTF_8));
+        }, responder);
+        Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey(freeplayApiKey)
+                .baseUrl(baseUrl)
+                .httpTransport(transport)
+                .batchRecordings(new BatchingRecorder.Config()
+                        .maxInFlight(1)
+                        .flushInterval(Duration.ofHours(1))
+                        .closeTimeout(Duration.ofMillis(100))));
+        try {
+            CompletableFuture<RecordResponse> sent = fpClient.recordings().create(recordPayload(1));
+            CompletableFuture<RecordResponse> waiting = fpClient.recordings().create(recordPayload(2));
+            CompletableFuture<RecordResponse> queued = fpClient.recordings().create(recordPayload(3));
+
+            fpClient.close();
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(FreeplayException.class, error.getCause().getClass());
+            error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertEquals(FreeplayException.class, error.getCause().getClass());
+            assertFalse(sent.isDone());
+            answer.countDown();
+            assertEquals("completion-id", sent.get(5, TimeUnit.SECONDS).getCompletionId());
+        } finally {
+            answer.countDown();
+            responder.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailuresAreDeliveredToEachCaller() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockUnauthorizedRecordAsync(mockedClient);
+            Freeplay fpClient = new Freeplay(Config()
+                    .freeplayAPIKey(freeplayApiKey)
+                    .baseUrl(baseUrl)
+                    .batchRecordings(new BatchingRecorder.Config().maxBatchSize(1)));
+
+            CompletableFuture<RecordResponse> future = fpClient.recordings().create(recordPayload(1));
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals(FreeplayClientException.class, exception.getCause().getClass());
+            fpClient.close();
+        });
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockRecordAsync(mockedClient);
+            Freeplay fpClient = new Freeplay(Config()
+                    .freeplayAPIKey(freeplayApiKey)
+                    .baseUrl(baseUrl)
+                    .batchRecordings(new BatchingRecorder.Config()
+                            .maxQueueSize(1)
+                            .flushInterval(Duration.ofHours(1))));
+
+            fpClient.recordings().create(recordPayload(1));
+            CompletableFuture<RecordResponse> rejected = fpClient.recordings().create(recordPayload(2));
+
+            assertTrue(rejected.isCompletedExceptionally());
+            fpClient.close();
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.exceptions.FreeplayServerException;
+import ai.freeplay.client.internal.v2dto.TemplateDTO;
+import ai.freeplay.client.internal.v2dto.TemplatesDTO;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class CachingTemplateResolverTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final FakeResolver delegate = new FakeResolver();
+
+    @Test
+    public void testServesRepeatedCallsFromCache() throws Exception {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config());
+
+        CompletableFuture<TemplateDTO> first = resolver.getPrompt("project", "my-prompt", "prod");
+        delegate.complete(0, template("v1"));
+        TemplateDTO second = resolver.getPrompt("project", "my-prompt", "prod").get();
+
+        assertEquals("v1", first.get().getPromptTemplateVersionId());
+        assertSame(first.get(), second);
+        assertEquals(1, delegate.fetches.size());
+        assertEquals(1, resolver.getStats().getHits());
+        assertEquals(1, resolver.getStats().getMisses());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneFetch() throws Exception {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config());
+
+        CompletableFuture<TemplateDTO> first = resolver.getPrompt("project", "my-prompt", "prod");
+        CompletableFuture<TemplateDTO> second = resolver.getPrompt("project", "my-prompt", "prod");
+        assertFalse(first.isDone());
+        delegate.complete(0, template("v1"));
+
+        assertSame(first.get(), second.get());
+        assertEquals(1, delegate.fetches.size());
+        assertEquals(2, resolver.getStats().getMisses());
+    }
+
+    @Test
+    public void testServesStaleEntryWhileRefreshing() throws Exception {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config().ttl(Duration.ofSeconds(10)));
+        resolver.getPrompt("project", "my-prompt", "prod");
+        delegate.complete(0, template("v1"));
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertEquals("v1", resolver.getPrompt("project", "my-prompt", "prod").get().getPromptTemplateVersionId());
+        assertEquals("v1", resolver.getPrompt("project", "my-prompt", "prod").get().getPromptTemplateVersionId());
+        assertEquals(2, delegate.fetches.size());
+
+        delegate.complete(1, template("v2"));
+        assertEquals("v2", resolver.getPrompt("project", "my-prompt", "prod").get().getPromptTemplateVersionId());
+        assertEquals(1, resolver.getStats().getRefreshes());
+        assertEquals(2, resolver.getStats().getStaleHits());
+    }
+
+    @Test
+    public void testKeepsStaleEntryWhenRefreshFails() throws Exception {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config().ttl(Duration.ofSeconds(10)));
+        resolver.getPrompt("project", "my-prompt", "prod");
+        delegate.complete(0, template("v1"));
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        resolver.getPrompt("project", "my-prompt", "prod");
+        delegate.fetches.get(1).completeExceptionally(new FreeplayServerException("Unavailable"));
+
+        assertEquals("v1", resolver.getPrompt("project", "my-prompt", "prod").get().getPromptTemplateVersionId());
+        assertEquals(3, delegate.fetches.size());
+    }
+
+    @Test
+    public void testFailedFetchIsNotCached() {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config());
+
+        CompletableFuture<TemplateDTO> failed = resolver.getPrompt("project", "my-prompt", "prod");
+        delegate.fetches.get(0).completeExceptionally(new FreeplayServerException("Unavailable"));
+        ExecutionException exception = assertThrows(ExecutionException.class, failed::get);
+        assertEquals(FreeplayServerException.class, exception.getCause().getClass());
+
+        resolver.getPrompt("project", "my-prompt", "prod");
+        assertEquals(2, delegate.fetches.size());
+    }
+
+    @Test
+    public void testKeysOnEnvironmentAndVersion() {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config());
+
+        resolver.getPrompt("project", "my-prompt", "prod");
+        resolver.getPrompt("project", "my-prompt", "qa");
+        resolver.getPromptByVersionId("project", "template-id", "version-1");
+        resolver.getPromptByVersionId("project", "template-id", "version-2");
+
+        assertEquals(4, delegate.fetches.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        CachingTemplateResolver resolver = newResolver(new CachingTemplateResolver.Config().maxSize(2));
+        for (String name : List.of("a", "b", "c")) {
+            resolver.getPrompt("project", name, "prod");
+        }
+        for (int i = 0; i < 3; i++) {
+            delegate.complete(i, template("v1"));
+        }
+
+        resolver.getPrompt("project", "a", "prod");
+        assertEquals(4, delegate.fetches.size());
+        assertEquals(2, resolver.getStats().getSize());
+        assertTrue(resolver.getStats().getEvictions() >= 1);
+    }
+
+    private CachingTemplateResolver newResolver(CachingTemplateResolver.Config config) {
+        return new CachingTemplateResolver(delegate, config, clock::get);
+    }
+
+    private static TemplateDTO template(String versionId) {
+        return new TemplateDTO("template-id", versionId, "my-prompt", List.of(), null, 2, "project");
+    }
+
+    private static class FakeResolver implements TemplateResolver {
+        private final List<CompletableFuture<TemplateDTO>> fetches = new ArrayList<>();
+
+        private void complete(int index, TemplateDTO template) {
+            fetches.get(index).complete(template);
+        }
+
+        private CompletableFuture<TemplateDTO> fetch() {
+            CompletableFuture<TemplateDTO> future = new CompletableFuture<>();
+            fetches.add(future);
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<TemplatesDTO> getPrompts(String projectId, String environment) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<TemplateDTO> getPrompt(String projectId, String templateName, String environment) {
+            return fetch();
+        }
+
+        @Override
+        public CompletableFuture<TemplateDTO> getPromptByVersionId(String projectId, String templateId, String templateVersionId) {
+            return fetch();
+        }
+    }
+}
@@ -5,13 +5,21 @@ import ai.freeplay.client.internal.v2dto.TemplateDTO;
 import ai.freeplay.client.internal.v2dto.TemplatesDTO;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -402,6 +410,109 @@ public class FilesystemTemplateResolverTest extends HttpClientTestBase {
         }
     }
 
+    @Test
+    public void testServesCachedTemplateUntilFileChanges() throws Exception {
+        Path root = copyTestFilesDirectory();
+        Path templateFile = root.resolve("freeplay/prompts/" + projectId + "/prod/test-prompt.json");
+        FilesystemTemplateResolver resolver = new FilesystemTemplateResolver(root);
+
+        TemplateDTO first = resolver.getPrompt(projectId, "test-prompt", "prod").get();
+        assertSame(first, resolver.getPrompt(projectId, "test-prompt", "prod").get());
+        assertSame(first, getTemplate(resolver.getPrompts(projectId, "prod").get(), "test-prompt"));
+
+        Files.writeString(templateFile, Files.readString(templateFile).replace("claude-2.1", "claude-3-haiku"));
+        Files.setLastModifiedTime(templateFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        TemplateDTO updated = resolver.getPrompt(projectId, "test-prompt", "prod").get();
+        assertEquals("claude-3-haiku", updated.getMetadata().getModel());
+    }
+
+    @Test
+    public void testFindsVersionAddedAfterIndexIsBuilt() throws Exception {
+        Path root = copyTestFilesDirectory();
+        Path environmentDir = root.resolve("freeplay/prompts/" + projectId + "/prod");
+        FilesystemTemplateResolver resolver = new FilesystemTemplateResolver(root);
+
+        String templateId = "f4758834-9e93-448f-97a4-1cb126f7e328";
+        TemplateDTO existing = resolver.getPromptByVersionId(projectId, templateId, "41ee9a25-0e7a-4c0b-a42b-4b5239721d7b").get();
+        assertEquals("test-prompt-with-history", existing.getPromptTemplateName());
+
+        String newVersionId = "0f5c7a8e-8c2a-4a57-9a38-2f0d6ff3a001";
+        Files.writeString(environmentDir.resolve("test-prompt-new.json"), Files.readString(environmentDir.resolve("test-prompt-with-history.json"))
+                .replace("41ee9a25-0e7a-4c0b-a42b-4b5239721d7b", newVersionId)
+                .replace("\"test-prompt-with-history\"", "\"test-prompt-new\""));
+
+        TemplateDTO added = resolver.getPromptByVersionId(projectId, templateId, newVersionId).get();
+        assertEquals("test-prompt-new", added.getPromptTemplateName());
+        assertTrue(getTemplateWithName(resolver.getPrompts(projectId, "prod").get(), "test-prompt-new").isPresent());
+    }
+
+    @Test
+    public void testWatchingResolverReloadsChangedFiles() throws Exception {
+        Path root = copyTestFilesDirectory();
+        Path environmentDir = root.resolve("freeplay/prompts/" + projectId + "/prod");
+        try (FilesystemTemplateResolver resolver = FilesystemTemplateResolver.watching(root)) {
+            assertEquals("claude-2.1", resolver.getPrompt(projectId, "test-prompt", "prod").get().getMetadata().getModel());
+
+            // Write the new version next to the old one and move it into place, as a bundle sync would.
+            Path staged = environmentDir.resolve("test-prompt.json.tmp");
+            Files.writeString(staged, Files.readString(environmentDir.resolve("test-prompt.json")).replace("claude-2.1", "claude-3-haiku"));
+            Files.move(staged, environmentDir.resolve("test-prompt.json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            awaitModel(resolver, "claude-3-haiku");
+            assertTrue(resolver.getReloadStats().getReloads() >= 1);
+        }
+    }
+
+    @Test
+    public void testWatchingResolverKeepsPreviousTemplateWhenFileIsInvalid() throws Exception {
+        Path root = copyTestFilesDirectory();
+        Path templateFile = root.resolve("freeplay/prompts/" + projectId + "/prod/test-prompt.json");
+        try (FilesystemTemplateResolver resolver = FilesystemTemplateResolver.watching(root)) {
+            resolver.getPrompt(projectId, "test-prompt", "prod").get();
+
+            Files.writeString(templateFile, "{\"content\": [");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (resolver.getReloadStats().getFailures() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertTrue(resolver.getReloadStats().getFailures() >= 1);
+            assertEquals("claude-2.1", resolver.getPrompt(projectId, "test-prompt", "prod").get().getMetadata().getModel());
+        }
+    }
+
+    @Test
+    public void testReaderThatMissedTheCacheDoesNotReplaceReloadedTemplate() throws Exception {
+        Path root = copyTestFilesDirectory();
+        Path templateFile = root.resolve("freeplay/prompts/" + projectId + "/prod/test-prompt.json");
+        // What a reader that missed the cache read and parsed before the file changed.
+        BasicFileAttributes staleAttributes = Files.readAttributes(templateFile, BasicFileAttributes.class);
+        TemplateDTO staleTemplate = new FilesystemTemplateResolver(root).getPrompt(projectId, "test-prompt", "prod").get();
+
+        try (FilesystemTemplateResolver resolver = FilesystemTemplateResolver.watching(root)) {
+            Files.writeString(templateFile, Files.readString(templateFile).replace("claude-2.1", "claude-3-haiku"));
+            Files.setLastModifiedTime(templateFile,
+                    FileTime.fromMillis(staleAttributes.lastModifiedTime().toMillis() + 1000));
+            awaitModel(resolver, "claude-3-haiku");
+
+            // The reader stores its result after the watcher reloaded the file.
+            TemplateDTO served = resolver.cache(templateFile, staleAttributes, projectId, staleTemplate);
+
+            assertEquals("claude-3-haiku", served.getMetadata().getModel());
+            assertEquals("claude-3-haiku", resolver.getPrompt(projectId, "test-prompt", "prod").get().getMetadata().getModel());
+        }
+    }
+
+    private void awaitModel(FilesystemTemplateResolver resolver, String model) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!model.equals(resolver.getPrompt(projectId, "test-prompt", "prod").get().getMetadata().getModel())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(model, resolver.getPrompt(projectId, "test-prompt", "prod").get().getMetadata().getModel());
+    }
+
     private TemplateDTO getTemplate(TemplatesDTO templates, String name) {
         Optional<TemplateDTO> maybeTemplate = getTemplateWithName(templates, name);
         assertTrue(String.format("Unable to find template %s", name), maybeTemplate.isPresent());
@@ -423,6 +534,24 @@ public class FilesystemTemplateResolverTest extends HttpClientTestBase {
         return path;
     }
 
+    private Path copyTestFilesDirectory() throws IOException {
+        Path source = getTestFilesDirectory();
+        Path target = Files.createTempDirectory("freeplay-prompts");
+        target.toFile().deleteOnExit();
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.collect(Collectors.toList())) {
+                Path copy = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(path, copy);
+                }
+                copy.toFile().deleteOnExit();
+            }
+        }
+        return target;
+    }
+
     private Path getTestFilesDirectory() {
         Path path = FileSystems.getDefault().getPath("src", "test", "testfiles", "prompts");
         assertTrue(path.toFile().exists());
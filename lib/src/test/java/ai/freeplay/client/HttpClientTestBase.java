@@ -29,6 +29,10 @@ public abstract class HttpClientTestBase {
         }
     }
 
+    protected HttpClient.Builder getMockedClientBuilder() {
+        return mockedClientBuilder;
+    }
+
     public interface ThrowingConsumer<Value> {
         void accept(Value value) throws Exception;
     }
@@ -0,0 +1,72 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.adapters.LLMAdapters;
+import ai.freeplay.client.adapters.LLMAdapters.LLMAdapter;
+import ai.freeplay.client.adapters.OpenAILLMAdapter;
+import ai.freeplay.client.exceptions.FreeplayConfigurationException;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class LLMAdaptersTest {
+
+    @Test
+    public void testReturnsSharedAdapterForFlavor() {
+        LLMAdapter<?> adapter = LLMAdapters.adapterForFlavor("openai_chat");
+
+        assertEquals(OpenAILLMAdapter.class, adapter.getClass());
+        assertSame(adapter, LLMAdapters.adapterForFlavor("openai_chat"));
+        assertSame(LLMAdapters.adapterForFlavor("bedrock_converse"), LLMAdapters.adapterForFlavor("amazon_bedrock_converse"));
+    }
+
+    @Test
+    public void testUnknownFlavor() {
+        FreeplayConfigurationException exception = assertThrows(
+                FreeplayConfigurationException.class,
+                () -> LLMAdapters.adapterForFlavor("not_a_flavor"));
+        assertTrue(exception.getMessage().contains("Unable to create LLMAdapter for name 'not_a_flavor'"));
+    }
+
+    @Test
+    public void testLoadsAdaptersFromServiceLoader() {
+        LLMAdapter<?> adapter = LLMAdapters.adapterForFlavor("in_house_uppercase");
+
+        assertEquals(UppercaseAdapter.class, adapter.getClass());
+        assertEquals("HELLO", adapter.toLLMSyntax(List.of(new ChatMessage("user", "hello"))));
+        assertTrue(LLMAdapters.getFlavorNames().contains("in_house_uppercase"));
+    }
+
+    @Test
+    public void testServiceLoaderCannotReplaceBuiltInFlavor() {
+        assertEquals(OpenAILLMAdapter.class, LLMAdapters.adapterForFlavor("openai_chat").getClass());
+    }
+
+    @Test
+    public void testRegistersAdapter() {
+        UppercaseAdapter adapter = new UppercaseAdapter();
+        LLMAdapters.register("registered_uppercase", adapter);
+
+        assertSame(adapter, LLMAdapters.adapterForFlavor("registered_uppercase"));
+    }
+
+    public static class UppercaseAdapter implements LLMAdapter<String> {
+        @Override
+        public String getProvider() {
+            return "in_house";
+        }
+
+        @Override
+        public List<String> getFlavorNames() {
+            return List.of("in_house_uppercase", "openai_chat");
+        }
+
+        @Override
+        public String toLLMSyntax(List<ChatMessage> messages) {
+            return messages.stream().map(message -> message.getContent().toUpperCase()).collect(joining("\n"));
+        }
+    }
+}
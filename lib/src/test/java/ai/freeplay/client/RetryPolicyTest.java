@@ -0,0 +1,177 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.exceptions.FreeplayServerException;
+import ai.freeplay.client.resources.promptdatasets.PromptDataset;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class RetryPolicyTest {
+    private static final String projectId = UUID.randomUUID().toString();
+    private static final String DATASET = "{\"id\": \"dataset-id\", \"name\": \"My Dataset\", \"input_names\": [\"question\"]}";
+
+    private StubServer server;
+
+    @Before
+    public void beforeEach() throws IOException {
+        server = new StubServer();
+    }
+
+    @After
+    public void afterEach() {
+        server.stop();
+    }
+
+    @Test
+    public void testRetriesGetUntilItSucceeds() throws Exception {
+        server.respond(502, 502, 200);
+        try (Freeplay fpClient = newClient(new RetryPolicy().maxAttempts(3))) {
+            PromptDataset dataset = fpClient.promptDatasets().get(projectId, "dataset-id").get(5, TimeUnit.SECONDS);
+
+            assertEquals("dataset-id", dataset.getId());
+            assertEquals(3, server.requests.get());
+            assertEquals(2, fpClient.getRetryStats().getRetries());
+            assertEquals(1, fpClient.getRetryStats().getRecovered());
+        }
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        server.respond(503, 503, 503, 200);
+        try (Freeplay fpClient = newClient(new RetryPolicy().maxAttempts(2))) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () ->
+                    fpClient.promptDatasets().get(projectId, "dataset-id").get(5, TimeUnit.SECONDS));
+
+            assertEquals(FreeplayServerException.class, exception.getCause().getClass());
+            assertEquals(2, server.requests.get());
+            assertEquals(1, fpClient.getRetryStats().getExhausted());
+        }
+    }
+
+    @Test
+    public void testRetriesCompletionWithIdButNotWithout() throws Exception {
+        try (Freeplay fpClient = newClient(new RetryPolicy().maxAttempts(3))) {
+            server.respond(502, 201);
+            fpClient.recordings().create(recordPayload().completionId(UUID.randomUUID())).get(5, TimeUnit.SECONDS);
+            assertEquals(2, server.requests.get());
+
+            server.respond(502, 201);
+            assertThrows(ExecutionException.class, () ->
+                    fpClient.recordings().create(recordPayload()).get(5, TimeUnit.SECONDS));
+            assertEquals(1, server.requests.get());
+        }
+    }
+
+    @Test
+    public void testHonorsRetryAfterOnTooManyRequests() throws Exception {
+        server.retryAfter = "1";
+        server.respond(429, 201);
+        try (Freeplay fpClient = newClient(new RetryPolicy().maxAttempts(2))) {
+            long start = System.nanoTime();
+            fpClient.recordings().create(recordPayload()).get(5, TimeUnit.SECONDS);
+
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+            assertEquals(2, server.requests.get());
+        }
+    }
+
+    @Test
+    public void testDoesNotRetryPastDeadline() {
+        server.retryAfter = "10";
+        server.respond(429, 201);
+        try (Freeplay fpClient = newClient(new RetryPolicy().deadline(Duration.ofSeconds(1)))) {
+            assertThrows(ExecutionException.class, () ->
+                    fpClient.recordings().create(recordPayload()).get(5, TimeUnit.SECONDS));
+            assertEquals(1, server.requests.get());
+        }
+    }
+
+    @Test
+    public void testBackoffUsesFullJitterUpToCap() {
+        RetryPolicy policy = new RetryPolicy().initialBackoff(Duration.ofMillis(100)).maxBackoff(Duration.ofMillis(350));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoffMillis(1) <= 100);
+            assertTrue(policy.backoffMillis(2) <= 200);
+            assertTrue(policy.backoffMillis(10) <= 350);
+            assertTrue(policy.backoffMillis(100) >= 0);
+        }
+    }
+
+    private Freeplay newClient(RetryPolicy retryPolicy) {
+        return new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl(server.baseUrl())
+                .httpConfig(new HttpConfig().retryPolicy(retryPolicy.initialBackoff(Duration.ofMillis(5)))));
+    }
+
+    private static RecordPayload recordPayload() {
+        return new RecordPayload(projectId, List.of(
+                new ChatMessage("user", "Question"),
+                new ChatMessage("assistant", "Answer")
+        ));
+    }
+
+    private static class StubServer {
+        private final HttpServer httpServer;
+        private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile String retryAfter;
+
+        private StubServer() throws IOException {
+            httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            httpServer.createContext("/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                requests.incrementAndGet();
+                Integer next = statuses.poll();
+                int status = next != null ? next : 200;
+                String body = status < 300
+                        ? (exchange.getRequestMethod().equals("GET")
+                        ? DATASET
+                        : "{\"completion_id\":\"c\"}")
+                        : "{\"message\":\"unavailable\"}";
+                if (retryAfter != null) {
+                    exchange.getResponseHeaders().add("Retry-After", retryAfter);
+                }
+                byte[] response = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, response.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(response);
+                }
+            });
+            httpServer.start();
+        }
+
+        private void respond(Integer... statuses) {
+            requests.set(0);
+            this.statuses.clear();
+            this.statuses.addAll(List.of(statuses));
+        }
+
+        private String baseUrl() {
+            return "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/api";
+        }
+
+        private void stop() {
+            httpServer.stop(0);
+        }
+    }
+}
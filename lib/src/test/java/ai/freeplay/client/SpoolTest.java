@@ -0,0 +1,272 @@
+package ai.freeplay.client;
+
+import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.internal.spool.Spool;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static ai.freeplay.client.internal.utilities.MockFixtures.projectId;
+import static org.junit.Assert.*;
+
+public class SpoolTest {
+    private StubServer server;
+    private Path spoolDirectory;
+
+    @Before
+    public void beforeEach() throws IOException {
+        server = new StubServer();
+        spoolDirectory = Files.createTempDirectory("freeplay-spool");
+    }
+
+    @After
+    public void afterEach() throws IOException {
+        server.stop();
+        try (Stream<Path> paths = Files.walk(spoolDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSpoolsWhileApiIsDownAndReplaysOnRecovery() throws Exception {
+        server.status = 503;
+        try (Freeplay fpClient = newClient()) {
+            UUID completionId = UUID.randomUUID();
+            RecordResponse response = fpClient.recordings()
+                    .create(recordPayload("first").completionId(completionId))
+                    .get(5, TimeUnit.SECONDS);
+            RecordPayload second = recordPayload("second");
+            RecordResponse secondResponse = fpClient.recordings().create(second).get(5, TimeUnit.SECONDS);
+            fpClient.recordings().create(recordPayload("third")).get(5, TimeUnit.SECONDS);
+
+            assertEquals(completionId.toString(), response.getCompletionId());
+            // A record without an ID is given one, so it can be answered before it is sent.
+            assertNotNull(secondResponse.getCompletionId());
+            assertNull(second.getCompletionId());
+            assertTrue(server.accepted.isEmpty());
+
+            server.status = 201;
+            awaitAccepted(3);
+            assertTrue(server.accepted.peek().contains("first"));
+            assertTrue(server.accepted.stream().anyMatch(body -> body.contains(secondResponse.getCompletionId())));
+        }
+    }
+
+    @Test
+    public void testSpooledRecordsSurviveRestart() throws Exception {
+        server.status = 503;
+        try (Freeplay fpClient = newClient()) {
+            fpClient.recordings().create(recordPayload("first")).get(5, TimeUnit.SECONDS);
+            fpClient.recordings().create(recordPayload("second")).get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(server.accepted.isEmpty());
+
+        server.status = 201;
+        try (Freeplay ignored = newClient()) {
+            awaitAccepted(2);
+        }
+    }
+
+    @Test
+    public void testHungUploadIsReplayedAfterTimeout() throws Exception {
+        server.status = 503;
+        try (Freeplay fpClient = newClient(new SpoolConfig(spoolDirectory)
+                .initialBackoff(Duration.ofMillis(20))
+                .uploadTimeout(Duration.ofMillis(200)))) {
+            fpClient.recordings().create(recordPayload("first")).get(5, TimeUnit.SECONDS);
+
+            server.hangNext = true;
+            server.status = 201;
+            awaitAccepted(1);
+        }
+    }
+
+    @Test
+    public void testCloseWaitsOutASlowUploadWithinTheTimeout() throws Exception {
+        server.status = 503;
+        try (Freeplay fpClient = newClient()) {
+            fpClient.recordings().create(recordPayload("first")).get(5, TimeUnit.SECONDS);
+
+            server.delayNext = Duration.ofSeconds(6);
+            server.status = 201;
+            assertTrue(server.delayedReceived.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, server.accepted.size());
+
+        // The record was acknowledged before the spool closed, so it is not replayed on the next start.
+        try (Freeplay ignored = newClient()) {
+            Thread.sleep(500);
+        }
+        assertEquals(1, server.accepted.size());
+    }
+
+    @Test
+    public void testRejectedRecordsAreNotSpooled() {
+        server.status = 400;
+        try (Freeplay fpClient = newClient()) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () ->
+                    fpClient.recordings().create(recordPayload("rejected")).get(5, TimeUnit.SECONDS));
+            assertEquals(FreeplayClientException.class, exception.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testTornWriteIsDiscardedOnReopen() throws Exception {
+        try (Spool spool = Spool.open(spoolDirectory, 4096, 1024 * 1024)) {
+            spool.append("complete".getBytes(StandardCharsets.UTF_8));
+            spool.append("torn".getBytes(StandardCharsets.UTF_8));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        // Corrupt the payload of the second entry: header (16) + first entry (8 + 8) + entry header (8).
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(16 + 16 + 8);
+            file.write('X');
+        }
+
+        try (Spool spool = Spool.open(spoolDirectory, 4096, 1024 * 1024)) {
+            assertEquals("complete", new String(spool.peek(), StandardCharsets.UTF_8));
+            spool.acknowledge();
+            assertNull(spool.peek());
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRotatesSegmentsAndDeletesConsumedOnes() throws Exception {
+        try (Spool spool = Spool.open(spoolDirectory, 64, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                spool.append(("entry-" + i + "-padding-to-fill-a-segment").getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(5, countSegments());
+
+            for (int i = 0; i < 5; i++) {
+                assertTrue(new String(spool.peek(), StandardCharsets.UTF_8).startsWith("entry-" + i));
+                spool.acknowledge();
+            }
+            assertTrue(spool.isEmpty());
+            assertEquals(1, countSegments());
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    private Freeplay newClient() {
+        return newClient(new SpoolConfig(spoolDirectory)
+                .drainRatePerSecond(1000)
+                .initialBackoff(Duration.ofMillis(20))
+                .maxBackoff(Duration.ofMillis(100)));
+    }
+
+    private Freeplay newClient(SpoolConfig spoolConfig) {
+        return new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl(server.baseUrl())
+                .spool(spoolConfig));
+    }
+
+    private static RecordPayload recordPayload(String content) {
+        return new RecordPayload(projectId, List.of(
+                new ChatMessage("user", "Question"),
+                new ChatMessage("assistant", content)
+        ));
+    }
+
+    private void awaitAccepted(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.accepted.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, server.accepted.size());
+    }
+
+    private static class StubServer {
+        private final HttpServer httpServer;
+        private final ExecutorService handlers = Executors.newCachedThreadPool();
+        private final Queue<String> accepted = new ConcurrentLinkedQueue<>();
+        private final CountDownLatch hung = new CountDownLatch(1);
+        private final CountDownLatch delayedReceived = new CountDownLatch(1);
+        private volatile int status = 201;
+        private volatile boolean hangNext;
+        private volatile Duration delayNext;
+
+        private StubServer() throws IOException {
+            httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            httpServer.createContext("/", exchange -> {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if (hangNext) {
+                    hangNext = false;
+                    try {
+                        hung.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    exchange.close();
+                    return;
+                }
+                Duration delay = delayNext;
+                if (delay != null) {
+                    delayNext = null;
+                    delayedReceived.countDown();
+                    try {
+                        Thread.sleep(delay.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                int responseStatus = status;
+                if (responseStatus == 201) {
+                    accepted.add(body);
+                }
+                byte[] response = "{\"completion_id\":\"c\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(responseStatus, response.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(response);
+                }
+            });
+            httpServer.setExecutor(handlers);
+            httpServer.start();
+        }
+
+        private String baseUrl() {
+            return "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/api";
+        }
+
+        private void stop() {
+            hung.countDown();
+            httpServer.stop(0);
+            handlers.shutdown();
+        }
+    }
+}
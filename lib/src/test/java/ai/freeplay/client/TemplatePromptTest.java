@@ -1,5 +1,6 @@
 package ai.freeplay.client;
 
+import ai.freeplay.client.exceptions.FreeplayClientException;
 import ai.freeplay.client.exceptions.FreeplayConfigurationException;
 import ai.freeplay.client.internal.v2dto.TemplateDTO;
 import ai.freeplay.client.media.MediaInputBase64;
@@ -15,6 +16,7 @@ import java.net.http.HttpRequest;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 
@@ -126,6 +128,54 @@ public class TemplatePromptTest extends HttpClientTestBase {
         ), boundPrompt.getMessages());
     }
 
+    @Test
+    public void testCompileIsReusedAcrossBinds() {
+        List<ChatMessage> messages = List.of(
+                new ChatMessage("system", "You are a {{role}} for {{company.name}}."),
+                new KindMessage("history"),
+                new ChatMessage("user", "{{#documents}}{{title}} {{/documents}}{{query}}")
+        );
+
+        TemplatePrompt prompt = new TemplatePrompt(null, messages);
+        CompiledTemplatePrompt compiled = prompt.compile();
+        assertSame(compiled, prompt.compile());
+        assertTrue(compiled.hasHistoryPlaceholder());
+        assertEquals(Set.of("role", "company", "documents", "query"), compiled.getVariableNames());
+
+        BoundPrompt first = compiled.bind(new TemplatePrompt.BindRequest(Map.of(
+                "role", "support agent", "company", Map.of("name", "Acme"), "documents", List.of(), "query", "Hi")));
+        BoundPrompt second = compiled.bind(new TemplatePrompt.BindRequest(Map.of(
+                "role", "sales agent", "company", Map.of("name", "Acme"), "documents", List.of(), "query", "Bye")));
+
+        assertEquals(List.of(
+                new ChatMessage("system", "You are a support agent for Acme."),
+                new ChatMessage("user", "Hi")
+        ), first.getMessages());
+        assertEquals(List.of(
+                new ChatMessage("system", "You are a sales agent for Acme."),
+                new ChatMessage("user", "Bye")
+        ), second.getMessages());
+    }
+
+    @Test
+    public void testOutputSchemaChangeRecompiles() {
+        TemplatePrompt prompt = new TemplatePrompt(null, List.of(new ChatMessage("user", "{{query}}")));
+        CompiledTemplatePrompt before = prompt.compile();
+
+        Map<String, Object> outputSchema = Map.of("type", "object");
+        prompt.outputSchema(outputSchema);
+
+        assertNotSame(before, prompt.compile());
+        assertEquals(outputSchema, prompt.compile().getOutputSchema());
+    }
+
+    @Test
+    public void testCompileRejectsStructuredMessages() {
+        TemplatePrompt prompt = new TemplatePrompt(null, List.of(new ChatMessage("user", List.of(new ContentPartText("Hi")))));
+
+        assertThrows(FreeplayClientException.class, prompt::compile);
+    }
+
     @Test
     public void testOutputSchemaWithOpenAI() {
         Map<String, Object> outputSchema = new HashMap<>();
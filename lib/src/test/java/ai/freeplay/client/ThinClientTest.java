@@ -2,6 +2,7 @@ package ai.freeplay.client;
 
 import ai.freeplay.client.exceptions.FreeplayClientException;
 import ai.freeplay.client.exceptions.FreeplayConfigurationException;
+import ai.freeplay.client.exceptions.FreeplayException;
 import ai.freeplay.client.internal.CallSupport;
 import ai.freeplay.client.internal.JSONUtil;
 import ai.freeplay.client.internal.dto.RecordDTO;
@@ -39,6 +40,7 @@ import static ai.freeplay.client.internal.utilities.MockMethods.getCapturedAsync
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class ThinClientTest extends HttpClientTestBase {
@@ -874,6 +876,33 @@ public class ThinClientTest extends HttpClientTestBase {
         });
     }
 
+    @Test
+    public void testSharesOneHttpClientAcrossResources() {
+        withMockedClient((HttpClient mockedClient) -> {
+            mockGetPromptV2Async(
+                    mockedClient, templateName, "prod", getChatPromptContentObjects(), openAILLMParameters, "openai_chat"
+            );
+            mockUpdateCustomerFeedbackAsync(mockedClient);
+            mockUpdateTraceFeedbackAsync(mockedClient);
+
+            Freeplay fpClient = new Freeplay(Config().freeplayAPIKey(freeplayApiKey).baseUrl(baseUrl));
+
+            fpClient.prompts().get(projectId, templateName, "prod").get();
+            fpClient.prompts().get(projectId, templateName, "prod").get();
+            fpClient.customerFeedback().update(projectId, UUID.randomUUID().toString(), Map.of("helpful", true)).get();
+            fpClient.customerFeedback().updateTrace(projectId, UUID.randomUUID().toString(), Map.of("helpful", true)).get();
+
+            verify(getMockedClientBuilder(), times(1)).build();
+            verify(mockedClient, times(4)).sendAsync(any(), any());
+
+            fpClient.close();
+            assertThrows(
+                    FreeplayException.class,
+                    () -> fpClient.customerFeedback().update(projectId, UUID.randomUUID().toString(), Map.of("helpful", true))
+            );
+        });
+    }
+
     @Test
     public void testHandlesUnauthorizedOnCustomerFeedback() {
         withMockedClient((HttpClient mockedClient) -> {
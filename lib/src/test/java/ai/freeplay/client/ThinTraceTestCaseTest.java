@@ -223,7 +223,7 @@ public class ThinTraceTestCaseTest extends HttpClientTestBase {
 
             try {
                 when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/test-runs"))
-                        .thenReturn(asyncResponse(201, buildSingleTraceTestRunPayload(testRunId, testCaseId)));
+                        .thenAnswer(handledAsyncResponse(201, buildSingleTraceTestRunPayload(testRunId, testCaseId)));
                 when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/sessions/[^/]*/traces/id/[^/]*"))
                         .thenReturn(asyncResponse(201, ""));
             } catch (Exception e) {
@@ -261,8 +261,8 @@ public class ThinTraceTestCaseTest extends HttpClientTestBase {
     private void mockCreateTestRunWithTraceTestCasesAsync(HttpClient mockedClient) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/test-runs"))
-                    .thenReturn(
-                            asyncResponse(201, getTestRunTraceTestCasesResponsePayload(UUID.randomUUID().toString())));
+                    .thenAnswer(
+                            handledAsyncResponse(201, getTestRunTraceTestCasesResponsePayload(UUID.randomUUID().toString())));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -271,8 +271,8 @@ public class ThinTraceTestCaseTest extends HttpClientTestBase {
     private void mockCreateTestRunWithCompletionTestCasesAsync(HttpClient mockedClient) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/test-runs"))
-                    .thenReturn(
-                            asyncResponse(201, getTestRunCompletionTestCasesResponsePayload(UUID.randomUUID().toString())));
+                    .thenAnswer(
+                            handledAsyncResponse(201, getTestRunCompletionTestCasesResponsePayload(UUID.randomUUID().toString())));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,100 @@
+package ai.freeplay.client.blocking;
+
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.resources.promptdatasets.PromptDataset;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class BlockingFreeplayTest {
+    private static final String DATASET = "{\"id\": \"dataset-id\", \"name\": \"My Dataset\", \"input_names\": [\"question\"]}";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @Before
+    public void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            boolean found = exchange.getRequestURI().getPath().endsWith("/dataset-id");
+            byte[] body = (found ? DATASET : "{\"message\": \"Not found\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void afterEach() {
+        server.stop(0);
+        serverExecutor.shutdown();
+    }
+
+    @Test
+    public void testReturnsResultDirectly() {
+        try (Freeplay fpClient = newClient(new HttpConfig())) {
+            PromptDataset dataset = fpClient.blocking().promptDatasets().get("project-id", "dataset-id");
+
+            assertEquals("dataset-id", dataset.getId());
+            assertEquals("My Dataset", dataset.getName());
+        }
+    }
+
+    @Test
+    public void testThrowsFreeplayExceptionUnwrapped() {
+        try (Freeplay fpClient = newClient(new HttpConfig())) {
+            FreeplayClientException exception = assertThrows(FreeplayClientException.class,
+                    () -> fpClient.blocking().promptDatasets().get("project-id", "missing"));
+
+            assertTrue(exception.getMessage().contains("404"));
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsOptionWorksOnAnyRuntime() throws Exception {
+        // On JDK 11-20 the option falls back to the default executor; on 21+ responses are handled on virtual threads.
+        try (Freeplay fpClient = newClient(new HttpConfig().virtualThreads(true))) {
+            ExecutorService callers = Executors.newFixedThreadPool(8);
+            try {
+                List<Callable<PromptDataset>> calls = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    calls.add(() -> fpClient.blocking().promptDatasets().get("project-id", "dataset-id"));
+                }
+                for (Future<PromptDataset> result : callers.invokeAll(calls, 10, TimeUnit.SECONDS)) {
+                    assertEquals("dataset-id", result.get().getId());
+                }
+            } finally {
+                callers.shutdown();
+            }
+        }
+    }
+
+    private Freeplay newClient(HttpConfig httpConfig) {
+        return new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api")
+                .httpConfig(httpConfig));
+    }
+}
@@ -0,0 +1,167 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.CircuitBreaker;
+import ai.freeplay.client.CircuitBreaker.Endpoint;
+import ai.freeplay.client.CircuitBreaker.State;
+import ai.freeplay.client.internal.CircuitBreakers.Circuit;
+import ai.freeplay.client.internal.CircuitBreakers.Permit;
+import org.junit.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakersTest {
+    private final List<String> transitions = new ArrayList<>();
+
+    @Test
+    public void testClassifiesEndpointFamilies() {
+        assertEquals(Endpoint.COMPLETIONS, CircuitBreakers.endpointFor("/api/v2/projects/p/sessions/s/completions"));
+        assertEquals(Endpoint.TRACES, CircuitBreakers.endpointFor("/api/v2/projects/p/sessions/s/traces/id/t"));
+        assertEquals(Endpoint.TEMPLATES, CircuitBreakers.endpointFor("/api/v2/projects/p/prompt-templates/name/n"));
+        assertEquals(Endpoint.DATASETS, CircuitBreakers.endpointFor("/api/v2/projects/p/prompt-datasets/d/test-cases"));
+        assertEquals(Endpoint.DATASETS, CircuitBreakers.endpointFor("/api/v2/projects/p/agent-datasets"));
+        assertEquals(Endpoint.FEEDBACK, CircuitBreakers.endpointFor("/api/v2/projects/p/completion-feedback/id/c"));
+        assertEquals(Endpoint.FEEDBACK, CircuitBreakers.endpointFor("/api/v2/projects/p/trace-feedback/id/t"));
+        assertEquals(Endpoint.OTHER, CircuitBreakers.endpointFor("/api/v2/projects/p/test-runs"));
+        assertEquals(Endpoint.OTHER, CircuitBreakers.endpointFor("/api/v2/projects/p/sessions/id/s/metadata"));
+    }
+
+    @Test
+    public void testClassifiesByPathTemplateNotByName() {
+        assertEquals(Endpoint.TEMPLATES, CircuitBreakers.endpointFor("/api/v2/projects/p/prompt-templates/name/completions"));
+        assertEquals(Endpoint.DATASETS, CircuitBreakers.endpointFor("/api/v2/projects/p/prompt-datasets/traces/test-cases"));
+        assertEquals(Endpoint.OTHER, CircuitBreakers.endpointFor("/api/v2/projects/p/test-runs/id/trace-feedback"));
+        CircuitBreakers breakers = new CircuitBreakers(config());
+        assertEquals(Endpoint.TEMPLATES, breakers.forUri(
+                URI.create("http://localhost/api/v2/projects/p/prompt-templates/name/a%2Ftraces%2Fb")).getEndpoint());
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        CircuitBreakers breakers = new CircuitBreakers(config().openDuration(Duration.ofHours(1)));
+        Circuit completions = breakers.forUri(URI.create("http://localhost/api/v2/projects/p/sessions/s/completions"));
+
+        for (int i = 0; i < 3; i++) {
+            completions.onResult(completions.tryAcquire(), true, 0, false);
+        }
+        assertEquals(State.CLOSED, completions.getState());
+        completions.onResult(completions.tryAcquire(), true, 0, true);
+        completions.onResult(completions.tryAcquire(), true, 0, true);
+        completions.onResult(completions.tryAcquire(), true, 0, true);
+
+        assertEquals(State.OPEN, completions.getState());
+        assertSame(Permit.REJECTED, completions.tryAcquire());
+        assertEquals(State.CLOSED, breakers.getStates().get(Endpoint.TEMPLATES));
+        assertEquals(List.of("COMPLETIONS CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    public void testOpensOnSlowCalls() {
+        CircuitBreakers breakers = new CircuitBreakers(config()
+                .slowCallDuration(Duration.ofMillis(100))
+                .slowCallRateThreshold(0.5));
+        Circuit traces = breakers.forUri(URI.create("http://localhost/api/v2/projects/p/sessions/s/traces/id/t"));
+
+        for (int i = 0; i < 4; i++) {
+            traces.onResult(traces.tryAcquire(), true, Duration.ofMillis(i < 2 ? 10 : 500).toNanos(), false);
+        }
+
+        assertEquals(State.OPEN, traces.getState());
+    }
+
+    @Test
+    public void testHalfOpenTrialsCloseOrReopen() {
+        CircuitBreakers breakers = new CircuitBreakers(config().openDuration(Duration.ZERO).halfOpenTrials(2));
+        Circuit datasets = breakers.forUri(URI.create("http://localhost/api/v2/projects/p/prompt-datasets"));
+        tripOpen(datasets);
+
+        Permit first = datasets.tryAcquire();
+        Permit second = datasets.tryAcquire();
+        assertTrue(first.isTrial());
+        assertTrue(second.isTrial());
+        assertSame(Permit.REJECTED, datasets.tryAcquire());
+        datasets.onResult(first, true, 0, true);
+        assertEquals(State.OPEN, datasets.getState());
+
+        Permit retry = datasets.tryAcquire();
+        // A late success from the previous round does not count towards closing.
+        datasets.onResult(second, true, 0, false);
+        datasets.onResult(retry, true, 0, false);
+        assertEquals(State.HALF_OPEN, datasets.getState());
+        Permit last = datasets.tryAcquire();
+        datasets.onResult(last, true, 0, false);
+
+        assertEquals(State.CLOSED, datasets.getState());
+        assertEquals(List.of(
+                "DATASETS CLOSED->OPEN",
+                "DATASETS OPEN->HALF_OPEN",
+                "DATASETS HALF_OPEN->OPEN",
+                "DATASETS OPEN->HALF_OPEN",
+                "DATASETS HALF_OPEN->CLOSED"
+        ), transitions);
+    }
+
+    @Test
+    public void testUnsentTrialReleasesItsPermit() {
+        CircuitBreakers breakers = new CircuitBreakers(config().openDuration(Duration.ZERO).halfOpenTrials(1));
+        Circuit feedback = breakers.forUri(URI.create("http://localhost/api/v2/projects/p/trace-feedback/id/t"));
+        tripOpen(feedback);
+
+        Permit trial = feedback.tryAcquire();
+        assertSame(Permit.REJECTED, feedback.tryAcquire());
+        feedback.onResult(trial, false, 0, false);
+
+        assertEquals(State.HALF_OPEN, feedback.getState());
+        assertTrue(feedback.tryAcquire().isTrial());
+    }
+
+    @Test
+    public void testOverdueTrialReopensTheCircuit() throws Exception {
+        CircuitBreakers breakers = new CircuitBreakers(config()
+                .openDuration(Duration.ZERO)
+                .halfOpenTrials(1)
+                .slowCallDuration(Duration.ofMillis(20)));
+        Circuit templates = breakers.forUri(URI.create("http://localhost/api/v2/projects/p/prompt-templates/name/n"));
+        tripOpen(templates);
+
+        Permit hung = templates.tryAcquire();
+        assertTrue(hung.isTrial());
+        Thread.sleep(50);
+        assertSame(Permit.REJECTED, templates.tryAcquire());
+        assertEquals(State.OPEN, templates.getState());
+
+        Permit next = templates.tryAcquire();
+        assertTrue(next.isTrial());
+        templates.onResult(hung, true, 0, false);
+        assertEquals(State.HALF_OPEN, templates.getState());
+        templates.onResult(next, true, 0, false);
+
+        assertEquals(State.CLOSED, templates.getState());
+        assertEquals(List.of(
+                "TEMPLATES CLOSED->OPEN",
+                "TEMPLATES OPEN->HALF_OPEN",
+                "TEMPLATES HALF_OPEN->OPEN",
+                "TEMPLATES OPEN->HALF_OPEN",
+                "TEMPLATES HALF_OPEN->CLOSED"
+        ), transitions);
+    }
+
+    private CircuitBreaker config() {
+        return new CircuitBreaker()
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .listener((endpoint, from, to) -> transitions.add(endpoint + " " + from + "->" + to));
+    }
+
+    private static void tripOpen(Circuit circuit) {
+        for (int i = 0; i < 4; i++) {
+            circuit.onResult(circuit.tryAcquire(), true, 0, true);
+        }
+        assertEquals(State.OPEN, circuit.getState());
+    }
+}
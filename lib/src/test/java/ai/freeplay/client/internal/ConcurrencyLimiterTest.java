@@ -0,0 +1,153 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.ConcurrencyLimit;
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.internal.utilities.StubHttpResponse;
+import org.junit.Test;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimiterTest {
+    private final List<CompletableFuture<HttpResponse<String>>> sent = new ArrayList<>();
+
+    @Test
+    public void testQueuesCallsOverTheLimit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit().initialLimit(2));
+
+        List<CompletableFuture<HttpResponse<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(limiter.submit("GET", this::send));
+        }
+        assertEquals(2, sent.size());
+        assertEquals(2, limiter.getStats().getInFlight());
+        assertEquals(1, limiter.getStats().getQueued());
+
+        sent.get(0).complete(new StubHttpResponse<>(200, "first"));
+        assertEquals("first", results.get(0).get().body());
+        assertEquals(3, sent.size());
+        assertEquals(0, limiter.getStats().getQueued());
+
+        sent.get(2).complete(new StubHttpResponse<>(200, "third"));
+        assertEquals("third", results.get(2).get().body());
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit().initialLimit(1).maxQueued(1));
+
+        limiter.submit("POST", this::send);
+        CompletableFuture<HttpResponse<String>> queued = limiter.submit("POST", this::send);
+        CompletableFuture<HttpResponse<String>> rejected = limiter.submit("POST", this::send);
+
+        assertFalse(queued.isDone());
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(exception.getCause() instanceof FreeplayException);
+        assertEquals(1, limiter.getStats().getRejected());
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testShedsOldestWhenQueueIsFull() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit()
+                .initialLimit(1)
+                .maxQueued(1)
+                .overflowPolicy(ConcurrencyLimit.OverflowPolicy.SHED_OLDEST));
+
+        limiter.submit("POST", this::send);
+        CompletableFuture<HttpResponse<String>> oldest = limiter.submit("POST", this::send);
+        CompletableFuture<HttpResponse<String>> newest = limiter.submit("POST", this::send);
+
+        assertTrue(oldest.isCompletedExceptionally());
+        assertFalse(newest.isDone());
+        assertEquals(1, limiter.getStats().getQueued());
+        assertEquals(1, limiter.getStats().getRejected());
+    }
+
+    @Test
+    public void testAdaptsLimitToOverload() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .latencyTolerance(1000));
+
+        limiter.submit("GET", this::send);
+        sent.get(0).complete(new StubHttpResponse<>(429, ""));
+        assertEquals(5, limiter.getStats().getLimit());
+
+        for (int round = 0; round < 20; round++) {
+            int first = sent.size();
+            for (int i = 0; i < limiter.getStats().getLimit(); i++) {
+                limiter.submit("GET", this::send);
+            }
+            for (int i = first; i < sent.size(); i++) {
+                sent.get(i).complete(new StubHttpResponse<>(200, ""));
+            }
+        }
+        assertTrue(limiter.getStats().getLimit() > 5);
+        assertEquals(0, limiter.getStats().getInFlight());
+    }
+
+    @Test
+    public void testCutsLimitWhenCallsSlowDown() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .latencyTolerance(2));
+
+        for (int i = 0; i < 20; i++) {
+            limiter.submit("GET", this::send);
+            sent.get(i).complete(new StubHttpResponse<>(200, ""));
+        }
+        int limit = limiter.getStats().getLimit();
+
+        limiter.submit("GET", this::send);
+        Thread.sleep(50);
+        sent.get(20).complete(new StubHttpResponse<>(200, ""));
+
+        assertEquals(limit / 2, limiter.getStats().getLimit());
+    }
+
+    @Test
+    public void testQueuedCallsFailAfterMaxQueueWait() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit()
+                .initialLimit(1)
+                .maxQueueWait(Duration.ofMillis(50)));
+
+        limiter.submit("GET", this::send);
+        CompletableFuture<HttpResponse<String>> queued = limiter.submit("GET", this::send);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof FreeplayException);
+        assertEquals(0, limiter.getStats().getQueued());
+        assertEquals(1, limiter.getStats().getRejected());
+
+        sent.get(0).complete(new StubHttpResponse<>(200, ""));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testCloseFailsQueuedCalls() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimit().initialLimit(1));
+
+        limiter.submit("GET", this::send);
+        CompletableFuture<HttpResponse<String>> queued = limiter.submit("GET", this::send);
+        limiter.close();
+
+        assertTrue(queued.isCompletedExceptionally());
+        assertThrows(FreeplayException.class, () -> limiter.submit("GET", this::send));
+    }
+
+    private CompletableFuture<HttpResponse<String>> send() {
+        CompletableFuture<HttpResponse<String>> call = new CompletableFuture<>();
+        sent.add(call);
+        return call;
+    }
+}
@@ -0,0 +1,121 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.exceptions.FreeplayException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class DecompressingBodyTest {
+    private HttpServer server;
+    private volatile String acceptEncoding;
+
+    @Before
+    public void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            String encoding = exchange.getRequestURI().getPath().substring(1);
+            byte[] body = encode(encoding, largeJson());
+            if (!encoding.equals("identity")) {
+                exchange.getResponseHeaders().add("Content-Encoding", encoding.replace("-corrupt", ""));
+            }
+            // Chunked and written in small pieces, so headers, blocks and trailers are split across buffers.
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream output = exchange.getResponseBody()) {
+                for (int i = 0; i < body.length; i += 7) {
+                    output.write(body, i, Math.min(7, body.length - i));
+                    output.flush();
+                }
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testStreamsGzipIntoJsonParser() throws Exception {
+        try (AsyncHttp http = new AsyncHttp(new HttpConfig())) {
+            HttpResponse<JsonBody<Map>> response = http.get(url("gzip"), "api-key", JsonBody.handler(Map.class, 200)).get();
+
+            assertEquals("gzip, deflate", acceptEncoding);
+            assertEquals(500, ((List<?>) response.body().getValue().get("messages")).size());
+        }
+    }
+
+    @Test
+    public void testDecompressesDeflateAndIdentity() throws Exception {
+        try (AsyncHttp http = new AsyncHttp(new HttpConfig())) {
+            assertEquals(largeJson(), http.get(url("deflate"), "api-key").get().body());
+            assertEquals(largeJson(), http.get(url("identity"), "api-key").get().body());
+        }
+    }
+
+    @Test
+    public void testCorruptBodyFails() {
+        try (AsyncHttp http = new AsyncHttp(new HttpConfig())) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> http.get(url("gzip-corrupt"), "api-key").get());
+
+            assertTrue(exception.getCause() instanceof FreeplayException);
+        }
+    }
+
+    @Test
+    public void testCanBeTurnedOff() throws Exception {
+        try (AsyncHttp http = new AsyncHttp(new HttpConfig().compressedResponses(false))) {
+            assertEquals(largeJson(), http.get(url("identity"), "api-key").get().body());
+            assertNull(acceptEncoding);
+        }
+    }
+
+    private String url(String encoding) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + encoding;
+    }
+
+    private static String largeJson() {
+        StringBuilder json = new StringBuilder("{\"messages\": [");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"role\": \"user\", \"content\": \"Question ").append(i).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static byte[] encode(String encoding, String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (encoding.equals("identity")) {
+            bytes.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+            return bytes.toByteArray();
+        }
+        try (OutputStream output = encoding.startsWith("gzip") ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            output.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] encoded = bytes.toByteArray();
+        if (encoding.endsWith("-corrupt")) {
+            // Damage the CRC in the trailer.
+            encoded = Arrays.copyOf(encoded, encoded.length);
+            encoded[encoded.length - 8] ^= 0xff;
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,173 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.FireAndForget;
+import ai.freeplay.client.FireAndForget.OverflowPolicy;
+import ai.freeplay.client.FireAndForget.WaitStrategy;
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class FireAndForgetQueueTest {
+    @Test
+    public void testRunsTasksOnConsumerThreadForEachWaitStrategy() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            try (FireAndForgetQueue queue = new FireAndForgetQueue(new FireAndForget().waitStrategy(waitStrategy))) {
+                Queue<String> threads = new ConcurrentLinkedQueue<>();
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(queue.publish(() -> {
+                        threads.add(Thread.currentThread().getName());
+                        return CompletableFuture.completedFuture(null);
+                    }));
+                }
+
+                queue.flush().get(5, TimeUnit.SECONDS);
+
+                assertEquals(waitStrategy.name(), 100, threads.size());
+                assertTrue(threads.stream().allMatch("freeplay-fire-and-forget"::equals));
+                assertEquals(100, queue.getStats().getSent());
+            }
+        }
+    }
+
+    @Test
+    public void testOverflowPolicies() throws Exception {
+        assertEquals(List.of("0", "1", "2", "3"), runOverflow(OverflowPolicy.DROP_NEWEST));
+        assertEquals(List.of("2", "3", "4", "5"), runOverflow(OverflowPolicy.DROP_OLDEST));
+        assertEquals(List.of("0", "1", "2", "3"), runOverflow(OverflowPolicy.BLOCK));
+    }
+
+    @Test
+    public void testCountsFailedSends() throws Exception {
+        try (FireAndForgetQueue queue = new FireAndForgetQueue(new FireAndForget())) {
+            queue.publish(() -> CompletableFuture.failedFuture(new IllegalStateException("unreachable")));
+            queue.publish(() -> {
+                throw new IllegalStateException("unserializable");
+            });
+            queue.flush().get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, queue.getStats().getFailed());
+            assertEquals(0, queue.getStats().getSent());
+        }
+    }
+
+    @Test
+    public void testCountsTasksLeftWhenCloseTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FireAndForgetQueue queue = new FireAndForgetQueue(new FireAndForget().closeTimeout(Duration.ofMillis(100)));
+        queue.publish(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.getStats().getBuffered() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(queue.publish(() -> CompletableFuture.completedFuture(null)));
+
+        // The consumer is stuck on the first task, so the second is still buffered when close gives up.
+        queue.close();
+        release.countDown();
+        while (queue.getStats().getDropped() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(1, queue.getStats().getSent());
+        assertEquals(1, queue.getStats().getDropped());
+        assertEquals(0, queue.getStats().getBuffered());
+    }
+
+    @Test
+    public void testRecordsReturnImmediatelyAndAreSentInBackground() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        server.createContext("/", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes()));
+            byte[] body = "{\"completion_id\": \"server-id\"}".getBytes();
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try (Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api")
+                .fireAndForget(new FireAndForget()))) {
+            List<ChatMessage> messages = new ArrayList<>(List.of(new ChatMessage("assistant", "first")));
+            UUID completionId = UUID.randomUUID();
+
+            RecordResponse response = fpClient.recordings()
+                    .create(new RecordPayload("project-id", messages).completionId(completionId))
+                    .get();
+            // Changes after recording are not seen by the buffered snapshot.
+            messages.add(new ChatMessage("assistant", "added later"));
+            fpClient.flush().get(5, TimeUnit.SECONDS);
+
+            assertEquals(completionId.toString(), response.getCompletionId());
+            assertEquals(1, received.size());
+            assertTrue(received.peek().contains("first"));
+            assertFalse(received.peek().contains("added later"));
+            assertEquals(1, fpClient.getFireAndForgetStats().getSent());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static List<String> runOverflow(OverflowPolicy overflowPolicy) throws Exception {
+        Queue<String> ran = new ConcurrentLinkedQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocking = new CountDownLatch(1);
+        try (FireAndForgetQueue queue = new FireAndForgetQueue(new FireAndForget()
+                .capacity(4)
+                .overflowPolicy(overflowPolicy)
+                .blockTimeout(Duration.ofMillis(20)))) {
+            // Hold the consumer so the buffer fills up.
+            queue.publish(() -> {
+                blocking.countDown();
+                awaitUninterruptibly(release);
+                return CompletableFuture.completedFuture(null);
+            });
+            blocking.await();
+            for (int i = 0; i < 6; i++) {
+                String name = String.valueOf(i);
+                queue.publish(() -> {
+                    ran.add(name);
+                    return CompletableFuture.completedFuture(null);
+                });
+            }
+            assertEquals(2, queue.getStats().getDropped());
+
+            release.countDown();
+            queue.flush().get(5, TimeUnit.SECONDS);
+        }
+        return new ArrayList<>(ran);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.HttpConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class GzipBodyTest {
+    private HttpServer server;
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream body = "gzip".equals(encoding)
+                    ? new GZIPInputStream(exchange.getRequestBody())
+                    : exchange.getRequestBody();
+            received.add(encoding + " " + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testCompressesIntoChunks() throws IOException {
+        String json = largeJson();
+
+        List<ByteBuffer> chunks = GzipBody.compress(json);
+        byte[] compressed = collect(chunks);
+
+        assertTrue(compressed.length < json.length() / 10);
+        assertEquals(json, gunzip(compressed));
+        assertArrayEquals(compressed, collect(GzipBody.compress(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testCompressesOnlyBodiesOverThreshold() throws Exception {
+        try (AsyncHttp http = new AsyncHttp(new HttpConfig().gzipRequestBodies(1024))) {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v2/records";
+            String large = largeJson();
+
+            http.postSerializedJson(url, "api-key", "{\"small\": true}").get();
+            http.postSerializedJson(url, "api-key", large).get();
+
+            assertEquals(List.of("null {\"small\": true}", "gzip " + large), received);
+        }
+    }
+
+    private static String largeJson() {
+        StringBuilder json = new StringBuilder("{\"messages\": [");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"role\": \"user\", \"content\": \"Où est ma commande n° ").append(i).append("?\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static byte[] collect(List<ByteBuffer> chunks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (ByteBuffer chunk : chunks) {
+            byte[] array = new byte[chunk.remaining()];
+            chunk.get(array);
+            bytes.writeBytes(array);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
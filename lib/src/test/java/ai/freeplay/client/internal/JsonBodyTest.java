@@ -0,0 +1,101 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.exceptions.FreeplayException;
+import ai.freeplay.client.resources.promptdatasets.PromptDatasetList;
+import org.junit.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.Assert.*;
+
+public class JsonBodyTest {
+    private static final String DATASETS = "{\"data\": [" +
+            "{\"id\": \"dataset-1\", \"name\": \"First\", \"input_names\": [\"question\"], \"unknown_field\": {\"a\": [1, 2]}}," +
+            "{\"id\": \"dataset-2\", \"name\": \"Second \\u00e9\", \"input_names\": []}" +
+            "], \"pagination\": {\"page\": 1, \"page_size\": 25, \"has_next\": false}}";
+
+    @Test
+    public void testBindsBodySplitAcrossChunks() throws Exception {
+        for (int chunkSize : new int[]{1, 7, DATASETS.length()}) {
+            JsonBody<PromptDatasetList> body = deliver(200, 200, chunks(DATASETS, chunkSize)).get();
+
+            assertNull(body.getText());
+            assertEquals(2, body.getValue().getData().size());
+            assertEquals("dataset-1", body.getValue().getData().get(0).getId());
+            assertEquals("Second \u00e9", body.getValue().getData().get(1).getName());
+            assertEquals(List.of("question"), body.getValue().getData().get(0).getInputNames());
+        }
+    }
+
+    @Test
+    public void testKeepsBodyTextForUnexpectedStatus() throws Exception {
+        JsonBody<PromptDatasetList> body = deliver(200, 404, chunks("{\"message\": \"Not found\"}", 5)).get();
+
+        assertNull(body.getValue());
+        assertEquals("{\"message\": \"Not found\"}", body.getText());
+    }
+
+    @Test
+    public void testFailsOnMalformedJson() {
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> deliver(200, 200, chunks("{\"data\": [", 4)).get());
+
+        assertTrue(exception.getCause() instanceof FreeplayException);
+    }
+
+    private static java.util.concurrent.CompletableFuture<JsonBody<PromptDatasetList>> deliver(
+            int expectedStatus,
+            int statusCode,
+            List<ByteBuffer> chunks
+    ) {
+        HttpResponse.BodySubscriber<JsonBody<PromptDatasetList>> subscriber =
+                JsonBody.handler(PromptDatasetList.class, expectedStatus).apply(new HttpResponse.ResponseInfo() {
+                    @Override
+                    public int statusCode() {
+                        return statusCode;
+                    }
+
+                    @Override
+                    public HttpHeaders headers() {
+                        return HttpHeaders.of(Map.of(), (name, value) -> true);
+                    }
+
+                    @Override
+                    public HttpClient.Version version() {
+                        return HttpClient.Version.HTTP_1_1;
+                    }
+                });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (ByteBuffer chunk : chunks) {
+            subscriber.onNext(List.of(chunk));
+        }
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture();
+    }
+
+    private static List<ByteBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            chunks.add(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)).slice());
+        }
+        return chunks;
+    }
+}
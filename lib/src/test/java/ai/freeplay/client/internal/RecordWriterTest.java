@@ -0,0 +1,130 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.internal.dto.RecordDTO;
+import ai.freeplay.client.media.MediaInput;
+import ai.freeplay.client.media.MediaInputBase64;
+import ai.freeplay.client.media.MediaInputCollection;
+import ai.freeplay.client.media.MediaInputUrl;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.PromptVersionInfo;
+import ai.freeplay.client.resources.recordings.CallInfo;
+import ai.freeplay.client.resources.recordings.OpenAIFunctionCall;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.ResponseInfo;
+import ai.freeplay.client.resources.recordings.TestRunInfo;
+import ai.freeplay.client.resources.sessions.SessionInfo;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class RecordWriterTest {
+    private static final String PROJECT_ID = "475516c8-7be4-4d55-9388-535cef042981";
+
+    private final CallSupport callSupport = new CallSupport(new HttpConfig(), null, "http://localhost/api", "api-key");
+
+    @After
+    public void afterEach() {
+        callSupport.close();
+    }
+
+    @Test
+    public void testWritesSameJsonAsRecordDTO() {
+        MediaInputCollection media = new MediaInputCollection();
+        media.put("image", new MediaInputBase64(
+                Base64.getEncoder().encode("not really a png".getBytes(StandardCharsets.UTF_8)), "image/png"));
+        media.put("document", new MediaInputUrl("https://example.com/doc.pdf"));
+
+        RecordPayload payload = new RecordPayload(PROJECT_ID, List.of(
+                new ChatMessage("system", "You answer \"quoted\" questions.\n"),
+                new ChatMessage("user", "Où est ma commande? 🚚"),
+                new ChatMessage("assistant", "On its way.")))
+                .sessionInfo(new SessionInfo(UUID.randomUUID().toString(), Map.of("customer", "acme")))
+                .inputs(Map.of("question", "Où est ma commande?", "count", 3))
+                .promptVersionInfo(new PromptVersionInfo("ed3b96f5-0783-4d40-9ef3-35297c29529c", "prod"))
+                .callInfo(new CallInfo("openai", "gpt-4o", 1718000000123L, 1718000001456L, Map.of("temperature", 0.2))
+                        .providerInfo(Map.of("region", "us-east-1"))
+                        .usage(new CallInfo.UsageTokens(120, null))
+                        .apiStyle(CallInfo.ApiStyle.BATCH))
+                .responseInfo(new ResponseInfo(true, new OpenAIFunctionCall("lookup", "{\"id\": 1}"), 120, 30))
+                .testRunInfo(new TestRunInfo("test-run-id", "test-case-id"))
+                .evalResults(Map.of("accurate", true, "score", 0.8))
+                .parentId(UUID.randomUUID())
+                .toolSchema(List.of(Map.of("name", "lookup", "parameters", Map.of("type", "object"))))
+                .outputSchema(Map.of("type", "object"))
+                .completionId(UUID.randomUUID())
+                .mediaInputCollection(media);
+
+        assertSameJson(payload);
+    }
+
+    @Test
+    public void testWritesNullsForMissingOptionalFields() {
+        RecordPayload payload = new RecordPayload(PROJECT_ID, List.of(new ChatMessage("assistant", "Hello")))
+                .sessionInfo(new SessionInfo(UUID.randomUUID().toString(), Map.of()));
+
+        assertSameJson(payload);
+    }
+
+    private void assertSameJson(RecordPayload payload) {
+        PreparedRecord record = callSupport.prepareRecord(payload);
+
+        assertEquals(
+                JSONUtil.parseDOM(JSONUtil.toString(legacyDTO(payload))),
+                JSONUtil.parseDOM(new String(record.getBody(), StandardCharsets.UTF_8)));
+        assertEquals(record.getBody().length, record.sizeInBytes());
+    }
+
+    /**
+     * The record as it was mapped to DTOs before it was written directly.
+     */
+    private static RecordDTO legacyDTO(RecordPayload payload) {
+        Map<String, RecordDTO.MediaInputDTO> mediaInputs = new HashMap<>();
+        if (payload.getMediaInputCollection() != null) {
+            for (Map.Entry<String, MediaInput> entry : payload.getMediaInputCollection().entries()) {
+                mediaInputs.put(entry.getKey(), RecordDTO.MediaInputDTO.fromMediaInput(entry.getValue()));
+            }
+        }
+        ResponseInfo responseInfo = payload.getResponseInfo();
+        CallInfo callInfo = payload.getCallInfo();
+        TestRunInfo testRunInfo = payload.getTestRunInfo();
+        return new RecordDTO(
+                payload.getAllMessages(),
+                payload.getInputs(),
+                new RecordDTO.SessionInfoDTO(payload.getSessionInfo().getSessionId(), payload.getSessionInfo().getCustomMetadata()),
+                payload.getPromptVersionInfo() == null ? null : new RecordDTO.PromptVersionInfoDTO(
+                        payload.getPromptVersionInfo().getPromptTemplateVersionId(),
+                        payload.getPromptVersionInfo().getEnvironment(),
+                        payload.getProjectId()),
+                callInfo == null ? null : new RecordDTO.CallInfoDTO(
+                        callInfo.getProvider(), callInfo.getModel(), callInfo.getStartTime(), callInfo.getEndTime(),
+                        callInfo.getModelParameters())
+                        .providerInfo(callInfo.getProviderInfo())
+                        .usage(callInfo.getUsage() == null ? null : new RecordDTO.CallInfoDTO.UsageTokensDTO(
+                                callInfo.getUsage().getPromptTokens(), callInfo.getUsage().getCompletionTokens()))
+                        .apiStyle(callInfo.getApiStyle()),
+                responseInfo == null ? null : new RecordDTO.ResponseInfoDTO(
+                        responseInfo.isComplete(),
+                        responseInfo.getFunctionCall() == null ? null : new RecordDTO.OpenAIFunctionCallDTO(
+                                responseInfo.getFunctionCall().getName(), responseInfo.getFunctionCall().getArguments()),
+                        responseInfo.getPromptTokens(),
+                        responseInfo.getResponseTokens()),
+                testRunInfo == null ? null : new RecordDTO.TestRunInfoDTO(testRunInfo.getTestRunId(), testRunInfo.getTestCaseId()),
+                payload.getEvalResults(),
+                null,
+                payload.getParentId(),
+                payload.getToolSchema(),
+                payload.getOutputSchema(),
+                payload.getCompletionId(),
+                mediaInputs
+        );
+    }
+}
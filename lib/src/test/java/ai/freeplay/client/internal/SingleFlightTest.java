@@ -0,0 +1,101 @@
+package ai.freeplay.client.internal;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testConcurrentCallersShareOneCall() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.execute("key", () -> call(source));
+        CompletableFuture<String> second = flights.execute("key", () -> call(new CompletableFuture<>()));
+        CompletableFuture<String> other = flights.execute("other", () -> call(CompletableFuture.completedFuture("other")));
+        source.complete("shared");
+
+        assertEquals("shared", first.get());
+        assertEquals("shared", second.get());
+        assertEquals("other", other.get());
+        assertEquals(2, calls.get());
+        assertEquals(1, flights.getCoalesced());
+        assertEquals(0, flights.getInFlight());
+    }
+
+    @Test
+    public void testErrorFansOutToEveryCaller() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("key", () -> call(source));
+        CompletableFuture<String> second = flights.execute("key", () -> call(source));
+
+        source.completeExceptionally(new IOException("connection reset"));
+
+        for (CompletableFuture<String> waiter : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, waiter::get);
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testCancellingOneCallerLeavesTheOthers() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("key", () -> call(source));
+        CompletableFuture<String> second = flights.execute("key", () -> call(source));
+
+        first.cancel(true);
+        assertFalse(source.isCancelled());
+        source.complete("shared");
+
+        assertTrue(first.isCancelled());
+        assertEquals("shared", second.get());
+    }
+
+    @Test
+    public void testCancellingEveryCallerCancelsTheCall() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("key", () -> call(source));
+        CompletableFuture<String> second = flights.execute("key", () -> call(source));
+
+        first.cancel(true);
+        second.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertEquals(0, flights.getInFlight());
+        assertEquals("fresh", flights.execute("key", () -> call(CompletableFuture.completedFuture("fresh"))).get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCompletedCallIsNotReused() throws Exception {
+        assertEquals("one", flights.execute("key", () -> call(CompletableFuture.completedFuture("one"))).get());
+        assertEquals("two", flights.execute("key", () -> call(CompletableFuture.completedFuture("two"))).get());
+
+        assertEquals(2, calls.get());
+        assertEquals(0, flights.getCoalesced());
+    }
+
+    @Test
+    public void testCallThatFailsToStartThrowsToItsCaller() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> flights.execute("key", () -> {
+                    throw new IllegalStateException("closed");
+                }));
+
+        assertEquals("closed", exception.getMessage());
+        assertEquals(0, flights.getInFlight());
+    }
+
+    private CompletableFuture<String> call(CompletableFuture<String> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -508,4 +509,29 @@ public class TemplateUtilsTest {
         String resultPopulated = TemplateUtils.format(template, variablesPopulated);
         assertEquals("DATA: offer1DATA: offer2", resultPopulated);
     }
+
+    @Test
+    public void testRepeatedFormatIsIdentical() {
+        String template = "{{#items}}- {{name}}: {{details}}\n{{/items}}{{^items}}none{{/items}} ({{count}})";
+        Map<String, Object> variables = Map.of(
+                "items", List.of(Map.of("name", "a", "details", Map.of("x", 1)), Map.of("name", "b", "details", "plain")),
+                "count", 2
+        );
+
+        String first = TemplateUtils.format(template, variables);
+        String other = TemplateUtils.format(template, Map.of("count", 0));
+        String second = TemplateUtils.format(template, variables);
+
+        assertEquals("- a: {\"x\":1}\n- b: plain\n (2)", first);
+        assertEquals("none (0)", other);
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testCompiledTemplatesAreReused() {
+        String template = "Hello {{name}} " + UUID.randomUUID();
+
+        assertSame(TemplateUtils.compile(template), TemplateUtils.compile(template));
+        assertTrue(TemplateUtils.format(template, Map.of("name", "second")).startsWith("Hello second "));
+    }
 }
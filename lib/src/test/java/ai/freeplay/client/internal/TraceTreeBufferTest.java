@@ -0,0 +1,151 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.TraceBuffering;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import ai.freeplay.client.resources.sessions.Session;
+import ai.freeplay.client.resources.sessions.TraceInfo;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class TraceTreeBufferTest {
+    private static final String SESSION_ID = "session-id";
+
+    @Test
+    public void testSendsDescendantsWhenTheRootCompletes() {
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        try (TraceTreeBuffer buffer = new TraceTreeBuffer(new TraceBuffering())) {
+            UUID root = UUID.randomUUID();
+            UUID tool = UUID.randomUUID();
+            UUID llm = UUID.randomUUID();
+            UUID otherRoot = UUID.randomUUID();
+
+            // A grandchild can complete before its parent; both wait for the root.
+            assertTrue(buffer.offer(SESSION_ID, llm, tool, send(sent, "llm")));
+            assertTrue(buffer.offer(SESSION_ID, tool, root, send(sent, "tool")));
+            assertTrue(buffer.offer(SESSION_ID, UUID.randomUUID(), otherRoot, send(sent, "other")));
+            assertTrue(sent.isEmpty());
+            assertEquals(3, buffer.getStats().getBuffered());
+
+            assertFalse(buffer.offer(SESSION_ID, root, null, send(sent, "root")));
+            assertEquals(List.of("llm", "tool"), new ArrayList<>(sent));
+
+            // Spans of a completed tree are not held back.
+            assertFalse(buffer.offer(SESSION_ID, UUID.randomUUID(), tool, send(sent, "late")));
+            assertEquals(1, buffer.getStats().getBuffered());
+            assertEquals(1, buffer.getStats().getTreesCompleted());
+            assertEquals(2, buffer.getStats().getSent());
+        }
+        // Closing sends what is left.
+        assertTrue(sent.contains("other"));
+    }
+
+    @Test
+    public void testForgetsTheOldestCompletedTreesOfABusySession() {
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        try (TraceTreeBuffer buffer = new TraceTreeBuffer(new TraceBuffering())) {
+            List<UUID> roots = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                UUID root = UUID.randomUUID();
+                roots.add(root);
+                assertTrue(buffer.offer(SESSION_ID, UUID.randomUUID(), root, send(sent, "child")));
+                assertFalse(buffer.offer(SESSION_ID, root, null, send(sent, "root")));
+            }
+            assertEquals(2_000, buffer.getStats().getTreesCompleted());
+            assertEquals(0, buffer.getStats().getBuffered());
+
+            // A late span of a recent tree is still sent straight away; the first tree has been forgotten, so its
+            // late span waits as if its root had not completed.
+            assertFalse(buffer.offer(SESSION_ID, UUID.randomUUID(), roots.get(roots.size() - 1), send(sent, "late")));
+            assertTrue(buffer.offer(SESSION_ID, UUID.randomUUID(), roots.get(0), send(sent, "forgotten")));
+        }
+    }
+
+    @Test
+    public void testFlushesSpansWhoseRootTakesTooLong() throws Exception {
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        try (TraceTreeBuffer buffer = new TraceTreeBuffer(new TraceBuffering()
+                .flushTimeout(Duration.ofMillis(50))
+                .maxBufferedSpans(2))) {
+            UUID root = UUID.randomUUID();
+            assertTrue(buffer.offer(SESSION_ID, UUID.randomUUID(), root, send(sent, "first")));
+            assertTrue(buffer.offer("other-session", UUID.randomUUID(), root, send(sent, "second")));
+            assertFalse(buffer.offer(SESSION_ID, UUID.randomUUID(), root, send(sent, "over limit")));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertTrue(sent.containsAll(List.of("first", "second")));
+            assertFalse(sent.contains("over limit"));
+            assertEquals(2, buffer.getStats().getPartialFlushes());
+            assertEquals(0, buffer.getStats().getBuffered());
+        }
+    }
+
+    @Test
+    public void testUploadsTheTreeWhenTheRootIsRecorded() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        server.createContext("/", exchange -> {
+            received.add(exchange.getRequestURI().getPath());
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"completion_id\": \"server-id\"}".getBytes();
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try (Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api")
+                .bufferTraces(new TraceBuffering()))) {
+            Session session = fpClient.sessions().create();
+            TraceInfo root = session.createTrace("plan a trip");
+            TraceInfo tool = session.createTrace("search flights").parentId(root.getTraceId());
+
+            RecordResponse record = fpClient.recordings().create(new RecordPayload(
+                    "project-id",
+                    List.of(new ChatMessage("user", "search flights"), new ChatMessage("assistant", "found 3"))
+            ).sessionInfo(session.getSessionInfo()).parentId(tool.getTraceId())).get();
+            tool.recordOutput("project-id", "3 flights").get();
+            assertTrue(received.isEmpty());
+            assertNotNull(record.getCompletionId());
+
+            root.recordOutput("project-id", "booked").get();
+            fpClient.flush().get(5, TimeUnit.SECONDS);
+
+            List<String> paths = new ArrayList<>(received);
+            assertEquals(3, paths.size());
+            assertTrue(paths.contains("/api/v2/projects/project-id/sessions/" + session.getSessionId() + "/traces/id/" + root.getTraceId()));
+            assertTrue(paths.contains("/api/v2/projects/project-id/sessions/" + session.getSessionId() + "/completions"));
+            assertEquals(2, fpClient.getTraceBufferingStats().getSent());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Supplier<CompletableFuture<?>> send(Queue<String> sent, String name) {
+        return () -> {
+            sent.add(name);
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.FireAndForget;
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.IdGenerator;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import ai.freeplay.client.resources.sessions.Session;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class UuidV7GeneratorTest {
+    @Test
+    public void testLayout() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.INSTANCE.newId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after);
+    }
+
+    @Test
+    public void testOrderedByMillisecondAndUniqueAcrossThreads() throws Exception {
+        List<List<UUID>> idsByThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<UUID> ids = new ArrayList<>();
+            idsByThread.add(ids);
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(UuidV7Generator.INSTANCE.newId());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<UUID> unique = new HashSet<>();
+        for (List<UUID> ids : idsByThread) {
+            long previousMillis = 0;
+            for (UUID id : ids) {
+                long millis = id.getMostSignificantBits() >>> 16;
+                assertTrue(millis >= previousMillis);
+                previousMillis = millis;
+                unique.add(id);
+            }
+        }
+        assertEquals(80_000, unique.size());
+    }
+
+    @Test
+    public void testSessionsAndTracesUseTheConfiguredGenerator() {
+        AtomicLong next = new AtomicLong();
+        IdGenerator sequential = () -> new UUID(0, next.incrementAndGet());
+        try (Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://localhost/api")
+                .idGenerator(sequential))) {
+            Session session = fpClient.sessions().create();
+            assertEquals(new UUID(0, 1).toString(), session.getSessionId());
+            assertEquals(new UUID(0, 2), session.createTrace("input").getTraceId());
+        }
+    }
+
+    @Test
+    public void testHandedOffRecordsAreGivenAGeneratedCompletionId() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        server.createContext("/", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        UUID generated = new UUID(0, 42);
+        try (Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api")
+                .fireAndForget(new FireAndForget())
+                .idGenerator(() -> generated))) {
+            RecordPayload payload = new RecordPayload("project-id", List.of(new ChatMessage("assistant", "hello")));
+
+            RecordResponse response = fpClient.recordings().create(payload).get();
+            fpClient.flush().get(5, TimeUnit.SECONDS);
+
+            assertEquals(generated.toString(), response.getCompletionId());
+            assertNull(payload.getCompletionId());
+            assertTrue(received.peek().contains(generated.toString()));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ai.freeplay.client.internal;
+
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.transport.JdkHttpTransport;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadsTest {
+    @Test
+    public void testUnavailableBeforeJdk21() {
+        assumeTrue(!Boolean.getBoolean("freeplay.test.multiReleaseJar"));
+
+        assertFalse(VirtualThreads.isAvailable());
+        assertNull(VirtualThreads.newExecutor("test-"));
+        try (JdkHttpTransport transport = new JdkHttpTransport(new HttpConfig().virtualThreads(true))) {
+            assertNull(transport.getExecutor());
+        }
+    }
+
+    @Test
+    public void testMultiReleaseJarLoadsTheJdk21Version() throws Exception {
+        assumeTrue(Boolean.getBoolean("freeplay.test.multiReleaseJar"));
+
+        assertTrue(VirtualThreads.isAvailable());
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        try {
+            assertEquals("test-0", executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        try (JdkHttpTransport transport = new JdkHttpTransport(new HttpConfig().virtualThreads(true))) {
+            assertNotNull(transport.getExecutor());
+        }
+    }
+}
@@ -192,8 +192,8 @@ public class MockFixtures {
     public static void mockCreateTestRunAsync(HttpClient mockedClient) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/test-runs"))
-                    .thenReturn(
-                            asyncResponse(201, getTestRunTestCasesResponsePayload(UUID.randomUUID().toString(), true)));
+                    .thenAnswer(
+                            handledAsyncResponse(201, getTestRunTestCasesResponsePayload(UUID.randomUUID().toString(), true)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -295,7 +295,7 @@ public class MockFixtures {
     public static void mockUnauthorizedCreateTestRunAsync(HttpClient mockedClient) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/test-runs"))
-                    .thenReturn(asyncResponse(401, ""));
+                    .thenAnswer(handledAsyncResponse(401, ""));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -313,7 +313,7 @@ public class MockFixtures {
     public static void mockUnauthorizedGetPromptsV2Async(HttpClient mockedClient) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "GET", "v2/projects/[^/]*/prompt-templates"))
-                    .thenReturn(asyncResponse(401, ""));
+                    .thenAnswer(handledAsyncResponse(401, ""));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -832,7 +832,7 @@ public class MockFixtures {
     public static void mockListPromptDatasetsAsync(HttpClient mockedClient, String datasetId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "GET", "v2/projects/[^/]*/prompt-datasets.*"))
-                    .thenReturn(asyncResponse(200, getPromptDatasetListPayload(datasetId, "My Dataset")));
+                    .thenAnswer(handledAsyncResponse(200, getPromptDatasetListPayload(datasetId, "My Dataset")));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -868,7 +868,7 @@ public class MockFixtures {
     public static void mockListPromptTestCasesAsync(HttpClient mockedClient, String testCaseId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "GET", "v2/projects/[^/]*/prompt-datasets/[^/]*/test-cases"))
-                    .thenReturn(asyncResponse(200, getPromptTestCaseListPayload(testCaseId)));
+                    .thenAnswer(handledAsyncResponse(200, getPromptTestCaseListPayload(testCaseId)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -886,7 +886,7 @@ public class MockFixtures {
     public static void mockBulkCreatePromptTestCasesAsync(HttpClient mockedClient, String testCaseId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/prompt-datasets/[^/]*/test-cases/bulk"))
-                    .thenReturn(asyncResponse(201, getBulkCreatePromptTestCasesPayload(testCaseId)));
+                    .thenAnswer(handledAsyncResponse(201, getBulkCreatePromptTestCasesPayload(testCaseId)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -988,7 +988,7 @@ public class MockFixtures {
     public static void mockListAgentDatasetsAsync(HttpClient mockedClient, String datasetId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "GET", "v2/projects/[^/]*/agent-datasets.*"))
-                    .thenReturn(asyncResponse(200, getAgentDatasetListPayload(datasetId, "My Agent Dataset")));
+                    .thenAnswer(handledAsyncResponse(200, getAgentDatasetListPayload(datasetId, "My Agent Dataset")));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -1024,7 +1024,7 @@ public class MockFixtures {
     public static void mockListAgentTestCasesAsync(HttpClient mockedClient, String testCaseId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "GET", "v2/projects/[^/]*/agent-datasets/[^/]*/test-cases"))
-                    .thenReturn(asyncResponse(200, getAgentTestCaseListPayload(testCaseId)));
+                    .thenAnswer(handledAsyncResponse(200, getAgentTestCaseListPayload(testCaseId)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -1042,7 +1042,7 @@ public class MockFixtures {
     public static void mockBulkCreateAgentTestCasesAsync(HttpClient mockedClient, String testCaseId) throws RuntimeException {
         try {
             when(requestAsync(mockedClient, "POST", "v2/projects/[^/]*/agent-datasets/[^/]*/test-cases/bulk"))
-                    .thenReturn(asyncResponse(201, getBulkCreateAgentTestCasesPayload(testCaseId)));
+                    .thenAnswer(handledAsyncResponse(201, getBulkCreateAgentTestCasesPayload(testCaseId)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
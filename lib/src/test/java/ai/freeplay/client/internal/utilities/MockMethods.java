@@ -2,15 +2,20 @@ package ai.freeplay.client.internal.utilities;
 
 import com.fasterxml.jackson.jr.ob.JSON;
 import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 import static ai.freeplay.client.internal.utilities.BodyPublisherReader.stringFromBodyPublisher;
 import static org.junit.Assert.assertEquals;
@@ -62,6 +67,31 @@ public class MockMethods {
         return CompletableFuture.completedFuture(new StubHttpResponse<>(statusCode, body));
     }
 
+    /**
+     * Answers {@code sendAsync} by running the body through the request's own {@code BodyHandler}, so streaming
+     * handlers see the body as the real client would deliver it.
+     */
+    public static <B> Answer<CompletableFuture<HttpResponse<B>>> handledAsyncResponse(int statusCode, String body) {
+        return invocation -> {
+            HttpResponse.BodyHandler<B> handler = invocation.getArgument(1);
+            HttpResponse.BodySubscriber<B> subscriber = handler.apply(new StubResponseInfo(statusCode));
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onNext(List.of(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))));
+            subscriber.onComplete();
+            return subscriber.getBody()
+                    .<HttpResponse<B>>thenApply(result -> new StubHttpResponse<>(statusCode, result))
+                    .toCompletableFuture();
+        };
+    }
+
     public static Map<String, Object> getCapturedBodyAsMap(
             HttpClient mockedClient,
             int totalCalls,
@@ -143,3 +173,26 @@ public class MockMethods {
         return requests.get(index);
     }
 }
+
+class StubResponseInfo implements HttpResponse.ResponseInfo {
+    private final int statusCode;
+
+    StubResponseInfo(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return HttpHeaders.of(Map.of(), (name, value) -> true);
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
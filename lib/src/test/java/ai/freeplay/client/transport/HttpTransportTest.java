@@ -0,0 +1,230 @@
+package ai.freeplay.client.transport;
+
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.RetryPolicy;
+import ai.freeplay.client.resources.promptdatasets.PromptDataset;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class HttpTransportTest {
+    private static final String projectId = UUID.randomUUID().toString();
+    private static final String DATASET = "{\"id\": \"dataset-id\", \"name\": \"My Dataset\", \"input_names\": [\"question\"]}";
+
+    @Test
+    public void testSendsCallsThroughLoopbackTransport() throws Exception {
+        Queue<HttpTransport.Request> requests = new ConcurrentLinkedQueue<>();
+        LoopbackTransport transport = new LoopbackTransport(request -> {
+            requests.add(request);
+            return HttpTransport.Response.of(201, Map.of(), "{\"completion_id\": \"completion-id\"}".getBytes(StandardCharsets.UTF_8));
+        });
+        try (Freeplay fpClient = newClient(transport, new HttpConfig())) {
+            fpClient.recordings()
+                    .create(new RecordPayload(projectId, List.of(new ChatMessage("assistant", "Hello"))))
+                    .get(5, TimeUnit.SECONDS);
+        }
+
+        HttpTransport.Request request = requests.remove();
+        assertEquals("POST", request.getMethod());
+        assertTrue(request.getUri().toString().startsWith("http://localhost/api/v2/projects/" + projectId + "/sessions/"));
+        assertEquals("Bearer api-key", request.header("authorization").orElseThrow());
+        assertEquals("application/json", request.header("Content-Type").orElseThrow());
+        assertTrue(new String(request.getBodyBytes(), StandardCharsets.UTF_8).contains("\"Hello\""));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testInflatesCompressedResponsesFromTransport() throws Exception {
+        LoopbackTransport transport = new LoopbackTransport(request ->
+                HttpTransport.Response.of(200, Map.of("Content-Encoding", List.of("gzip")), gzip(DATASET)),
+                Runnable::run);
+        try (Freeplay fpClient = newClient(transport, new HttpConfig())) {
+            PromptDataset dataset = fpClient.promptDatasets().get(projectId, "dataset-id").get(5, TimeUnit.SECONDS);
+
+            assertEquals("My Dataset", dataset.getName());
+        }
+    }
+
+    @Test
+    public void testRetriedRequestsResendTheWholeBody() throws Exception {
+        Queue<String> bodies = new ConcurrentLinkedQueue<>();
+        LoopbackTransport transport = new LoopbackTransport(request -> {
+            bodies.add(new String(request.getBodyBytes(), StandardCharsets.UTF_8));
+            int status = bodies.size() < 3 ? 503 : 201;
+            return HttpTransport.Response.of(status, Map.of(), "{\"completion_id\": \"completion-id\"}".getBytes(StandardCharsets.UTF_8));
+        });
+        HttpConfig httpConfig = new HttpConfig()
+                .gzipRequestBodies(0)
+                .retryPolicy(new RetryPolicy().maxAttempts(3).initialBackoff(Duration.ofMillis(1)));
+        try (Freeplay fpClient = newClient(transport, httpConfig)) {
+            fpClient.recordings()
+                    .create(new RecordPayload(projectId, List.of(new ChatMessage("assistant", "Hello")))
+                            .completionId(UUID.randomUUID()))
+                    .get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(3, bodies.size());
+        assertEquals(1, bodies.stream().distinct().count());
+    }
+
+    @Test
+    public void testRetriesRunOnTheJdkTransportExecutor() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"completion_id\": \"completion-id\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(attempts.incrementAndGet() < 2 ? 503 : 201, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> new Thread(runnable, "transport-executor"));
+        Queue<String> sendingThreads = new ConcurrentLinkedQueue<>();
+        JdkHttpTransport transport = new JdkHttpTransport(HttpClient.newBuilder().executor(executor).build()) {
+            @Override
+            public <T> CompletableFuture<HttpResponse<T>> send(Request request, HttpResponse.BodyHandler<T> handler) {
+                sendingThreads.add(Thread.currentThread().getName());
+                return super.send(request, handler);
+            }
+        };
+        HttpConfig httpConfig = new HttpConfig()
+                .retryPolicy(new RetryPolicy().maxAttempts(2).initialBackoff(Duration.ofMillis(1)));
+        try (Freeplay fpClient = new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api")
+                .httpConfig(httpConfig)
+                .httpTransport(transport))) {
+            fpClient.recordings()
+                    .create(new RecordPayload(projectId, List.of(new ChatMessage("assistant", "Hello")))
+                            .completionId(UUID.randomUUID()))
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            server.stop(0);
+            transport.close();
+            executor.shutdown();
+        }
+
+        assertEquals(2, sendingThreads.size());
+        assertEquals("transport-executor", List.copyOf(sendingThreads).get(1));
+    }
+
+    @Test
+    public void testTransportErrorsFailTheCall() {
+        LoopbackTransport transport = new LoopbackTransport(request -> {
+            throw new ConnectException("Connection refused");
+        });
+        try (Freeplay fpClient = newClient(transport, new HttpConfig())) {
+            ExecutionException error = assertThrows(ExecutionException.class, () ->
+                    fpClient.promptDatasets().get(projectId, "dataset-id").get(5, TimeUnit.SECONDS));
+
+            assertTrue(error.getCause() instanceof ConnectException);
+        }
+    }
+
+    @Test
+    public void testJdkTransportSendsBuffersAndPublishesResponse() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try (JdkHttpTransport transport = new JdkHttpTransport(HttpClient.newHttpClient())) {
+            HttpTransport.Request request = new HttpTransport.Request(
+                    "PUT",
+                    URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/echo"),
+                    Map.of("X-Test", List.of("1")),
+                    List.of(ByteBuffer.wrap("hello ".getBytes(StandardCharsets.UTF_8)),
+                            ByteBuffer.wrap("world".getBytes(StandardCharsets.UTF_8))),
+                    Duration.ofSeconds(5));
+
+            HttpTransport.Response response = transport.send(request).get(5, TimeUnit.SECONDS);
+
+            assertEquals(200, response.getStatusCode());
+            assertEquals(List.of("application/octet-stream"), response.getHeaders().get("content-type"));
+            assertEquals("hello world", read(response.getBody()).get(5, TimeUnit.SECONDS));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Freeplay newClient(HttpTransport transport, HttpConfig httpConfig) {
+        return new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl("http://localhost/api")
+                .httpConfig(httpConfig)
+                .httpTransport(transport));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CompletableFuture<String> read(Flow.Publisher<List<ByteBuffer>> body) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        body.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> buffers) {
+                for (ByteBuffer buffer : buffers) {
+                    byte[] chunk = new byte[buffer.remaining()];
+                    buffer.get(chunk);
+                    bytes.writeBytes(chunk);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(bytes.toString(StandardCharsets.UTF_8));
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+plugins {
+    application
+}
+
+application {
+    mainClass.set("ai.freeplay.loadtest.LoadTest")
+    // Keep GC behavior comparable between runs; override with e.g. -PjvmArgs="-Xmx2g -XX:+UseZGC".
+    applicationDefaultJvmArgs = (project.findProperty("jvmArgs") as String? ?: "-Xms1g -Xmx1g").split(" ")
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":lib"))
+    implementation(project(":testkit"))
+
+    testImplementation("junit:junit:4.13.2")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(11))
+    }
+}
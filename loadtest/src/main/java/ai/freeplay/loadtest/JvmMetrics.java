@@ -0,0 +1,134 @@
+package ai.freeplay.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures heap allocation and GC pauses over a window of a run. Allocation is summed over the threads alive when the
+ * window closes, so threads that exit inside the window are missed; the caller must close it while the threads it
+ * registers with {@link #addCallerThread} are still running. GC pauses come from the collectors' JMX notifications;
+ * cycles of concurrent collectors that do not stop the application are counted separately.
+ */
+class JvmMetrics implements AutoCloseable {
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Histogram pauses = new Histogram();
+    private final LongAdder concurrentCycles = new LongAdder();
+    private final NotificationListener listener = this::onNotification;
+    private final Set<Long> callerThreads = ConcurrentHashMap.newKeySet();
+
+    private Map<Long, Long> allocatedAtStart;
+    private long startNanos;
+    private long allocatedBytes;
+    private long callerAllocatedBytes;
+    private long elapsedNanos;
+
+    /**
+     * Marks a thread that calls the SDK, so its allocation is also reported in {@link #getCallerAllocatedBytes}.
+     */
+    void addCallerThread(Thread thread) {
+        callerThreads.add(thread.getId());
+    }
+
+    void start() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+            }
+        }
+        allocatedAtStart = allocatedByThread();
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        allocatedBytes = 0;
+        callerAllocatedBytes = 0;
+        for (Map.Entry<Long, Long> thread : allocatedByThread().entrySet()) {
+            long allocated = thread.getValue() - allocatedAtStart.getOrDefault(thread.getKey(), 0L);
+            allocatedBytes += allocated;
+            if (callerThreads.contains(thread.getKey())) {
+                callerAllocatedBytes += allocated;
+            }
+        }
+        close();
+    }
+
+    long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    long getCallerAllocatedBytes() {
+        return callerAllocatedBytes;
+    }
+
+    double getAllocationRate() {
+        return elapsedNanos == 0 ? 0 : allocatedBytes / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Stop-the-world pause durations in nanoseconds, at the millisecond resolution the collectors report.
+     */
+    Histogram getPauses() {
+        return pauses;
+    }
+
+    long getConcurrentCycles() {
+        return concurrentCycles.sum();
+    }
+
+    @Override
+    public void close() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException ignore) {
+                    // Already removed.
+                }
+            }
+        }
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        // e.g. "G1 Concurrent GC" or "ZGC Cycles", which run alongside the application.
+        if (info.getGcName().contains("Concurrent") || info.getGcName().contains("Cycles")) {
+            concurrentCycles.increment();
+        } else {
+            pauses.record(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration()));
+        }
+    }
+
+    private Map<Long, Long> allocatedByThread() {
+        long[] ids = threads.getAllThreadIds();
+        long[] allocated = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> byThread = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (allocated[i] >= 0) {
+                byThread.put(ids[i], allocated[i]);
+            }
+        }
+        return byThread;
+    }
+}
@@ -0,0 +1,406 @@
+package ai.freeplay.loadtest;
+
+import ai.freeplay.client.CachingTemplateResolver;
+import ai.freeplay.client.FireAndForget;
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.FormattedPrompt;
+import ai.freeplay.client.resources.prompts.Prompts.GetFormattedRequest;
+import ai.freeplay.client.resources.recordings.CallInfo;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.sessions.Session;
+import ai.freeplay.client.resources.sessions.TraceInfo;
+import ai.freeplay.testkit.Faults;
+import ai.freeplay.testkit.Latency;
+import ai.freeplay.testkit.StubFreeplayServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static ai.freeplay.client.Freeplay.Config;
+
+/**
+ * Drives the SDK with the flow an application runs per LLM call, {@code prompts().getFormatted(...)} then
+ * {@code recordings().create(...)} then {@code TraceInfo.recordOutput(...)}, at a fixed open-loop rate across a pool
+ * of virtual users.
+ * <p>
+ * Flows are started on a schedule whether or not earlier ones have finished. When every user is busy, started flows
+ * queue, and their latency is measured from when they were scheduled rather than when a user picked them up, so a
+ * saturated SDK shows up as growing latency instead of a quietly lower request rate (coordinated omission). Flows
+ * still queued or running when the drain timeout expires are reported as unfinished.
+ * <pre>
+ * ./gradlew :loadtest:run --args="--qps=2000 --users=64 --duration=60"
+ * ./gradlew :loadtest:run --args="--qps=500 --stub-latency-p50-ms=40 --stub-latency-p99-ms=250 --fire-and-forget"
+ * </pre>
+ * Without {@code --base-url}, the run targets an embedded {@link StubFreeplayServer}.
+ */
+public class LoadTest {
+    private final Freeplay fpClient;
+    private final Config config;
+
+    private final Histogram flowLatency = new Histogram();
+    private final Histogram serviceTime = new Histogram();
+    private final Histogram callerTime = new Histogram();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger sequence = new AtomicInteger();
+    // Set when the drain timeout expires; flows ending after it are counted as unfinished, not completed or failed.
+    private volatile boolean abandoned = false;
+
+    public LoadTest(Freeplay fpClient, Config config) {
+        this.fpClient = fpClient;
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        StubFreeplayServer server = null;
+        String baseUrl = config.baseUrl;
+        if (baseUrl == null) {
+            server = StubFreeplayServer.start(new StubFreeplayServer.Config()
+                    .maxCapturedRequests(0)
+                    .faults(new Faults().latency(config.stubLatency)));
+            baseUrl = server.getBaseUrl();
+        }
+
+        Freeplay.FreeplayConfig clientConfig = Config()
+                .freeplayAPIKey(config.apiKey)
+                .baseUrl(baseUrl);
+        if (config.cacheTemplates) {
+            clientConfig.cacheTemplates(new CachingTemplateResolver.Config());
+        }
+        if (config.fireAndForget) {
+            clientConfig.fireAndForget(new FireAndForget());
+        }
+
+        try (Freeplay fpClient = new Freeplay(clientConfig)) {
+            System.out.println(new LoadTest(fpClient, config).run());
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        JvmMetrics jvmMetrics = new JvmMetrics();
+        ExecutorService users = Executors.newFixedThreadPool(config.users, runnable -> {
+            Thread thread = new Thread(runnable, "freeplay-loadtest-user");
+            thread.setDaemon(true);
+            jvmMetrics.addCallerThread(thread);
+            return thread;
+        });
+        long intervalNanos = (long) (1e9 / config.qps);
+        long warmupNanos = config.warmup.toNanos();
+        long totalNanos = warmupNanos + config.duration.toNanos();
+        // Counts down as each flow ends, so the metrics window closes while the users' threads, whose allocation it
+        // sums, are still alive.
+        CountDownLatch drained = new CountDownLatch(Math.toIntExact((totalNanos + intervalNanos - 1) / intervalNanos));
+        try {
+            long start = System.nanoTime();
+            boolean measuring = warmupNanos == 0;
+            long measured = 0;
+            if (measuring) {
+                jvmMetrics.start();
+            }
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled - start >= totalNanos) {
+                    break;
+                }
+                if (!measuring && scheduled - start >= warmupNanos) {
+                    measuring = true;
+                    jvmMetrics.start();
+                }
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (measuring) {
+                    measured++;
+                }
+                users.execute(new Flow(scheduled, measuring, drained));
+            }
+            boolean finished = drained.await(config.drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            jvmMetrics.stop();
+            long unstarted = 0;
+            long unfinished = 0;
+            if (!finished) {
+                abandoned = true;
+                for (Runnable flow : users.shutdownNow()) {
+                    if (((Flow) flow).record) {
+                        unstarted++;
+                    }
+                }
+                // Interrupted flows stop waiting on their calls, so the counts settle quickly.
+                users.awaitTermination(1, TimeUnit.SECONDS);
+                unfinished = measured - completed.sum() - failed.sum();
+            }
+            return new LoadTestReport(config.qps, config.users, config.duration, completed.sum(), failed.sum(),
+                    unfinished, unstarted, flowLatency, serviceTime, callerTime, jvmMetrics);
+        } finally {
+            users.shutdownNow();
+            jvmMetrics.close();
+        }
+    }
+
+    private void runFlow(long scheduled, boolean record) {
+        long started = System.nanoTime();
+        long caller = 0;
+        try {
+            int n = sequence.incrementAndGet();
+            Map<String, Object> variables = Map.of("question", "question " + n);
+
+            long callStart = System.nanoTime();
+            CompletableFuture<FormattedPrompt<List<ChatMessage>>> formatting = fpClient.prompts()
+                    .getFormatted(new GetFormattedRequest(config.projectId, config.templateName, config.environment, variables));
+            caller += System.nanoTime() - callStart;
+            FormattedPrompt<List<ChatMessage>> prompt = formatting.get();
+
+            Session session = fpClient.sessions().create();
+            TraceInfo trace = session.createTrace("question " + n);
+            long endMillis = System.currentTimeMillis();
+            RecordPayload payload = new RecordPayload(
+                    config.projectId,
+                    prompt.allMessages(new ChatMessage("assistant", "answer " + n))
+            ).inputs(variables)
+                    .sessionInfo(session.getSessionInfo())
+                    .promptVersionInfo(prompt.getPromptInfo())
+                    .callInfo(CallInfo.from(prompt.getPromptInfo(), endMillis, endMillis))
+                    .parentId(trace.getTraceId());
+
+            callStart = System.nanoTime();
+            CompletableFuture<?> recording = fpClient.recordings().create(payload);
+            caller += System.nanoTime() - callStart;
+            recording.get();
+
+            callStart = System.nanoTime();
+            CompletableFuture<?> tracing = trace.recordOutput(config.projectId, "answer " + n);
+            caller += System.nanoTime() - callStart;
+            tracing.get();
+        } catch (Exception e) {
+            if (record && !abandoned) {
+                failed.increment();
+            }
+            return;
+        }
+        if (record && !abandoned) {
+            long finished = System.nanoTime();
+            flowLatency.record(finished - scheduled);
+            serviceTime.record(finished - started);
+            callerTime.record(caller);
+            completed.increment();
+        }
+    }
+
+    private class Flow implements Runnable {
+        private final long scheduled;
+        private final boolean record;
+        private final CountDownLatch drained;
+
+        private Flow(long scheduled, boolean record, CountDownLatch drained) {
+            this.scheduled = scheduled;
+            this.record = record;
+            this.drained = drained;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runFlow(scheduled, record);
+            } finally {
+                drained.countDown();
+            }
+        }
+    }
+
+    public static class Config {
+        private double qps = 100;
+        private int users = 16;
+        private Duration duration = Duration.ofSeconds(60);
+        private Duration warmup = Duration.ofSeconds(10);
+        private Duration drainTimeout = Duration.ofSeconds(30);
+        private String baseUrl;
+        private String apiKey = "load-test-key";
+        private String projectId = "load-test-project";
+        private String templateName = "stub-template";
+        private String environment = "latest";
+        private Latency stubLatency = Latency.none();
+        private boolean cacheTemplates;
+        private boolean fireAndForget;
+
+        /**
+         * Flows started per second, whether or not earlier flows have finished.
+         */
+        public Config qps(double qps) {
+            if (qps <= 0) {
+                throw new IllegalArgumentException("qps must be positive.");
+            }
+            this.qps = qps;
+            return this;
+        }
+
+        /**
+         * Virtual users, i.e. flows that may run at once.
+         */
+        public Config users(int users) {
+            if (users < 1) {
+                throw new IllegalArgumentException("users must be at least 1.");
+            }
+            this.users = users;
+            return this;
+        }
+
+        public Config duration(Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive.");
+            }
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Time to run at the target rate before measuring, so the JIT, connection pool and template cache settle.
+         */
+        public Config warmup(Duration warmup) {
+            if (warmup.isNegative()) {
+                throw new IllegalArgumentException("warmup must not be negative.");
+            }
+            this.warmup = warmup;
+            return this;
+        }
+
+        /**
+         * How long to wait for queued flows to finish once the last one is started.
+         */
+        public Config drainTimeout(Duration drainTimeout) {
+            if (drainTimeout.isNegative()) {
+                throw new IllegalArgumentException("drainTimeout must not be negative.");
+            }
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * A Freeplay API to target instead of the embedded stub server.
+         */
+        public Config baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        public Config apiKey(String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        public Config projectId(String projectId) {
+            this.projectId = projectId;
+            return this;
+        }
+
+        public Config templateName(String templateName) {
+            this.templateName = templateName;
+            return this;
+        }
+
+        public Config environment(String environment) {
+            this.environment = environment;
+            return this;
+        }
+
+        /**
+         * Latency the embedded stub server adds to every response.
+         */
+        public Config stubLatency(Latency stubLatency) {
+            this.stubLatency = stubLatency;
+            return this;
+        }
+
+        public Config cacheTemplates(boolean cacheTemplates) {
+            this.cacheTemplates = cacheTemplates;
+            return this;
+        }
+
+        public Config fireAndForget(boolean fireAndForget) {
+            this.fireAndForget = fireAndForget;
+            return this;
+        }
+
+        /**
+         * Reads {@code --name=value} arguments, e.g. {@code --qps=500 --users=32 --duration=30 --cache-templates}.
+         * Durations are in seconds.
+         */
+        static Config parse(String[] args) {
+            Config config = new Config();
+            Duration stubP50 = Duration.ZERO;
+            Duration stubP99 = Duration.ZERO;
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+                String value = equals < 0 ? "true" : arg.substring(equals + 1);
+                switch (name) {
+                    case "qps":
+                        config.qps(Double.parseDouble(value));
+                        break;
+                    case "users":
+                        config.users(Integer.parseInt(value));
+                        break;
+                    case "duration":
+                        config.duration(Duration.ofSeconds(Long.parseLong(value)));
+                        break;
+                    case "warmup":
+                        config.warmup(Duration.ofSeconds(Long.parseLong(value)));
+                        break;
+                    case "base-url":
+                        config.baseUrl(value);
+                        break;
+                    case "api-key":
+                        config.apiKey(value);
+                        break;
+                    case "project-id":
+                        config.projectId(value);
+                        break;
+                    case "template":
+                        config.templateName(value);
+                        break;
+                    case "environment":
+                        config.environment(value);
+                        break;
+                    case "stub-latency-p50-ms":
+                        stubP50 = Duration.ofMillis(Long.parseLong(value));
+                        break;
+                    case "stub-latency-p99-ms":
+                        stubP99 = Duration.ofMillis(Long.parseLong(value));
+                        break;
+                    case "cache-templates":
+                        config.cacheTemplates(Boolean.parseBoolean(value));
+                        break;
+                    case "fire-and-forget":
+                        config.fireAndForget(Boolean.parseBoolean(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            if (stubP99.compareTo(stubP50) > 0) {
+                config.stubLatency(Latency.percentiles(stubP50, stubP99));
+            } else if (!stubP50.isZero()) {
+                config.stubLatency(Latency.fixed(stubP50));
+            }
+            return config;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ai.freeplay.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The results of a {@link LoadTest} run, after warmup. Latencies are in nanoseconds.
+ */
+public class LoadTestReport {
+    private final double targetQps;
+    private final int users;
+    private final Duration duration;
+    private final long completed;
+    private final long failed;
+    private final long unfinished;
+    private final long unstarted;
+    private final long elapsedNanos;
+    private final Histogram flowLatency;
+    private final Histogram serviceTime;
+    private final Histogram callerTime;
+    private final long allocatedBytes;
+    private final long callerAllocatedBytes;
+    private final double allocationRate;
+    private final Histogram gcPauses;
+    private final long concurrentGcCycles;
+
+    LoadTestReport(
+            double targetQps,
+            int users,
+            Duration duration,
+            long completed,
+            long failed,
+            long unfinished,
+            long unstarted,
+            Histogram flowLatency,
+            Histogram serviceTime,
+            Histogram callerTime,
+            JvmMetrics jvmMetrics
+    ) {
+        this.targetQps = targetQps;
+        this.users = users;
+        this.duration = duration;
+        this.completed = completed;
+        this.failed = failed;
+        this.unfinished = unfinished;
+        this.unstarted = unstarted;
+        this.elapsedNanos = jvmMetrics.getElapsedNanos();
+        this.flowLatency = flowLatency;
+        this.serviceTime = serviceTime;
+        this.callerTime = callerTime;
+        this.allocatedBytes = jvmMetrics.getAllocatedBytes();
+        this.callerAllocatedBytes = jvmMetrics.getCallerAllocatedBytes();
+        this.allocationRate = jvmMetrics.getAllocationRate();
+        this.gcPauses = jvmMetrics.getPauses();
+        this.concurrentGcCycles = jvmMetrics.getConcurrentCycles();
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Measured flows that had not finished when the drain timeout expired, whether still queued for a user or running.
+     * They are not in the latency histograms; a run with any is saturated and its latencies are a lower bound.
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * The unfinished flows that were still queued for a user, and so never started.
+     */
+    public long getUnstarted() {
+        return unstarted;
+    }
+
+    /**
+     * Completed flows per second, from the end of warmup until the last flow finished. Each flow sends one completion
+     * record and one trace. Below the target rate when the SDK cannot keep up.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : completed / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * From when each flow was scheduled to when its last call completed, including time queued for a user.
+     */
+    public Histogram getFlowLatency() {
+        return flowLatency;
+    }
+
+    /**
+     * From when a user started each flow to when its last call completed. Against a stub server without added
+     * latency this is the SDK's overhead per flow, plus the loopback round trips.
+     */
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    /**
+     * Time the user's thread spent inside the SDK's methods before they returned a future, summed over the flow's
+     * three calls.
+     */
+    public Histogram getCallerTime() {
+        return callerTime;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * The part of {@link #getAllocatedBytes()} allocated on the users' threads: formatting templates, building records
+     * and serializing them, as opposed to the SDK's HTTP and scheduler threads.
+     */
+    public long getCallerAllocatedBytes() {
+        return callerAllocatedBytes;
+    }
+
+    /**
+     * Bytes allocated per second over the measured window.
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    public Histogram getGcPauses() {
+        return gcPauses;
+    }
+
+    public long getConcurrentGcCycles() {
+        return concurrentGcCycles;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Target: %.1f flows/s across %d users for %ds%n",
+                targetQps, users, duration.toSeconds()));
+        report.append(String.format(Locale.ROOT, "Throughput: %.1f flows/s (%d completed, %d failed)%n",
+                getThroughput(), completed, failed));
+        if (unfinished > 0) {
+            report.append(String.format(Locale.ROOT, "Unfinished at drain timeout: %d (%d never started)%n",
+                    unfinished, unstarted));
+        }
+        report.append(String.format(Locale.ROOT, "%-16s %10s %10s %10s %10s %10s%n",
+                "(ms)", "mean", "p50", "p99", "p99.9", "max"));
+        appendLatencies(report, "flow latency", flowLatency);
+        appendLatencies(report, "service time", serviceTime);
+        appendLatencies(report, "caller time", callerTime);
+        appendLatencies(report, "gc pause", gcPauses);
+        report.append(String.format(Locale.ROOT, "GC: %d pauses, %d concurrent cycles%n",
+                gcPauses.getCount(), concurrentGcCycles));
+        report.append(String.format(Locale.ROOT, "Allocation: %.1f MB/s, %.1f KB per flow (%.1f KB on user threads)%n",
+                allocationRate / (1024 * 1024),
+                completed == 0 ? 0 : allocatedBytes / 1024.0 / completed,
+                completed == 0 ? 0 : callerAllocatedBytes / 1024.0 / completed));
+        return report.toString();
+    }
+
+    private static void appendLatencies(StringBuilder report, String name, Histogram histogram) {
+        report.append(String.format(Locale.ROOT, "%-16s %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name,
+                histogram.getMean() / 1e6,
+                histogram.valueAtPercentile(50) / 1e6,
+                histogram.valueAtPercentile(99) / 1e6,
+                histogram.valueAtPercentile(99.9) / 1e6,
+                histogram.getMax() / 1e6));
+    }
+}
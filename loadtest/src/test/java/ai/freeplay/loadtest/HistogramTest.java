@@ -0,0 +1,42 @@
+package ai.freeplay.loadtest;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_500.0, histogram.getMean(), 0.001);
+        assertWithin(50_000_000, histogram.valueAtPercentile(50));
+        assertWithin(99_000_000, histogram.valueAtPercentile(99));
+        assertWithin(99_900_000, histogram.valueAtPercentile(99.9));
+        assertEquals(100_000_000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void testBucketsCoverTheLongRange() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            long highest = Histogram.highestEquivalentValue(Histogram.indexOf(value));
+            assertTrue(value + " > " + highest, highest >= value);
+            assertTrue(value + " far from " + highest, highest - value <= value / 128);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highestEquivalentValue(Histogram.indexOf(Long.MAX_VALUE)));
+        assertEquals(0, new Histogram().valueAtPercentile(99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(expected + " vs " + actual, Math.abs(actual - expected) <= expected / 128);
+    }
+}
@@ -0,0 +1,70 @@
+package ai.freeplay.loadtest;
+
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.testkit.Endpoint;
+import ai.freeplay.testkit.Faults;
+import ai.freeplay.testkit.Latency;
+import ai.freeplay.testkit.StubFreeplayServer;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class LoadTestTest {
+    @Test
+    public void testRunsFlowsAtTheTargetRate() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config().maxCapturedRequests(0));
+             Freeplay fpClient = new Freeplay(Config().freeplayAPIKey("api-key").baseUrl(server.getBaseUrl()))) {
+            LoadTestReport report = new LoadTest(fpClient, new LoadTest.Config()
+                    .qps(200)
+                    .users(4)
+                    .warmup(Duration.ofMillis(500))
+                    .duration(Duration.ofSeconds(1)))
+                    .run();
+
+            assertEquals(0, report.getFailed());
+            assertEquals(200, report.getCompleted());
+            assertEquals(200, report.getFlowLatency().getCount());
+            assertTrue(report.getFlowLatency().valueAtPercentile(99) >= report.getServiceTime().valueAtPercentile(50));
+            // Formatting and recording on the users' threads allocates, and those threads are still alive to be counted.
+            assertTrue(report.getCallerAllocatedBytes() > 0);
+            assertTrue(report.getAllocatedBytes() > report.getCallerAllocatedBytes());
+            // Warmup flows are sent but not measured.
+            assertEquals(300, server.getRequestCount(Endpoint.COMPLETIONS));
+            assertEquals(300, server.getRequestCount(Endpoint.TRACES));
+            assertTrue(report.toString().contains("flow latency"));
+        }
+    }
+
+    @Test
+    public void testReportsFlowsLeftWhenTheDrainTimesOut() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config()
+                .maxCapturedRequests(0)
+                .faults(new Faults().latency(Latency.fixed(Duration.ofMillis(50)))));
+             Freeplay fpClient = new Freeplay(Config().freeplayAPIKey("api-key").baseUrl(server.getBaseUrl()))) {
+            // Two users manage about a dozen flows a second, so most of the 100 scheduled flows queue.
+            LoadTestReport report = new LoadTest(fpClient, new LoadTest.Config()
+                    .qps(100)
+                    .users(2)
+                    .warmup(Duration.ZERO)
+                    .duration(Duration.ofSeconds(1))
+                    .drainTimeout(Duration.ofMillis(100)))
+                    .run();
+
+            assertEquals(100, report.getCompleted() + report.getFailed() + report.getUnfinished());
+            assertTrue(report.getUnstarted() > 0);
+            assertTrue(report.getUnfinished() >= report.getUnstarted());
+            assertTrue(report.toString().contains("Unfinished at drain timeout"));
+        }
+    }
+
+    @Test
+    public void testParsesArguments() {
+        LoadTest.Config config = LoadTest.Config.parse(new String[]{"--qps=50", "--users=2", "--cache-templates"});
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.Config.parse(new String[]{"--unknown=1"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.Config.parse(new String[]{"--qps=0"}));
+        assertNotNull(config);
+    }
+}
@@ -11,4 +11,4 @@ plugins {
 }
 
 rootProject.name = "freeplay-jvm"
-include("lib", "examples")
+include("lib", "examples", "benchmarks", "testkit", "loadtest")
@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.21.2")
+
+    testImplementation("junit:junit:4.13.2")
+    testImplementation(project(":lib"))
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(11))
+    }
+}
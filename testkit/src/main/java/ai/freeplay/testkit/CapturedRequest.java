@@ -0,0 +1,99 @@
+package ai.freeplay.testkit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request received by the stub server. Gzipped bodies are stored decompressed.
+ */
+public class CapturedRequest {
+    private final Endpoint endpoint;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final int status;
+    private final Instant receivedAt;
+
+    CapturedRequest(
+            Endpoint endpoint,
+            String method,
+            String path,
+            String query,
+            Map<String, List<String>> headers,
+            byte[] body,
+            int status,
+            Instant receivedAt
+    ) {
+        this.endpoint = endpoint;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.headers = headers;
+        this.body = body;
+        this.status = status;
+        this.receivedAt = receivedAt;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The raw query string, or null if there is none.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Request headers, keyed by name with the first letter capitalized as {@code com.sun.net.httpserver} stores them.
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The status the server answered with, or -1 if the connection was dropped.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (query != null ? "?" + query : "") + " -> " + status;
+    }
+}
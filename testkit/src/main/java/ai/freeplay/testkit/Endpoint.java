@@ -0,0 +1,19 @@
+package ai.freeplay.testkit;
+
+/**
+ * The families of v2 API endpoints the stub server answers. Faults can be set per family.
+ */
+public enum Endpoint {
+    COMPLETIONS,
+    TRACES,
+    PROMPT_TEMPLATES,
+    DATASETS,
+    TEST_RUNS,
+    FEEDBACK,
+    METADATA,
+    SESSIONS,
+    /**
+     * Paths the stub does not implement. They get a 404.
+     */
+    UNKNOWN
+}
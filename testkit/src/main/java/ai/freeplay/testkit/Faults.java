@@ -0,0 +1,102 @@
+package ai.freeplay.testkit;
+
+import java.time.Duration;
+
+/**
+ * Latency and failures injected by the stub server. Rates are the fraction of requests, from 0 to 1, and are drawn
+ * independently for each request: a request is rate limited, dropped, failed, or answered normally.
+ */
+public class Faults {
+    private Latency latency = Latency.none();
+    private double rateLimitRate = 0;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private double errorRate = 0;
+    private int errorStatus = 503;
+    private double disconnectRate = 0;
+
+    public static Faults none() {
+        return new Faults();
+    }
+
+    /**
+     * Delay before every response, including injected errors.
+     */
+    public Faults latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Fraction of requests answered with a 429.
+     */
+    public Faults rateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = checkRate("rateLimitRate", rateLimitRate);
+        return this;
+    }
+
+    /**
+     * The Retry-After sent with a 429, or null to send none.
+     */
+    public Faults retryAfter(Duration retryAfter) {
+        if (retryAfter != null && retryAfter.isNegative()) {
+            throw new IllegalArgumentException("retryAfter must not be negative.");
+        }
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    /**
+     * Fraction of requests answered with {@link #errorStatus(int)}.
+     */
+    public Faults errorRate(double errorRate) {
+        this.errorRate = checkRate("errorRate", errorRate);
+        return this;
+    }
+
+    public Faults errorStatus(int errorStatus) {
+        if (errorStatus < 400 || errorStatus > 599) {
+            throw new IllegalArgumentException("errorStatus must be a 4xx or 5xx status.");
+        }
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    /**
+     * Fraction of requests whose connection is closed without a response, like a crashed server or a reset.
+     */
+    public Faults disconnectRate(double disconnectRate) {
+        this.disconnectRate = checkRate("disconnectRate", disconnectRate);
+        return this;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public double getRateLimitRate() {
+        return rateLimitRate;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public double getDisconnectRate() {
+        return disconnectRate;
+    }
+
+    private static double checkRate(String name, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1.");
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,62 @@
+package ai.freeplay.testkit;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * How long the stub server waits before answering a request.
+ */
+@FunctionalInterface
+public interface Latency {
+    /**
+     * Draws the next delay, in nanoseconds.
+     */
+    long nextNanos(Random random);
+
+    static Latency none() {
+        return random -> 0;
+    }
+
+    static Latency fixed(Duration delay) {
+        long nanos = delay.toNanos();
+        return random -> nanos;
+    }
+
+    static Latency uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        if (range < 0) {
+            throw new IllegalArgumentException("max must not be less than min.");
+        }
+        return random -> minNanos + (long) (random.nextDouble() * range);
+    }
+
+    static Latency exponential(Duration mean) {
+        double meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * A log-normal distribution, the usual shape of API latency: most calls near the median with a long tail.
+     * {@code sigma} is the standard deviation of the log of the delay.
+     */
+    static Latency logNormal(Duration median, double sigma) {
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma must not be negative.");
+        }
+        double medianNanos = median.toNanos();
+        return random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * A log-normal distribution with the given median and 99th percentile.
+     */
+    static Latency percentiles(Duration p50, Duration p99) {
+        if (p99.compareTo(p50) < 0) {
+            throw new IllegalArgumentException("p99 must not be less than p50.");
+        }
+        // The 99th percentile of a standard normal distribution.
+        double z99 = 2.3263;
+        return logNormal(p50, Math.log((double) p99.toNanos() / Math.max(1, p50.toNanos())) / z99);
+    }
+}
@@ -0,0 +1,239 @@
+package ai.freeplay.testkit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLDecoder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Answers v2 API paths with responses shaped like the real API's, enough for the SDK to parse them. Nothing is
+ * stored: IDs are echoed from the request or derived from the path.
+ */
+class StubApi {
+    private static final Pattern PROJECT_PATH = Pattern.compile("^/api/v2/projects/([^/]+)(/.*)$");
+
+    private static final Pattern COMPLETIONS = Pattern.compile("^/sessions/[^/]+/completions$");
+    private static final Pattern TRACE = Pattern.compile("^/sessions/[^/]+/traces/id/[^/]+$");
+    private static final Pattern TRACE_METADATA = Pattern.compile("^/sessions/[^/]+/traces/id/[^/]+/metadata$");
+    private static final Pattern SESSION_METADATA = Pattern.compile("^/sessions/id/[^/]+/metadata$");
+    private static final Pattern SESSION = Pattern.compile("^/sessions/[^/]+$");
+    private static final Pattern ALL_TEMPLATES = Pattern.compile("^/prompt-templates/all/[^/]+$");
+    private static final Pattern TEMPLATE_BY_NAME = Pattern.compile("^/prompt-templates/name/([^/]+)$");
+    private static final Pattern TEMPLATE_VERSIONS = Pattern.compile("^/prompt-templates/name/([^/]+)/versions$");
+    private static final Pattern TEMPLATE_BY_ID = Pattern.compile("^/prompt-templates/id/([^/]+)/versions/([^/]+)$");
+    private static final Pattern TEMPLATE_ENVIRONMENTS = Pattern.compile("^/prompt-templates/id/[^/]+/versions/[^/]+/environments$");
+    private static final Pattern DATASETS = Pattern.compile("^/(prompt|agent)-datasets$");
+    private static final Pattern DATASET = Pattern.compile("^/(prompt|agent)-datasets/([^/]+)$");
+    private static final Pattern TEST_CASES = Pattern.compile("^/(prompt|agent)-datasets/[^/]+/test-cases$");
+    private static final Pattern TEST_CASES_BULK = Pattern.compile("^/(prompt|agent)-datasets/[^/]+/test-cases/bulk$");
+    private static final Pattern TEST_CASE = Pattern.compile("^/(prompt|agent)-datasets/[^/]+/test-cases/([^/]+)$");
+    private static final Pattern TEST_RUNS = Pattern.compile("^/test-runs$");
+    private static final Pattern TEST_RUN = Pattern.compile("^/test-runs/id/([^/]+)$");
+    private static final Pattern FEEDBACK = Pattern.compile("^/(completion|trace)-feedback/id/[^/]+$");
+
+    private final List<String> templateNames;
+
+    StubApi(List<String> templateNames) {
+        this.templateNames = templateNames;
+    }
+
+    static class Route {
+        final Endpoint endpoint;
+        final int status;
+        final Object body;
+
+        Route(Endpoint endpoint, int status, Object body) {
+            this.endpoint = endpoint;
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    Route route(String method, String path, JsonNode body) {
+        Matcher project = PROJECT_PATH.matcher(path);
+        if (!project.matches()) {
+            return notFound(path);
+        }
+        String projectId = project.group(1);
+        String resource = project.group(2);
+        Matcher matcher;
+
+        if (COMPLETIONS.matcher(resource).matches() && method.equals("POST")) {
+            String completionId = body.path("completion_id").asText(null);
+            return new Route(Endpoint.COMPLETIONS, 201,
+                    object("completion_id", completionId != null ? completionId : UUID.randomUUID().toString()));
+        }
+        if (TRACE_METADATA.matcher(resource).matches() || SESSION_METADATA.matcher(resource).matches()) {
+            return method.equals("PATCH") ? new Route(Endpoint.METADATA, 200, object()) : notAllowed(Endpoint.METADATA);
+        }
+        if (TRACE.matcher(resource).matches()) {
+            if (method.equals("POST")) {
+                return new Route(Endpoint.TRACES, 201, object());
+            }
+            return method.equals("PATCH") ? new Route(Endpoint.TRACES, 200, object()) : notAllowed(Endpoint.TRACES);
+        }
+        if (SESSION.matcher(resource).matches()) {
+            return method.equals("DELETE") ? new Route(Endpoint.SESSIONS, 201, object()) : notAllowed(Endpoint.SESSIONS);
+        }
+
+        if (ALL_TEMPLATES.matcher(resource).matches() && method.equals("GET")) {
+            Object[] templates = templateNames.stream().map(name -> template(projectId, name)).toArray();
+            return new Route(Endpoint.PROMPT_TEMPLATES, 200, object("prompt_templates", List.of(templates)));
+        }
+        if ((matcher = TEMPLATE_BY_NAME.matcher(resource)).matches() && method.equals("GET")) {
+            return new Route(Endpoint.PROMPT_TEMPLATES, 200, template(projectId, decode(matcher.group(1))));
+        }
+        if ((matcher = TEMPLATE_BY_ID.matcher(resource)).matches() && method.equals("GET")) {
+            Map<String, Object> template = template(projectId, "stub-template");
+            template.put("prompt_template_id", matcher.group(1));
+            template.put("prompt_template_version_id", matcher.group(2));
+            return new Route(Endpoint.PROMPT_TEMPLATES, 200, template);
+        }
+        if ((matcher = TEMPLATE_VERSIONS.matcher(resource)).matches() && method.equals("POST")) {
+            Map<String, Object> version = template(projectId, decode(matcher.group(1)));
+            version.put("prompt_template_version_id", UUID.randomUUID().toString());
+            version.put("version_name", body.path("version_name").asText(null));
+            version.put("version_description", body.path("version_description").asText(null));
+            version.put("tool_schema", List.of());
+            return new Route(Endpoint.PROMPT_TEMPLATES, 201, version);
+        }
+        if (TEMPLATE_ENVIRONMENTS.matcher(resource).matches() && method.equals("POST")) {
+            return new Route(Endpoint.PROMPT_TEMPLATES, 200, object());
+        }
+
+        if ((matcher = DATASETS.matcher(resource)).matches()) {
+            boolean agent = matcher.group(1).equals("agent");
+            if (method.equals("POST")) {
+                return new Route(Endpoint.DATASETS, 201,
+                        dataset(agent, UUID.randomUUID().toString(), body.path("name").asText("Stub Dataset")));
+            }
+            if (method.equals("GET")) {
+                return new Route(Endpoint.DATASETS, 200, page(dataset(agent, UUID.randomUUID().toString(), "Stub Dataset")));
+            }
+            return notAllowed(Endpoint.DATASETS);
+        }
+        if ((matcher = DATASET.matcher(resource)).matches()) {
+            boolean agent = matcher.group(1).equals("agent");
+            if (method.equals("DELETE")) {
+                return new Route(Endpoint.DATASETS, 200, object());
+            }
+            return new Route(Endpoint.DATASETS, 200,
+                    dataset(agent, matcher.group(2), body.path("name").asText("Stub Dataset")));
+        }
+        if ((matcher = TEST_CASES.matcher(resource)).matches() && method.equals("GET")) {
+            return new Route(Endpoint.DATASETS, 200,
+                    page(testCase(matcher.group(1).equals("agent"), UUID.randomUUID().toString())));
+        }
+        if ((matcher = TEST_CASES_BULK.matcher(resource)).matches()) {
+            if (method.equals("POST")) {
+                boolean agent = matcher.group(1).equals("agent");
+                int count = Math.max(1, body.path("data").size());
+                Object[] created = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    created[i] = testCase(agent, UUID.randomUUID().toString());
+                }
+                return new Route(Endpoint.DATASETS, 201, object("data", List.of(created)));
+            }
+            return method.equals("DELETE") ? new Route(Endpoint.DATASETS, 200, object()) : notAllowed(Endpoint.DATASETS);
+        }
+        if ((matcher = TEST_CASE.matcher(resource)).matches()) {
+            if (method.equals("DELETE")) {
+                return new Route(Endpoint.DATASETS, 200, object());
+            }
+            return new Route(Endpoint.DATASETS, 200, testCase(matcher.group(1).equals("agent"), matcher.group(2)));
+        }
+
+        if (TEST_RUNS.matcher(resource).matches() && method.equals("POST")) {
+            return new Route(Endpoint.TEST_RUNS, 201, object(
+                    "test_run_id", UUID.randomUUID().toString(),
+                    "test_cases", List.of(
+                            object("test_case_id", UUID.randomUUID().toString(),
+                                    "variables", object("question", "Why isn't my sink working?"),
+                                    "output", "It took PTO today"),
+                            object("test_case_id", UUID.randomUUID().toString(),
+                                    "variables", object("question", "Why isn't my internet working?"),
+                                    "output", "It's playing golf with the sink"))));
+        }
+        if ((matcher = TEST_RUN.matcher(resource)).matches() && method.equals("GET")) {
+            return new Route(Endpoint.TEST_RUNS, 200, object(
+                    "id", matcher.group(1),
+                    "name", "Stub Test Run",
+                    "description", null,
+                    "summary_statistics", object("auto_evaluation", object(), "human_evaluation", object()),
+                    "status", "completed"));
+        }
+
+        if (FEEDBACK.matcher(resource).matches() && method.equals("POST")) {
+            return new Route(Endpoint.FEEDBACK, 201, object());
+        }
+        return notFound(path);
+    }
+
+    private static Map<String, Object> template(String projectId, String name) {
+        UUID templateId = UUID.nameUUIDFromBytes(name.getBytes(UTF_8));
+        return object(
+                "prompt_template_id", templateId.toString(),
+                "prompt_template_version_id", UUID.nameUUIDFromBytes(templateId.toString().getBytes(UTF_8)).toString(),
+                "prompt_template_name", name,
+                "content", List.of(
+                        object("role", "system", "content", "You are a support agent."),
+                        object("role", "user", "content", "{{question}}")),
+                "format_version", 2,
+                "project_id", projectId,
+                "metadata", object(
+                        "provider", "openai",
+                        "model", "gpt-4o",
+                        "flavor", "openai_chat",
+                        "params", object("temperature", 0.2, "max_tokens", 256),
+                        "provider_info", object()));
+    }
+
+    private static Map<String, Object> dataset(boolean agent, String id, String name) {
+        if (agent) {
+            return object("id", id, "name", name, "description", "A stub agent dataset",
+                    "compatible_agent_ids", List.of(), "tags", List.of());
+        }
+        return object("id", id, "name", name, "description", "A stub dataset",
+                "input_names", List.of("question"), "media_input_names", List.of(),
+                "support_history", false, "tags", List.of());
+    }
+
+    private static Map<String, Object> testCase(boolean agent, String id) {
+        if (agent) {
+            return object("id", id, "input", object("query", "hello"), "output", object("response", "world"),
+                    "metadata", object());
+        }
+        return object("id", id, "inputs", object("question", "What is 2+2?"), "output", "4", "metadata", object());
+    }
+
+    private static Map<String, Object> page(Object item) {
+        return object("data", List.of(item), "pagination", object("page", 1, "page_size", 25, "has_next", false));
+    }
+
+    private static Route notFound(String path) {
+        return new Route(Endpoint.UNKNOWN, 404, object("message", "No stub for " + path));
+    }
+
+    private static Route notAllowed(Endpoint endpoint) {
+        return new Route(endpoint, 405, object("message", "Method not allowed"));
+    }
+
+    private static String decode(String pathSegment) {
+        return URLDecoder.decode(pathSegment.replace("+", "%2B"), UTF_8);
+    }
+
+    static Map<String, Object> object(Object... keysAndValues) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            object.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return object;
+    }
+}
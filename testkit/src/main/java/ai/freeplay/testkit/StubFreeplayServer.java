@@ -0,0 +1,356 @@
+package ai.freeplay.testkit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static ai.freeplay.testkit.StubApi.object;
+
+/**
+ * An embedded stand-in for the Freeplay API, for load and resilience testing the SDK without a network. It answers
+ * the v2 endpoints the SDK calls (completions, traces, prompt templates, datasets, test runs, feedback, metadata and
+ * sessions) with well-formed responses, injects latency and failures per {@link Faults}, and captures the requests
+ * it receives.
+ * <pre>{@code
+ * try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config()
+ *         .faults(new Faults().latency(Latency.percentiles(Duration.ofMillis(40), Duration.ofMillis(250))))
+ *         .faults(Endpoint.COMPLETIONS, new Faults().rateLimitRate(0.05)))) {
+ *     Freeplay fpClient = new Freeplay(Freeplay.Config().freeplayAPIKey("key").baseUrl(server.getBaseUrl()));
+ *     ...
+ * }
+ * }</pre>
+ * Responses are delayed on a scheduler rather than by sleeping in a handler, so thousands of slow requests can be
+ * in flight at once. When a delay expires, the response is written on the handler pool, not the scheduler's thread.
+ */
+public class StubFreeplayServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static {
+        // The JDK server writes response headers and body separately; with Nagle's algorithm on, the body then waits
+        // for the client's delayed ACK and every response takes ~40ms. Read once, before the first server starts.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService delays;
+    private final StubApi api;
+    private final int maxCaptured;
+    private volatile Faults defaultFaults;
+    private final Map<Endpoint, Faults> endpointFaults;
+
+    private final ConcurrentLinkedQueue<CapturedRequest> captured = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger capturedCount = new AtomicInteger();
+    private final Map<Endpoint, LongAdder> requestCounts = new EnumMap<>(Endpoint.class);
+    private final LongAdder injectedFaults = new LongAdder();
+
+    private StubFreeplayServer(Config config) throws IOException {
+        this.api = new StubApi(config.templateNames);
+        this.maxCaptured = config.maxCaptured;
+        this.defaultFaults = config.faults;
+        this.endpointFaults = new ConcurrentHashMap<>(config.endpointFaults);
+        for (Endpoint endpoint : Endpoint.values()) {
+            requestCounts.put(endpoint, new LongAdder());
+        }
+        this.handlers = Executors.newFixedThreadPool(config.threads, daemonThreads("freeplay-stub-handler-"));
+        this.delays = Executors.newSingleThreadScheduledExecutor(daemonThreads("freeplay-stub-delay-"));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.port), config.backlog);
+        server.createContext("/", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    public static StubFreeplayServer start() {
+        return start(new Config());
+    }
+
+    public static StubFreeplayServer start(Config config) {
+        try {
+            return new StubFreeplayServer(config);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start the stub Freeplay server.", e);
+        }
+    }
+
+    /**
+     * The base URL to configure the SDK with, e.g. {@code http://127.0.0.1:54321/api}.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort() + "/api";
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Replaces the faults for endpoints without their own. Takes effect for requests received afterwards, e.g. to
+     * start or end an outage in the middle of a test.
+     */
+    public void setFaults(Faults faults) {
+        this.defaultFaults = faults;
+    }
+
+    /**
+     * Replaces the faults for one endpoint family, or removes them if null.
+     */
+    public void setFaults(Endpoint endpoint, Faults faults) {
+        if (faults == null) {
+            endpointFaults.remove(endpoint);
+        } else {
+            endpointFaults.put(endpoint, faults);
+        }
+    }
+
+    /**
+     * The captured requests in the order they were received, up to the configured maximum.
+     */
+    public List<CapturedRequest> getRequests() {
+        return new ArrayList<>(captured);
+    }
+
+    public List<CapturedRequest> getRequests(Endpoint endpoint) {
+        return captured.stream().filter(request -> request.getEndpoint() == endpoint).collect(Collectors.toList());
+    }
+
+    public void clearRequests() {
+        captured.clear();
+        capturedCount.set(0);
+    }
+
+    /**
+     * Requests received for an endpoint family, whether or not they were captured or failed.
+     */
+    public long getRequestCount(Endpoint endpoint) {
+        return requestCounts.get(endpoint).sum();
+    }
+
+    public long getRequestCount() {
+        return requestCounts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Requests that were rate limited, failed, or dropped on purpose.
+     */
+    public long getInjectedFaultCount() {
+        return injectedFaults.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        delays.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange);
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+
+        StubApi.Route route;
+        try {
+            route = api.route(method, path, parse(body));
+        } catch (IOException e) {
+            route = new StubApi.Route(Endpoint.UNKNOWN, 400, object("message", "Invalid JSON body."));
+        }
+        if (route.status < 400 && exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            route = new StubApi.Route(route.endpoint, 401, object("message", "Missing API key."));
+        }
+        requestCounts.get(route.endpoint).increment();
+
+        Faults faults = endpointFaults.getOrDefault(route.endpoint, defaultFaults);
+        double draw = ThreadLocalRandom.current().nextDouble();
+        int status = route.status;
+        Object responseBody = route.body;
+        boolean disconnect = false;
+        if (draw < faults.getRateLimitRate()) {
+            status = 429;
+            responseBody = object("message", "Rate limited by the stub server.");
+            if (faults.getRetryAfter() != null) {
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(faults.getRetryAfter().toSeconds()));
+            }
+        } else if ((draw -= faults.getRateLimitRate()) < faults.getErrorRate()) {
+            status = faults.getErrorStatus();
+            responseBody = object("message", "Injected error from the stub server.");
+        } else if (draw - faults.getErrorRate() < faults.getDisconnectRate()) {
+            disconnect = true;
+            status = -1;
+        }
+        if (status != route.status) {
+            injectedFaults.increment();
+        }
+        capture(route.endpoint, exchange, body, status);
+
+        long delayNanos = faults.getLatency().nextNanos(ThreadLocalRandom.current());
+        Runnable respond = disconnect ? exchange::close : responder(exchange, status, responseBody);
+        if (delayNanos <= 0) {
+            respond.run();
+        } else {
+            // The scheduler is only a timer; serializing and writing run on the handler pool.
+            delays.schedule(() -> handlers.execute(respond), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Runnable responder(HttpExchange exchange, int status, Object body) {
+        return () -> {
+            try (OutputStream output = exchange.getResponseBody()) {
+                byte[] bytes = MAPPER.writeValueAsBytes(body);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                output.write(bytes);
+            } catch (IOException ignore) {
+                // The client went away, e.g. after its request timed out.
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void capture(Endpoint endpoint, HttpExchange exchange, byte[] body, int status) {
+        if (capturedCount.incrementAndGet() > maxCaptured) {
+            capturedCount.decrementAndGet();
+            return;
+        }
+        captured.add(new CapturedRequest(
+                endpoint,
+                exchange.getRequestMethod(),
+                exchange.getRequestURI().getPath(),
+                exchange.getRequestURI().getRawQuery(),
+                Map.copyOf(exchange.getRequestHeaders()),
+                body,
+                status,
+                Instant.now()
+        ));
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream input = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            input = new GZIPInputStream(input);
+        }
+        try (InputStream body = input) {
+            return body.readAllBytes();
+        }
+    }
+
+    private static JsonNode parse(byte[] body) throws IOException {
+        return body.length == 0 ? MissingNode.getInstance() : MAPPER.readTree(body);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static class Config {
+        private int port = 0;
+        private int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        private int backlog = 1024;
+        private int maxCaptured = 10_000;
+        private Faults faults = Faults.none();
+        private final Map<Endpoint, Faults> endpointFaults = new EnumMap<>(Endpoint.class);
+        private List<String> templateNames = List.of("stub-template");
+
+        /**
+         * The port to listen on. The default, 0, picks a free port; read it with
+         * {@link StubFreeplayServer#getPort()}.
+         */
+        public Config port(int port) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("port must be between 0 and 65535.");
+            }
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Threads that read requests and build responses. Delayed responses do not hold a thread.
+         */
+        public Config threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be at least 1.");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Connections the listening socket queues before refusing new ones.
+         */
+        public Config backlog(int backlog) {
+            if (backlog < 0) {
+                throw new IllegalArgumentException("backlog must not be negative.");
+            }
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * How many requests to keep for {@link StubFreeplayServer#getRequests()}. Later requests are counted but not kept; 0 keeps
+         * none, e.g. for long load tests.
+         */
+        public Config maxCapturedRequests(int maxCaptured) {
+            if (maxCaptured < 0) {
+                throw new IllegalArgumentException("maxCapturedRequests must not be negative.");
+            }
+            this.maxCaptured = maxCaptured;
+            return this;
+        }
+
+        /**
+         * Faults for every endpoint family without its own.
+         */
+        public Config faults(Faults faults) {
+            this.faults = faults;
+            return this;
+        }
+
+        public Config faults(Endpoint endpoint, Faults faults) {
+            this.endpointFaults.put(endpoint, faults);
+            return this;
+        }
+
+        /**
+         * Names of the templates returned when all templates for an environment are fetched. Any name can be
+         * fetched on its own.
+         */
+        public Config templateNames(String... templateNames) {
+            this.templateNames = Arrays.asList(templateNames);
+            return this;
+        }
+    }
+}
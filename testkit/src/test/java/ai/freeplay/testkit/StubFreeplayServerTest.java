@@ -0,0 +1,160 @@
+package ai.freeplay.testkit;
+
+import ai.freeplay.client.Freeplay;
+import ai.freeplay.client.HttpConfig;
+import ai.freeplay.client.RetryPolicy;
+import ai.freeplay.client.exceptions.FreeplayClientException;
+import ai.freeplay.client.exceptions.FreeplayServerException;
+import ai.freeplay.client.resources.prompts.ChatMessage;
+import ai.freeplay.client.resources.prompts.TemplatePrompt;
+import ai.freeplay.client.resources.recordings.RecordPayload;
+import ai.freeplay.client.resources.recordings.RecordResponse;
+import ai.freeplay.client.resources.sessions.Session;
+import ai.freeplay.client.resources.testruns.TestRun;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static ai.freeplay.client.Freeplay.Config;
+import static org.junit.Assert.*;
+
+public class StubFreeplayServerTest {
+    private static final String PROJECT_ID = "project-id";
+
+    @Test
+    public void testAnswersTheSdkCalls() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start();
+             Freeplay fpClient = client(server, new HttpConfig())) {
+            TemplatePrompt template = fpClient.prompts().get(PROJECT_ID, "my-prompt", "latest").get();
+            assertEquals("my-prompt", template.getPromptInfo().getTemplateName());
+
+            RecordResponse record = fpClient.recordings()
+                    .create(new RecordPayload(PROJECT_ID, List.of(new ChatMessage("assistant", "hello"))))
+                    .get();
+            assertNotNull(record.getCompletionId());
+
+            Session session = fpClient.sessions().create();
+            session.createTrace("question").recordOutput(PROJECT_ID, "answer").get();
+            fpClient.customerFeedback().update(PROJECT_ID, record.getCompletionId(), Map.of("helpful", true)).get();
+            fpClient.metadata().updateSession(PROJECT_ID, session.getSessionId(), Map.of("tier", "free")).get();
+            TestRun testRun = fpClient.testRuns().create(fpClient.testRuns().createRequest(PROJECT_ID, "golden").build()).get();
+            assertEquals(2, testRun.getTestCases().size());
+
+            assertEquals(1, server.getRequestCount(Endpoint.PROMPT_TEMPLATES));
+            assertEquals(1, server.getRequestCount(Endpoint.COMPLETIONS));
+            assertEquals(1, server.getRequestCount(Endpoint.TRACES));
+            assertEquals(1, server.getRequestCount(Endpoint.FEEDBACK));
+            assertEquals(1, server.getRequestCount(Endpoint.METADATA));
+            assertEquals(1, server.getRequestCount(Endpoint.TEST_RUNS));
+            assertEquals(0, server.getRequestCount(Endpoint.UNKNOWN));
+
+            CapturedRequest trace = server.getRequests(Endpoint.TRACES).get(0);
+            assertEquals("POST", trace.getMethod());
+            assertTrue(trace.getPath().contains(session.getSessionId()));
+            assertTrue(trace.getBodyAsString().contains("\"answer\""));
+            assertEquals("Bearer api-key", trace.getHeader("Authorization"));
+        }
+    }
+
+    @Test
+    public void testInjectsFaultsPerEndpoint() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start();
+             Freeplay fpClient = client(server, new HttpConfig())) {
+            server.setFaults(Endpoint.COMPLETIONS, new Faults().rateLimitRate(1.0));
+            server.setFaults(Endpoint.FEEDBACK, new Faults().errorRate(1.0).errorStatus(502));
+
+            assertFailsWith(FreeplayClientException.class, fpClient.recordings()
+                    .create(new RecordPayload(PROJECT_ID, List.of(new ChatMessage("assistant", "hello")))));
+            assertFailsWith(FreeplayServerException.class,
+                    fpClient.customerFeedback().update(PROJECT_ID, "completion-id", Map.of("helpful", true)));
+            fpClient.prompts().get(PROJECT_ID, "my-prompt", "latest").get();
+
+            assertEquals(2, server.getInjectedFaultCount());
+            assertEquals(429, server.getRequests(Endpoint.COMPLETIONS).get(0).getStatus());
+            assertEquals(502, server.getRequests(Endpoint.FEEDBACK).get(0).getStatus());
+
+            // Ending the outage lets later calls through.
+            server.setFaults(Endpoint.COMPLETIONS, null);
+            fpClient.recordings()
+                    .create(new RecordPayload(PROJECT_ID, List.of(new ChatMessage("assistant", "hello"))))
+                    .get();
+        }
+    }
+
+    @Test
+    public void testRetriesRecoverFromRateLimiting() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config()
+                .faults(Endpoint.PROMPT_TEMPLATES, new Faults().rateLimitRate(0.5).retryAfter(null)));
+             Freeplay fpClient = client(server, new HttpConfig().retryPolicy(new RetryPolicy()
+                     .maxAttempts(20)
+                     .initialBackoff(Duration.ofMillis(1))
+                     .maxBackoff(Duration.ofMillis(5))))) {
+            for (int i = 0; i < 20; i++) {
+                fpClient.prompts().get(PROJECT_ID, "prompt-" + i, "latest").get();
+            }
+
+            assertEquals(20 + server.getInjectedFaultCount(), server.getRequestCount(Endpoint.PROMPT_TEMPLATES));
+        }
+    }
+
+    @Test
+    public void testDelaysResponsesWithoutHoldingHandlerThreads() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config()
+                .threads(2)
+                .faults(new Faults().latency(Latency.fixed(Duration.ofMillis(200)))));
+             Freeplay fpClient = client(server, new HttpConfig())) {
+            long start = System.nanoTime();
+            List<CompletableFuture<TemplatePrompt>> calls = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                calls.add(fpClient.prompts().get(PROJECT_ID, "prompt-" + i, "latest"));
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 40 calls at 200ms each would take 4s if two threads slept through the delay.
+            assertTrue("took " + elapsedMillis + "ms", elapsedMillis >= 200 && elapsedMillis < 2000);
+            assertEquals(40, server.getRequestCount(Endpoint.PROMPT_TEMPLATES));
+        }
+    }
+
+    @Test
+    public void testCapturesCompressedBodiesDecompressed() throws Exception {
+        try (StubFreeplayServer server = StubFreeplayServer.start(new StubFreeplayServer.Config().maxCapturedRequests(1));
+             Freeplay fpClient = client(server, new HttpConfig().gzipRequestBodies(0))) {
+            for (int i = 0; i < 3; i++) {
+                fpClient.recordings()
+                        .create(new RecordPayload(PROJECT_ID, List.of(new ChatMessage("assistant", "hello " + i))))
+                        .get();
+            }
+
+            List<CapturedRequest> requests = server.getRequests();
+            assertEquals(1, requests.size());
+            assertEquals(3, server.getRequestCount());
+            assertEquals("gzip", requests.get(0).getHeader("Content-Encoding"));
+            assertTrue(requests.get(0).getBodyAsString().contains("hello 0"));
+        }
+    }
+
+    private static Freeplay client(StubFreeplayServer server, HttpConfig httpConfig) {
+        return new Freeplay(Config()
+                .freeplayAPIKey("api-key")
+                .baseUrl(server.getBaseUrl())
+                .httpConfig(httpConfig));
+    }
+
+    private static void assertFailsWith(Class<? extends Throwable> expected, CompletableFuture<?> call)
+            throws InterruptedException {
+        try {
+            call.get();
+            fail("Expected " + expected.getSimpleName());
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), expected.isInstance(e.getCause()));
+        }
+    }
+}